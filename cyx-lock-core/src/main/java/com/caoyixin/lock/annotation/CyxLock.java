@@ -1,5 +1,8 @@
 package com.caoyixin.lock.annotation;
 
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.support.AcquireStrategy;
+
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -24,15 +27,15 @@ public @interface CyxLock {
 
     /**
      * 锁的过期时间，单位：毫秒
-     * 默认30秒
+     * 默认-1，即使用全局配置cyx-lock.expire（默认30秒）
      */
-    long expire() default 30000;
+    long expire() default -1;
 
     /**
      * 获取锁的超时时间，单位：毫秒
-     * 默认3秒
+     * 默认-1，即使用全局配置cyx-lock.acquire-timeout（默认3秒）；为0时只尝试一次，锁被占用时立即失败
      */
-    long acquireTimeout() default 3000;
+    long acquireTimeout() default -1;
 
     /**
      * 是否自动释放锁
@@ -43,4 +46,48 @@ public @interface CyxLock {
      * 锁的名称，用于日志和监控
      */
     String name() default "";
-}
\ No newline at end of file
+
+    /**
+     * 是否为每个key表达式分别加锁，默认将所有表达式的值合并为一个key
+     * 表达式的值为集合或数组时为其中每个元素分别加锁，所有key同时获取、同时释放
+     */
+    boolean multi() default false;
+
+    /**
+     * 锁模式，默认为独占锁
+     * 读锁之间不互斥，适用于读多写少的场景；multi模式下只支持独占锁
+     */
+    LockMode mode() default LockMode.EXCLUSIVE;
+
+    /**
+     * 许可数量，大于0时同一个key最多允许指定数量的持有者同时持有，每个许可按expire独立过期
+     * 默认0，即不使用许可锁；不能与multi和读写锁同时使用
+     */
+    int permits() default 0;
+
+    /**
+     * 是否合并同一JVM内的并发调用，开启后同一方法相同key的调用正在执行时，
+     * 其他调用者不获取锁也不执行方法，等待并返回其结果或异常
+     * 适用于刷新缓存等多次执行与一次执行效果相同的方法；不支持异步和响应式返回类型
+     */
+    boolean singleFlight() default false;
+
+    /**
+     * 获取独占锁时的等待策略，默认使用全局配置的策略
+     * 只对同步方法的单key独占锁生效，不支持读写锁、许可锁和multi模式
+     */
+    AcquireStrategy.Type strategy() default AcquireStrategy.Type.DEFAULT;
+
+    /**
+     * 分桶数量，大于0时key按哈希映射到该方法固定数量的分桶key上，不同key可能落在同一个分桶而相互等待
+     * 默认-1，即使用全局配置；0表示不分桶
+     */
+    int stripes() default -1;
+
+    /**
+     * 分片表达式，支持SpEL表达式，如"#tenantId"；值作为哈希标签写入key，形如{@code 前缀:类名:方法名:{值}:key}，
+     * 同一分片的key位于Redis Cluster的同一槽位，multi模式下的多个key可以在一次脚本调用中获取和释放
+     * 默认空，即使用全局配置；值为null时不使用哈希标签
+     */
+    String shardKey() default "";
+}
@@ -0,0 +1,40 @@
+package com.caoyixin.lock.core;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步锁执行器接口，等待锁期间不占用调用线程
+ * <p>
+ * 异步获取的锁不与任何线程绑定，必须通过返回的锁信息释放，
+ * 同一个key的多次异步获取之间不会重入。
+ *
+ * @author caoyixin
+ */
+public interface AsyncLockExecutor extends LockExecutor {
+
+    /**
+     * 异步获取锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，如果获取失败结果为null
+     */
+    CompletableFuture<LockInfo> acquireAsync(String key, long expire, long acquireTimeout);
+
+    /**
+     * 异步释放锁
+     *
+     * @param lockInfo 锁信息
+     * @return 释放结果
+     */
+    CompletableFuture<ReleaseResult> releaseAsync(LockInfo lockInfo);
+
+    /**
+     * 异步查询锁状态
+     *
+     * @param key 锁的key
+     * @return 锁是否已被获取
+     */
+    CompletableFuture<Boolean> isLockedAsync(String key);
+}
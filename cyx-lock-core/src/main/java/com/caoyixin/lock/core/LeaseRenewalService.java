@@ -0,0 +1,173 @@
+package com.caoyixin.lock.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 锁续期服务，跟踪当前JVM持有的所有锁并定时续期
+ * <p>
+ * 所有锁共用一个定时任务，每次只续期剩余时间不足过期时间2/3的锁，
+ * 过期时间相同的锁在一次批量请求中续期，持有大量锁时每次也只需要少量的请求。
+ * 锁的过期时间应不小于续期间隔的3倍，否则锁可能在两次续期之间过期。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class LeaseRenewalService implements AutoCloseable {
+
+    /**
+     * 默认续期间隔，单位：毫秒
+     */
+    public static final long DEFAULT_INTERVAL = 1000;
+
+    private final RenewableLockExecutor lockExecutor;
+
+    /**
+     * 正在续期的锁
+     */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler;
+
+    public LeaseRenewalService(RenewableLockExecutor lockExecutor) {
+        this(lockExecutor, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * @param lockExecutor 锁执行器
+     * @param interval     续期间隔，单位：毫秒
+     */
+    public LeaseRenewalService(RenewableLockExecutor lockExecutor, long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.lockExecutor = lockExecutor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cyx-lock-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::renewDue, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 开始续期锁
+     *
+     * @param lockInfo 锁信息
+     * @param expire   每次续期后的过期时间，单位：毫秒
+     */
+    public void register(LockInfo lockInfo, long expire) {
+        if (lockInfo == null || expire <= 0) {
+            return;
+        }
+        leases.add(new Lease(lockInfo, expire));
+    }
+
+    /**
+     * 停止续期锁，释放锁之前调用
+     *
+     * @param lockInfo 锁信息
+     */
+    public void unregister(LockInfo lockInfo) {
+        if (lockInfo != null) {
+            leases.remove(new Lease(lockInfo, 0));
+        }
+    }
+
+    /**
+     * 正在续期的锁数量
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    /**
+     * 续期所有剩余时间不足过期时间2/3的锁
+     */
+    public void renewDue() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // 按过期时间分组，每组一次批量请求
+            Map<Long, List<Lease>> groups = new HashMap<>();
+            for (Lease lease : leases) {
+                if (now - lease.renewedAt >= lease.expire / 3) {
+                    groups.computeIfAbsent(lease.expire, k -> new ArrayList<>()).add(lease);
+                }
+            }
+
+            for (Map.Entry<Long, List<Lease>> group : groups.entrySet()) {
+                renew(group.getValue(), group.getKey());
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while renewing lock leases", e);
+        }
+    }
+
+    private void renew(List<Lease> due, long expire) {
+        List<LockInfo> locks = new ArrayList<>(due.size());
+        for (Lease lease : due) {
+            locks.add(lease.lockInfo);
+        }
+
+        long now = System.currentTimeMillis();
+        List<Boolean> results = lockExecutor.renew(locks, expire);
+        if (results == null) {
+            log.warn("Failed to renew lock leases, count: {}, will retry on next tick", due.size());
+            return;
+        }
+
+        for (int i = 0; i < due.size(); i++) {
+            Lease lease = due.get(i);
+            if (Boolean.TRUE.equals(results.get(i))) {
+                lease.renewedAt = now;
+                lease.lockInfo.setExpireTime(now + expire);
+            } else if (leases.remove(lease)) {
+                log.warn("Lock lease lost, stop renewing, key: {}", lease.lockInfo.getKey());
+            }
+        }
+        log.debug("Renewed lock leases, count: {}, expire: {}ms", due.size(), expire);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        leases.clear();
+    }
+
+    /**
+     * 续期中的锁，按锁信息对象本身区分
+     */
+    private static final class Lease {
+
+        private final LockInfo lockInfo;
+
+        private final long expire;
+
+        private volatile long renewedAt = System.currentTimeMillis();
+
+        private Lease(LockInfo lockInfo, long expire) {
+            this.lockInfo = lockInfo;
+            this.expire = expire;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Lease && ((Lease) o).lockInfo == lockInfo;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(lockInfo);
+        }
+    }
+}
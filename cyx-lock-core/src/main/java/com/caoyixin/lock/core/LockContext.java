@@ -0,0 +1,83 @@
+package com.caoyixin.lock.core;
+
+/**
+ * 当前线程持有的锁上下文
+ * <p>
+ * {@code @CyxLock}标注的方法和{@link LockTemplate}的executeWith系列方法在执行业务操作期间绑定锁信息，
+ * 业务代码可以取出防护令牌写入存储，由存储层拒绝令牌更小的写入。异步和响应式方法只在方法体同步执行期间可用。
+ *
+ * @author caoyixin
+ */
+public final class LockContext {
+
+    private static final ThreadLocal<LockInfo> CURRENT = new ThreadLocal<>();
+
+    private LockContext() {
+    }
+
+    /**
+     * 获取当前线程持有的锁信息
+     *
+     * @return 锁信息，不在锁保护的操作中时返回null
+     */
+    public static LockInfo current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 获取当前锁的防护令牌
+     *
+     * @return 防护令牌，没有持有锁或执行器不支持时返回null
+     */
+    public static Long fencingToken() {
+        LockInfo lockInfo = CURRENT.get();
+        return lockInfo != null ? lockInfo.getFencingToken() : null;
+    }
+
+    /**
+     * 获取当前锁中指定key的防护令牌，用于多key锁
+     *
+     * @param key 锁的key
+     * @return 防护令牌，没有持有该key的锁或执行器不支持时返回null
+     */
+    public static Long fencingToken(String key) {
+        LockInfo lockInfo = CURRENT.get();
+        if (lockInfo == null || key == null) {
+            return null;
+        }
+        if (lockInfo.getLocks() == null) {
+            return key.equals(lockInfo.getKey()) ? lockInfo.getFencingToken() : null;
+        }
+        for (LockInfo lock : lockInfo.getLocks()) {
+            if (key.equals(lock.getKey())) {
+                return lock.getFencingToken();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 绑定锁信息到当前线程，需要在finally中调用{@link #restore(LockInfo)}
+     *
+     * @param lockInfo 锁信息
+     * @return 之前绑定的锁信息
+     */
+    public static LockInfo bind(LockInfo lockInfo) {
+        LockInfo previous = CURRENT.get();
+        CURRENT.set(lockInfo);
+        return previous;
+    }
+
+    /**
+     * 恢复之前绑定的锁信息
+     *
+     * @param previous {@link #bind(LockInfo)}返回的锁信息
+     */
+    public static void restore(LockInfo previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -9,11 +9,14 @@ public interface LockExecutor {
 
     /**
      * 获取锁
+     * <p>
+     * 持有者标识应在每次获取时生成，不与调用线程绑定，同一线程的重入由{@link LockTemplate}处理；
+     * 本地移交和延迟释放把锁交给其他线程时沿用该标识，原线程再次获取时不能重入。
      *
      * @param key            锁的key
      * @param expire         锁的过期时间，单位：毫秒
      * @param acquireTimeout 获取锁的超时时间，单位：毫秒
-     * @return 锁信息，如果获取失败返回null
+     * @return 锁信息，如果获取失败返回null；执行器可通过value指定持有者标识
      */
     LockInfo acquire(String key, long expire, long acquireTimeout);
 
@@ -25,6 +28,16 @@ public interface LockExecutor {
      */
     boolean release(LockInfo lockInfo);
 
+    /**
+     * 释放锁并返回详细结果
+     *
+     * @param lockInfo 锁信息
+     * @return 释放结果
+     */
+    default ReleaseResult releaseWithResult(LockInfo lockInfo) {
+        return release(lockInfo) ? ReleaseResult.RELEASED : ReleaseResult.NOT_OWNER;
+    }
+
     /**
      * 查询锁状态
      *
@@ -34,7 +47,7 @@ public interface LockExecutor {
     boolean isLocked(String key);
 
     /**
-     * 重入锁
+     * 重入锁，{@link LockTemplate}在当前线程或锁上下文已持有该锁时调用，不访问锁服务
      *
      * @param lockInfo 锁信息
      * @return 更新后的锁信息
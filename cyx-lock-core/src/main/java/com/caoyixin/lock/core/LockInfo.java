@@ -1,8 +1,16 @@
 package com.caoyixin.lock.core;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 锁信息，保存锁的基本信息
  *
@@ -52,6 +60,36 @@ public class LockInfo {
      */
     private String name;
 
+    /**
+     * 锁模式
+     */
+    private LockMode mode = LockMode.EXCLUSIVE;
+
+    /**
+     * 许可总数，许可锁有效；其他锁为null
+     */
+    private Integer permits;
+
+    /**
+     * 防护令牌，同一个key每次获取锁严格递增，可交给存储层拒绝过期持有者的写入；
+     * 读锁、许可锁和不支持的执行器为null，多key锁的令牌在每个key的锁信息中
+     */
+    private Long fencingToken;
+
+    /**
+     * 多key锁中每个key的锁信息，按获取顺序排列；单key锁为null
+     */
+    private List<LockInfo> locks;
+
+    /**
+     * 同步获取该锁的线程持有的锁，由{@link LockTemplate}维护；锁可能在其他线程释放，释放时从中移除
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient Map<String, LockInfo> heldLocks;
+
     /**
      * 锁的状态枚举
      */
@@ -0,0 +1,23 @@
+package com.caoyixin.lock.core;
+
+/**
+ * 锁模式枚举
+ * <p>
+ * 同一个key应始终使用独占锁或始终使用读写锁，两者的数据结构不同，不能混用。
+ *
+ * @author caoyixin
+ */
+public enum LockMode {
+    /**
+     * 独占锁
+     */
+    EXCLUSIVE,
+    /**
+     * 读锁，多个读锁可以同时持有，与写锁互斥
+     */
+    READ,
+    /**
+     * 写锁，与读锁和其他写锁互斥
+     */
+    WRITE
+}
@@ -0,0 +1,28 @@
+package com.caoyixin.lock.core;
+
+/**
+ * 锁释放通知接口，由支持释放通知的锁执行器实现
+ * <p>
+ * 等待者先订阅再检查锁状态，锁释放时立即被唤醒，不需要轮询。
+ * 锁因过期而失效时不会发出通知，等待者应以锁的剩余存活时间作为最长等待时间。
+ *
+ * @author caoyixin
+ */
+public interface LockReleaseNotifier {
+
+    /**
+     * 订阅锁释放通知，同一个key在同一个执行器内共享一个底层订阅
+     *
+     * @param key 锁的key
+     * @return 订阅，使用完毕后必须关闭
+     */
+    ReleaseSubscription subscribe(String key);
+
+    /**
+     * 查询锁的剩余存活时间
+     *
+     * @param key 锁的key
+     * @return 剩余存活时间，单位：毫秒；锁不存在时返回-2，锁没有过期时间时返回-1
+     */
+    long remainTimeToLive(String key);
+}
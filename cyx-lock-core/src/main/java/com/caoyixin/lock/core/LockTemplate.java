@@ -2,10 +2,24 @@ package com.caoyixin.lock.core;
 
 import com.caoyixin.lock.exception.LockException;
 import com.caoyixin.lock.metrics.LockMetrics;
+import com.caoyixin.lock.support.AcquireStrategies;
+import com.caoyixin.lock.support.AcquireStrategy;
+import com.caoyixin.lock.support.SingleFlight;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -23,6 +37,62 @@ public class LockTemplate {
     @Setter
     private LockMetrics lockMetrics;
 
+    /**
+     * 锁执行器不支持异步时，用于执行异步锁操作的线程池；异步获取锁后的业务操作也在其中执行
+     */
+    @Setter
+    private Executor fallbackExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * 锁续期服务，为null时不续期，锁在过期时间后自动失效
+     */
+    @Setter
+    private LeaseRenewalService leaseRenewalService;
+
+    /**
+     * 同一把独占锁在本地线程之间连续移交的最大次数，达到后释放给锁服务，让其他节点有机会获取；
+     * 0表示不移交，每次释放都访问锁服务
+     */
+    @Setter
+    private int cohortMaxHandoffs;
+
+    /**
+     * 延迟释放服务，为null时立即释放；不为null时独占锁释放后短暂保留，期间本JVM再次获取时不访问锁服务
+     */
+    @Setter
+    private StickyReleaseService stickyReleaseService;
+
+    /**
+     * 独占锁默认的获取策略，默认由执行器自行等待
+     */
+    @Setter
+    private AcquireStrategy acquireStrategy = AcquireStrategies.EXECUTOR;
+
+    /**
+     * 当前线程同步获取并持有的单key锁，同一线程再次获取时只增加重入计数，不访问锁服务；
+     * 锁可能在其他线程释放，因此使用线程安全的Map
+     */
+    private final ThreadLocal<Map<String, LockInfo>> heldLocks = new ThreadLocal<>();
+
+    /**
+     * 共享执行时合并同一JVM内相同key的并发调用
+     */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * 开启本地移交时，同一个key的独占锁在本地排队的线程
+     */
+    private final ConcurrentHashMap<String, Cohort> cohorts = new ConcurrentHashMap<>();
+
+    /**
+     * 获取执行异步锁操作的线程池，异步获取锁后还要执行业务操作的调用方也使用该线程池
+     *
+     * @return 异步锁操作的线程池
+     */
+    public Executor getFallbackExecutor() {
+        return fallbackExecutor;
+    }
+
     /**
      * 获取锁
      *
@@ -36,16 +106,655 @@ public class LockTemplate {
     }
 
     /**
-     * 获取锁
-     *
-     * @param key            锁的key
-     * @param expire         锁的过期时间，单位：毫秒
-     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
-     * @param name           锁的名称
-     * @return 锁信息，如果获取失败返回null
+     * 获取锁
+     * <p>
+     * 当前线程或当前{@link LockContext}已持有该key的锁且未过期时，返回已持有的锁信息并增加重入计数，
+     * 不访问锁服务，重入时不延长锁的过期时间。
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lock(String key, long expire, long acquireTimeout, String name) {
+        return lock(key, LockMode.EXCLUSIVE, expire, acquireTimeout, name);
+    }
+
+    /**
+     * 尝试一次获取独占锁，锁被占用时立即返回null
+     * <p>
+     * 只访问一次锁服务，不订阅释放通知，也不等待。
+     *
+     * @param key    锁的key
+     * @param expire 锁的过期时间，单位：毫秒
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo tryLock(String key, long expire) {
+        return tryLock(key, expire, null);
+    }
+
+    /**
+     * 尝试一次获取独占锁，锁被占用时立即返回null
+     * <p>
+     * 只访问一次锁服务，不订阅释放通知，也不等待。
+     *
+     * @param key    锁的key
+     * @param expire 锁的过期时间，单位：毫秒
+     * @param name   锁的名称
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo tryLock(String key, long expire, String name) {
+        return lock(key, LockMode.EXCLUSIVE, expire, 0, name, AcquireStrategies.TRY_ONCE);
+    }
+
+    /**
+     * 按指定模式获取锁
+     * <p>
+     * 执行器未实现{@link ReadWriteLockExecutor}时以独占锁代替读锁和写锁，返回的锁信息中mode为实际获取的锁模式。
+     * 当前线程或当前{@link LockContext}已按相同模式持有该key的锁时只增加重入计数。
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lock(String key, LockMode mode, long expire, long acquireTimeout, String name) {
+        return lock(key, mode, expire, acquireTimeout, name, null);
+    }
+
+    /**
+     * 按指定模式和获取策略获取锁
+     * <p>
+     * 获取策略只用于独占锁，读锁和写锁由执行器自行等待。acquireTimeout不大于0时不论获取策略都只尝试一次。
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param strategy       获取策略，为null时使用默认的获取策略
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lock(String key, LockMode mode, long expire, long acquireTimeout, String name,
+            AcquireStrategy strategy) {
+        // 已持有时重入
+        LockInfo held = reenter(key, effectiveMode(mode), true);
+        if (held != null) {
+            return held;
+        }
+
+        LockInfo lockInfo = cohortMaxHandoffs > 0 && effectiveMode(mode) == LockMode.EXCLUSIVE
+                ? acquireInCohort(key, expire, acquireTimeout, name, strategy)
+                : acquire(key, mode, expire, acquireTimeout, name, strategy);
+        if (lockInfo != null) {
+            Map<String, LockInfo> locks = heldLocks.get();
+            if (locks == null) {
+                locks = new ConcurrentHashMap<>();
+                heldLocks.set(locks);
+            }
+            locks.put(key, lockInfo);
+            lockInfo.setHeldLocks(locks);
+        }
+        return lockInfo;
+    }
+
+    /**
+     * 通过执行器获取锁，不检查重入
+     */
+    private LockInfo acquire(String key, LockMode mode, long expire, long acquireTimeout, String name,
+            AcquireStrategy strategy) {
+        mode = effectiveMode(mode);
+        log.debug("Trying to acquire {} lock, key: {}, expire: {}, acquireTimeout: {}, name: {}",
+                mode, key, expire, acquireTimeout, name);
+
+        long startTime = System.currentTimeMillis();
+
+        // 取回延迟释放中的锁
+        if (mode == LockMode.EXCLUSIVE) {
+            LockInfo parked = claimParked(key, expire, name, startTime);
+            if (parked != null) {
+                return parked;
+            }
+        }
+
+        // 记录获取锁的尝试次数
+        if (lockMetrics != null) {
+            lockMetrics.recordLockAttempt(key, name);
+        }
+
+        // 获取锁
+        LockInfo lockInfo = mode == LockMode.EXCLUSIVE
+                ? strategyFor(strategy, acquireTimeout).acquire(lockExecutor, key, expire, acquireTimeout)
+                : ((ReadWriteLockExecutor) lockExecutor).acquire(key, mode, expire, acquireTimeout);
+        return afterAcquire(lockInfo, key, expire, acquireTimeout, name, startTime);
+    }
+
+    /**
+     * 获取独占锁使用的获取策略，不等待时只尝试一次
+     */
+    private AcquireStrategy strategyFor(AcquireStrategy strategy, long acquireTimeout) {
+        if (acquireTimeout <= 0) {
+            return AcquireStrategies.TRY_ONCE;
+        }
+        return strategy != null ? strategy : acquireStrategy;
+    }
+
+    /**
+     * 在本地排队获取独占锁，前一个本地持有者移交的锁直接接手，不访问锁服务
+     */
+    private LockInfo acquireInCohort(String key, long expire, long acquireTimeout, String name,
+            AcquireStrategy strategy) {
+        // 参数校验
+        if (key == null) {
+            throw new IllegalArgumentException("Lock key must not be null");
+        }
+
+        long startTime = System.currentTimeMillis();
+        Cohort cohort = cohorts.compute(key, (k, current) -> {
+            Cohort joined = current != null ? current : new Cohort();
+            joined.users++;
+            return joined;
+        });
+
+        LockInfo lockInfo = null;
+        boolean entered = false;
+        try {
+            // 本地排队
+            entered = cohort.permit.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS);
+            if (!entered) {
+                if (lockMetrics != null) {
+                    lockMetrics.recordLockAttempt(key, name);
+                }
+                return afterAcquire(null, key, expire, acquireTimeout, name, startTime);
+            }
+
+            // 接手本地移交的锁
+            LockInfo handed = cohort.handed;
+            cohort.handed = null;
+            if (handed != null && handed.getExpireTime() > System.currentTimeMillis()) {
+                lockInfo = takeOver(handed, key, expire, name, startTime);
+                cohort.holder = lockInfo;
+                return lockInfo;
+            }
+
+            // 获取锁
+            long remaining = Math.max(acquireTimeout - (System.currentTimeMillis() - startTime), 0);
+            lockInfo = acquire(key, LockMode.EXCLUSIVE, expire, remaining, name, strategy);
+            if (lockInfo != null) {
+                cohort.holder = lockInfo;
+                cohort.lease = expire;
+            }
+            return lockInfo;
+        } catch (InterruptedException e) {
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for local lock holder, key: {}", key);
+            return null;
+        } finally {
+            if (lockInfo == null) {
+                if (entered) {
+                    exitCohort(key, cohort);
+                } else {
+                    leaveCohort(key, cohort);
+                }
+            }
+        }
+    }
+
+    /**
+     * 接手本地移交或延迟释放中的锁，沿用原锁的持有者标识、过期时间和防护令牌
+     * <p>
+     * 执行器的持有者标识每次获取都不相同，接手后持有者标识只属于接手的线程，原线程再次获取时使用新的标识，不会重入。
+     */
+    private LockInfo takeOver(LockInfo handed, String key, long expire, String name, long startTime) {
+        if (lockMetrics != null) {
+            lockMetrics.recordLockAttempt(key, name);
+        }
+        long now = System.currentTimeMillis();
+        handed.setLockedAt(now)
+                .setState(LockInfo.LockState.LOCKED)
+                .setName(name)
+                .setAcquireTime(now - startTime);
+        if (lockMetrics != null) {
+            lockMetrics.recordLockSuccess(key, name, handed.getAcquireTime());
+        }
+        if (leaseRenewalService != null) {
+            leaseRenewalService.register(handed, expire);
+        }
+        log.debug("Took over lock handed off by local holder, key: {}, value: {}", key, handed.getValue());
+        return handed;
+    }
+
+    /**
+     * 取回延迟释放中的锁，剩余有效期不足expire的一半时立即释放并返回null
+     */
+    private LockInfo claimParked(String key, long expire, String name, long startTime) {
+        if (stickyReleaseService == null) {
+            return null;
+        }
+        LockInfo parked = stickyReleaseService.claim(key);
+        if (parked == null) {
+            return null;
+        }
+        if (parked.getExpireTime() - System.currentTimeMillis() < expire / 2) {
+            releaseWithExecutor(parked);
+            return null;
+        }
+        return takeOver(parked, key, expire, name, startTime);
+    }
+
+    /**
+     * 可以延迟释放的锁，只有单key独占锁
+     */
+    private boolean isStickable(LockInfo lockInfo) {
+        return stickyReleaseService != null && lockInfo.getLocks() == null && lockInfo.getPermits() == null
+                && lockInfo.getMode() == LockMode.EXCLUSIVE;
+    }
+
+    /**
+     * 本地排队获取的锁所属的队列，其他锁返回null
+     */
+    private Cohort cohortOf(LockInfo lockInfo) {
+        if (cohortMaxHandoffs <= 0 || lockInfo.getKey() == null || lockInfo.getLocks() != null) {
+            return null;
+        }
+        Cohort cohort = cohorts.get(lockInfo.getKey());
+        return cohort != null && cohort.holder == lockInfo ? cohort : null;
+    }
+
+    /**
+     * 本地有线程等待同一把锁、未达到连续移交次数上限且剩余有效期不少于一半时，将锁移交给等待的线程
+     *
+     * @return 是否已移交，为false时需要通过执行器释放锁
+     */
+    private boolean handOff(Cohort cohort, LockInfo lockInfo, long heldTime) {
+        if (cohort.handoffs >= cohortMaxHandoffs || !cohort.permit.hasQueuedThreads()
+                || lockInfo.getExpireTime() - System.currentTimeMillis() < cohort.lease / 2) {
+            return false;
+        }
+
+        cohort.handoffs++;
+        cohort.holder = null;
+        cohort.handed = new LockInfo()
+                .setKey(lockInfo.getKey())
+                .setValue(lockInfo.getValue())
+                .setExpireTime(lockInfo.getExpireTime())
+                .setFencingToken(lockInfo.getFencingToken());
+        afterRelease(lockInfo, ReleaseResult.RELEASED, heldTime);
+        log.debug("Handed off lock to local waiter, key: {}, handoffs: {}", lockInfo.getKey(), cohort.handoffs);
+
+        cohort.permit.release();
+        leaveCohort(lockInfo.getKey(), cohort);
+        return true;
+    }
+
+    /**
+     * 锁已通过执行器释放或获取失败，让出本地队列
+     */
+    private void exitCohort(String key, Cohort cohort) {
+        cohort.holder = null;
+        cohort.handoffs = 0;
+        cohort.permit.release();
+        leaveCohort(key, cohort);
+    }
+
+    /**
+     * 离开本地队列，最后一个线程离开时移除队列，并释放无人接手的移交锁
+     */
+    private void leaveCohort(String key, Cohort cohort) {
+        LockInfo[] orphan = new LockInfo[1];
+        cohorts.computeIfPresent(key, (k, current) -> {
+            if (current != cohort || --current.users > 0) {
+                return current;
+            }
+            orphan[0] = current.handed;
+            return null;
+        });
+        if (orphan[0] != null) {
+            log.debug("Releasing lock handed off to no local waiter, key: {}", key);
+            releaseWithExecutor(orphan[0]);
+        }
+    }
+
+    /**
+     * 实际使用的锁模式，执行器不支持读写锁时为独占锁
+     */
+    private LockMode effectiveMode(LockMode mode) {
+        if (mode == null || !(lockExecutor instanceof ReadWriteLockExecutor)) {
+            return LockMode.EXCLUSIVE;
+        }
+        return mode;
+    }
+
+    /**
+     * 当前上下文已按相同模式持有该key的锁时增加重入计数
+     *
+     * @param threadBound 是否检查当前线程同步获取的锁，异步获取的锁不与线程绑定，只检查{@link LockContext}
+     * @return 已持有的锁信息，未持有时返回null
+     */
+    private LockInfo reenter(String key, LockMode mode, boolean threadBound) {
+        LockInfo held = null;
+        if (threadBound) {
+            Map<String, LockInfo> locks = heldLocks.get();
+            held = locks != null ? locks.get(key) : null;
+        }
+        if (!isReentrant(held, key, mode)) {
+            held = LockContext.current();
+            if (!isReentrant(held, key, mode)) {
+                return null;
+            }
+        }
+
+        // 与释放互斥，锁正在释放时不能重入
+        synchronized (held) {
+            if (held.getState() != LockInfo.LockState.LOCKED) {
+                return null;
+            }
+            lockExecutor.reentry(held);
+        }
+        log.debug("Reentered lock, key: {}, value: {}, reentrantCount: {}",
+                key, held.getValue(), held.getReentrantCount());
+        return held;
+    }
+
+    private static boolean isReentrant(LockInfo held, String key, LockMode mode) {
+        return held != null && held.getLocks() == null && held.getPermits() == null
+                && held.getMode() == mode && held.getKey().equals(key)
+                && held.getState() == LockInfo.LockState.LOCKED
+                && held.getExpireTime() != null && held.getExpireTime() > System.currentTimeMillis();
+    }
+
+    /**
+     * 减少重入计数，计数为0时标记锁正在释放并从获取该锁的线程持有的锁中移除
+     *
+     * @return 是否只减少了重入计数，为false时需要通过执行器释放锁
+     */
+    private boolean exitReentry(LockInfo lockInfo) {
+        Map<String, LockInfo> locks;
+        synchronized (lockInfo) {
+            if (lockInfo.getReentrantCount() > 0) {
+                lockInfo.setReentrantCount(lockInfo.getReentrantCount() - 1);
+                return true;
+            }
+            if (lockInfo.getState() == LockInfo.LockState.LOCKED) {
+                lockInfo.setState(LockInfo.LockState.UNLOCKED);
+            }
+            locks = lockInfo.getHeldLocks();
+            lockInfo.setHeldLocks(null);
+        }
+
+        // 锁可能在其他线程释放，从获取线程的Map中移除；只有在获取线程上才能清除线程变量
+        if (locks != null && lockInfo.getKey() != null) {
+            locks.remove(lockInfo.getKey(), lockInfo);
+            if (locks.isEmpty() && heldLocks.get() == locks) {
+                heldLocks.remove();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 异步获取锁，执行器支持异步时等待锁期间不占用调用线程
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，如果获取失败结果为null
+     */
+    public CompletableFuture<LockInfo> lockAsync(String key, long expire, long acquireTimeout) {
+        return lockAsync(key, expire, acquireTimeout, null);
+    }
+
+    /**
+     * 异步获取锁，执行器支持异步时等待锁期间不占用调用线程
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败结果为null
+     */
+    public CompletableFuture<LockInfo> lockAsync(String key, long expire, long acquireTimeout, String name) {
+        // 当前LockContext已持有时重入，异步获取的锁不与线程绑定
+        LockInfo held = reenter(key, LockMode.EXCLUSIVE, false);
+        if (held != null) {
+            return CompletableFuture.completedFuture(held);
+        }
+
+        log.debug("Trying to acquire lock asynchronously, key: {}, expire: {}, acquireTimeout: {}, name: {}",
+                key, expire, acquireTimeout, name);
+
+        long startTime = System.currentTimeMillis();
+
+        // 取回延迟释放中的锁
+        LockInfo parked = claimParked(key, expire, name, startTime);
+        if (parked != null) {
+            return CompletableFuture.completedFuture(parked);
+        }
+
+        // 记录获取锁的尝试次数
+        if (lockMetrics != null) {
+            lockMetrics.recordLockAttempt(key, name);
+        }
+
+        // 获取锁，执行器不支持异步时在后备线程池中同步获取
+        CompletableFuture<LockInfo> future;
+        if (lockExecutor instanceof AsyncLockExecutor) {
+            future = ((AsyncLockExecutor) lockExecutor).acquireAsync(key, expire, acquireTimeout);
+        } else {
+            future = CompletableFuture.supplyAsync(
+                    () -> strategyFor(null, acquireTimeout).acquire(lockExecutor, key, expire, acquireTimeout),
+                    fallbackExecutor);
+        }
+        return future.thenApply(lockInfo -> afterAcquire(lockInfo, key, expire, acquireTimeout, name, startTime));
+    }
+
+    /**
+     * 按指定模式异步获取锁，读锁和写锁每次获取使用独立的持有者标识，不与任何线程绑定
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败结果为null
+     */
+    public CompletableFuture<LockInfo> lockAsync(String key, LockMode mode, long expire, long acquireTimeout,
+            String name) {
+        if (effectiveMode(mode) == LockMode.EXCLUSIVE) {
+            return lockAsync(key, expire, acquireTimeout, name);
+        }
+        LockInfo held = reenter(key, mode, false);
+        if (held != null) {
+            return CompletableFuture.completedFuture(held);
+        }
+
+        log.debug("Trying to acquire {} lock asynchronously, key: {}, expire: {}, acquireTimeout: {}, name: {}",
+                mode, key, expire, acquireTimeout, name);
+
+        long startTime = System.currentTimeMillis();
+
+        // 记录获取锁的尝试次数
+        if (lockMetrics != null) {
+            lockMetrics.recordLockAttempt(key, name);
+        }
+
+        return ((ReadWriteLockExecutor) lockExecutor).acquireAsync(key, mode, expire, acquireTimeout)
+                .thenApply(lockInfo -> afterAcquire(lockInfo, key, expire, acquireTimeout, name, startTime));
+    }
+
+    /**
+     * 获取许可锁
+     *
+     * @param key            锁的key
+     * @param permits        许可总数
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lockPermit(String key, int permits, long expire, long acquireTimeout) {
+        return lockPermit(key, permits, expire, acquireTimeout, null);
+    }
+
+    /**
+     * 获取许可锁，同一个key最多允许permits个持有者同时持有
+     * <p>
+     * 执行器未实现{@link PermitLockExecutor}时以独占锁代替，返回的锁信息中permits为null。
+     *
+     * @param key            锁的key
+     * @param permits        许可总数
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lockPermit(String key, int permits, long expire, long acquireTimeout, String name) {
+        // 参数校验
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be positive: " + permits);
+        }
+        if (!(lockExecutor instanceof PermitLockExecutor)) {
+            return lock(key, expire, acquireTimeout, name);
+        }
+        return acquirePermit(key, permits, expire, acquireTimeout, name);
+    }
+
+    /**
+     * 异步获取许可锁，在后备线程池中获取
+     * <p>
+     * 执行器未实现{@link PermitLockExecutor}时与{@link #lockAsync(String, long, long, String)}相同，
+     * 获取的锁不与后备线程池的线程绑定。
+     *
+     * @param key            锁的key
+     * @param permits        许可总数
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败结果为null
+     */
+    public CompletableFuture<LockInfo> lockPermitAsync(String key, int permits, long expire, long acquireTimeout,
+            String name) {
+        // 参数校验
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be positive: " + permits);
+        }
+        if (!(lockExecutor instanceof PermitLockExecutor)) {
+            return lockAsync(key, expire, acquireTimeout, name);
+        }
+        return CompletableFuture.supplyAsync(() -> acquirePermit(key, permits, expire, acquireTimeout, name),
+                fallbackExecutor);
+    }
+
+    /**
+     * 通过执行器获取许可，每个许可有独立的标识，不与线程绑定
+     */
+    private LockInfo acquirePermit(String key, int permits, long expire, long acquireTimeout, String name) {
+        log.debug("Trying to acquire permit, key: {}, permits: {}, expire: {}, acquireTimeout: {}, name: {}",
+                key, permits, expire, acquireTimeout, name);
+
+        long startTime = System.currentTimeMillis();
+
+        // 记录获取锁的尝试次数
+        if (lockMetrics != null) {
+            lockMetrics.recordLockAttempt(key, name);
+        }
+
+        // 获取许可
+        PermitLockExecutor permitLockExecutor = (PermitLockExecutor) lockExecutor;
+        LockInfo lockInfo = permitLockExecutor.acquire(key, permits, expire, acquireTimeout);
+        if (lockInfo != null && lockMetrics != null) {
+            lockMetrics.recordPermits(key, name, permits, () -> permitLockExecutor.availablePermits(key));
+        }
+        return afterAcquire(lockInfo, key, expire, acquireTimeout, name, startTime);
+    }
+
+    /**
+     * 查询许可锁可用的许可数量
+     *
+     * @param key 锁的key
+     * @return 可用的许可数量，执行器不支持许可锁或查询失败时返回-1
+     */
+    public int availablePermits(String key) {
+        if (!(lockExecutor instanceof PermitLockExecutor)) {
+            return -1;
+        }
+        return ((PermitLockExecutor) lockExecutor).availablePermits(key);
+    }
+
+    /**
+     * 同时获取多个key的锁
+     *
+     * @param keys           锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lockAll(Collection<String> keys, long expire, long acquireTimeout) {
+        return lockAll(keys, expire, acquireTimeout, null);
+    }
+
+    /**
+     * 同时获取多个key的锁
+     * <p>
+     * key去重后按字典序获取，所有调用方的获取顺序一致，不会相互死锁。执行器实现了{@link MultiLockExecutor}时
+     * 在一次原子操作中获取全部key，否则依次获取，任一key获取失败时释放已获取的key。
+     * 返回的锁信息通过{@link #releaseLock(LockInfo)}一次释放全部key。
+     *
+     * @param keys           锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回null
+     */
+    public LockInfo lockAll(Collection<String> keys, long expire, long acquireTimeout, String name) {
+        List<String> sortedKeys = sortedKeys(keys);
+        if (sortedKeys.size() == 1) {
+            return lock(sortedKeys.get(0), expire, acquireTimeout, name);
+        }
+        return acquireAll(sortedKeys, expire, acquireTimeout, name);
+    }
+
+    /**
+     * 异步同时获取多个key的锁
+     * <p>
+     * 只有一个key时与{@link #lockAsync(String, long, long, String)}相同；多个key时在后备线程池中获取，
+     * 获取的锁不与后备线程池的线程绑定，不会与同一线程上其他调用获取的锁重入。
+     *
+     * @param keys           锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败结果为null
+     */
+    public CompletableFuture<LockInfo> lockAllAsync(Collection<String> keys, long expire, long acquireTimeout,
+            String name) {
+        List<String> sortedKeys = sortedKeys(keys);
+        if (sortedKeys.size() == 1) {
+            return lockAsync(sortedKeys.get(0), expire, acquireTimeout, name);
+        }
+        return CompletableFuture.supplyAsync(() -> acquireAll(sortedKeys, expire, acquireTimeout, name),
+                fallbackExecutor);
+    }
+
+    /**
+     * 去重并按字典序排序多key锁的key
+     */
+    private static List<String> sortedKeys(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("Lock keys must not be empty");
+        }
+        return new ArrayList<>(new TreeSet<>(keys));
+    }
+
+    /**
+     * 获取多个key的锁，不记录到当前线程持有的锁中
      */
-    public LockInfo lock(String key, long expire, long acquireTimeout, String name) {
-        log.debug("Trying to acquire lock, key: {}, expire: {}, acquireTimeout: {}, name: {}",
+    private LockInfo acquireAll(List<String> sortedKeys, long expire, long acquireTimeout, String name) {
+        String key = String.join(",", sortedKeys);
+        log.debug("Trying to acquire multi lock, keys: {}, expire: {}, acquireTimeout: {}, name: {}",
                 key, expire, acquireTimeout, name);
 
         long startTime = System.currentTimeMillis();
@@ -56,14 +765,48 @@ public class LockTemplate {
         }
 
         // 获取锁
-        LockInfo lockInfo = lockExecutor.acquire(key, expire, acquireTimeout);
+        LockInfo lockInfo = lockExecutor instanceof MultiLockExecutor
+                ? ((MultiLockExecutor) lockExecutor).acquireAll(sortedKeys, expire, acquireTimeout)
+                : acquireInOrder(sortedKeys, expire, acquireTimeout);
+        if (lockInfo != null) {
+            lockInfo.setKey(key);
+        }
+        return afterAcquire(lockInfo, key, expire, acquireTimeout, name, startTime);
+    }
+
+    /**
+     * 按顺序依次获取多个key的锁，共用同一个超时时间
+     */
+    private LockInfo acquireInOrder(List<String> keys, long expire, long acquireTimeout) {
+        long deadline = System.currentTimeMillis() + acquireTimeout;
+        List<LockInfo> locks = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            LockInfo lock = lockExecutor.acquire(key, expire, Math.max(deadline - System.currentTimeMillis(), 0));
+            if (lock == null) {
+                // 释放已获取的锁
+                for (int i = locks.size() - 1; i >= 0; i--) {
+                    lockExecutor.release(locks.get(i));
+                }
+                return null;
+            }
+            locks.add(lock);
+        }
+        return new LockInfo().setLocks(locks);
+    }
 
+    /**
+     * 获取锁后设置锁信息并记录指标
+     */
+    private LockInfo afterAcquire(LockInfo lockInfo, String key, long expire, long acquireTimeout,
+            String name, long startTime) {
         // 获取锁成功
         if (lockInfo != null) {
-            // 设置锁的基本信息
-            String value = UUID.randomUUID().toString();
-            lockInfo.setValue(value)
-                    .setLockedAt(System.currentTimeMillis())
+            // 设置锁的基本信息，执行器已指定持有者标识时保留该标识
+            if (lockInfo.getValue() == null) {
+                lockInfo.setValue(UUID.randomUUID().toString());
+            }
+            String value = lockInfo.getValue();
+            lockInfo.setLockedAt(System.currentTimeMillis())
                     .setExpireTime(System.currentTimeMillis() + expire)
                     .setState(LockInfo.LockState.LOCKED)
                     .setName(name)
@@ -74,6 +817,11 @@ public class LockTemplate {
                 lockMetrics.recordLockSuccess(key, name, lockInfo.getAcquireTime());
             }
 
+            // 持有期间定时续期
+            if (leaseRenewalService != null) {
+                leaseRenewalService.register(lockInfo, expire);
+            }
+
             log.debug("Acquired lock successfully, key: {}, value: {}, expire: {}, acquireTime: {}ms",
                     key, value, expire, lockInfo.getAcquireTime());
             return lockInfo;
@@ -96,45 +844,169 @@ public class LockTemplate {
      * @return 是否成功释放
      */
     public boolean releaseLock(LockInfo lockInfo) {
+        return releaseLockWithResult(lockInfo).isReleased();
+    }
+
+    /**
+     * 释放锁并返回详细结果
+     *
+     * @param lockInfo 锁信息
+     * @return 释放结果
+     */
+    public ReleaseResult releaseLockWithResult(LockInfo lockInfo) {
         if (lockInfo == null) {
-            return false;
+            return ReleaseResult.NOT_OWNER;
         }
 
         // 重入次数大于0，则减少重入次数
-        if (lockInfo.getReentrantCount() > 0) {
-            lockInfo.setReentrantCount(lockInfo.getReentrantCount() - 1);
-            return true;
+        if (exitReentry(lockInfo)) {
+            return ReleaseResult.RELEASED;
         }
 
         log.debug("Trying to release lock, key: {}, value: {}",
                 lockInfo.getKey(), lockInfo.getValue());
 
-        long heldTime = 0;
-        if (lockInfo.getLockedAt() != null) {
-            heldTime = System.currentTimeMillis() - lockInfo.getLockedAt();
+        // 停止续期
+        if (leaseRenewalService != null) {
+            leaseRenewalService.unregister(lockInfo);
+        }
+
+        long heldTime = heldTime(lockInfo);
+
+        // 本地有线程等待时直接移交
+        Cohort cohort = cohortOf(lockInfo);
+        if (cohort != null && handOff(cohort, lockInfo, heldTime)) {
+            return ReleaseResult.RELEASED;
+        }
+
+        // 释放锁，可延迟释放时保留锁，保留期结束后在后台释放
+        ReleaseResult result;
+        try {
+            result = isStickable(lockInfo) && stickyReleaseService.park(lockInfo)
+                    ? ReleaseResult.RELEASED
+                    : releaseWithExecutor(lockInfo);
+        } finally {
+            if (cohort != null) {
+                exitCohort(lockInfo.getKey(), cohort);
+            }
+        }
+        return afterRelease(lockInfo, result, heldTime);
+    }
+
+    /**
+     * 异步释放锁并返回详细结果
+     *
+     * @param lockInfo 锁信息
+     * @return 释放结果
+     */
+    public CompletableFuture<ReleaseResult> releaseLockAsync(LockInfo lockInfo) {
+        if (lockInfo == null) {
+            return CompletableFuture.completedFuture(ReleaseResult.NOT_OWNER);
+        }
+
+        // 重入次数大于0，则减少重入次数
+        if (exitReentry(lockInfo)) {
+            return CompletableFuture.completedFuture(ReleaseResult.RELEASED);
+        }
+
+        log.debug("Trying to release lock asynchronously, key: {}, value: {}",
+                lockInfo.getKey(), lockInfo.getValue());
+
+        // 停止续期
+        if (leaseRenewalService != null) {
+            leaseRenewalService.unregister(lockInfo);
+        }
+
+        long heldTime = heldTime(lockInfo);
+
+        // 本地有线程等待时直接移交
+        Cohort cohort = cohortOf(lockInfo);
+        if (cohort != null && handOff(cohort, lockInfo, heldTime)) {
+            return CompletableFuture.completedFuture(ReleaseResult.RELEASED);
+        }
+
+        // 释放锁，可延迟释放时保留锁，执行器不支持异步时在后备线程池中同步释放
+        CompletableFuture<ReleaseResult> future;
+        if (isStickable(lockInfo) && stickyReleaseService.park(lockInfo)) {
+            future = CompletableFuture.completedFuture(ReleaseResult.RELEASED);
+        } else if (lockExecutor instanceof AsyncLockExecutor && lockInfo.getLocks() == null) {
+            future = ((AsyncLockExecutor) lockExecutor).releaseAsync(lockInfo);
+        } else {
+            future = CompletableFuture.supplyAsync(() -> releaseWithExecutor(lockInfo), fallbackExecutor);
+        }
+        if (cohort != null) {
+            future = future.whenComplete((result, error) -> exitCohort(lockInfo.getKey(), cohort));
+        }
+        return future.thenApply(result -> afterRelease(lockInfo, result, heldTime));
+    }
+
+    /**
+     * 通过执行器释放锁，多key锁释放全部key
+     */
+    private ReleaseResult releaseWithExecutor(LockInfo lockInfo) {
+        if (lockInfo.getLocks() == null) {
+            return lockExecutor.releaseWithResult(lockInfo);
+        }
+        if (lockExecutor instanceof MultiLockExecutor) {
+            return ((MultiLockExecutor) lockExecutor).releaseAll(lockInfo);
         }
 
-        // 释放锁
-        boolean result = lockExecutor.release(lockInfo);
+        // 按获取的相反顺序释放，返回第一个失败的结果
+        ReleaseResult result = ReleaseResult.RELEASED;
+        List<LockInfo> locks = lockInfo.getLocks();
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            ReleaseResult lockResult = lockExecutor.releaseWithResult(locks.get(i));
+            if (result.isReleased() && !lockResult.isReleased()) {
+                result = lockResult;
+            }
+        }
+        return result;
+    }
 
-        // 记录锁的持有时间
-        if (result && lockMetrics != null) {
-            lockMetrics.recordLockReleased(lockInfo.getKey(), lockInfo.getName(), heldTime);
+    private long heldTime(LockInfo lockInfo) {
+        if (lockInfo.getLockedAt() != null) {
+            return System.currentTimeMillis() - lockInfo.getLockedAt();
         }
+        return 0;
+    }
 
-        // 更新锁状态
-        if (result) {
+    /**
+     * 释放锁后更新锁状态并记录指标
+     */
+    private ReleaseResult afterRelease(LockInfo lockInfo, ReleaseResult result, long heldTime) {
+        if (result.isReleased()) {
             lockInfo.setState(LockInfo.LockState.UNLOCKED);
+            if (lockMetrics != null) {
+                lockMetrics.recordLockReleased(lockInfo.getKey(), lockInfo.getName(), heldTime);
+            }
             log.debug("Released lock successfully, key: {}, value: {}, heldTime: {}ms",
                     lockInfo.getKey(), lockInfo.getValue(), heldTime);
         } else {
-            log.warn("Failed to release lock, key: {}, value: {}",
-                    lockInfo.getKey(), lockInfo.getValue());
+            if (result == ReleaseResult.EXPIRED) {
+                lockInfo.setState(LockInfo.LockState.UNLOCKED);
+            }
+            if (lockMetrics != null) {
+                lockMetrics.recordLockReleaseFailure(lockInfo.getKey(), lockInfo.getName(), result);
+            }
+            log.warn("Failed to release lock, key: {}, value: {}, result: {}",
+                    lockInfo.getKey(), lockInfo.getValue(), result);
         }
 
         return result;
     }
 
+    /**
+     * 绑定锁上下文后执行操作
+     */
+    private static <T> T supplyWithContext(LockInfo lockInfo, Supplier<T> supplier) {
+        LockInfo previous = LockContext.bind(lockInfo);
+        try {
+            return supplier.get();
+        } finally {
+            LockContext.restore(previous);
+        }
+    }
+
     /**
      * 锁操作模板方法，获取锁后执行操作，操作完成后释放锁
      *
@@ -161,16 +1033,93 @@ public class LockTemplate {
      * @return 操作结果
      */
     public <T> T executeWithLock(String key, long expire, long acquireTimeout, String name, Supplier<T> supplier) {
+        return executeWithLock(key, LockMode.EXCLUSIVE, expire, acquireTimeout, name, supplier);
+    }
+
+    /**
+     * 锁操作模板方法，按指定模式获取锁后执行操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param supplier       获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeWithLock(String key, LockMode mode, long expire, long acquireTimeout, Supplier<T> supplier) {
+        return executeWithLock(key, mode, expire, acquireTimeout, null, supplier);
+    }
+
+    /**
+     * 锁操作模板方法，按指定模式获取锁后执行操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param supplier       获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeWithLock(String key, LockMode mode, long expire, long acquireTimeout, String name,
+            Supplier<T> supplier) {
         LockInfo lockInfo = null;
         try {
             // 获取锁
-            lockInfo = lock(key, expire, acquireTimeout, name);
+            lockInfo = lock(key, mode, expire, acquireTimeout, name);
             if (lockInfo == null) {
                 throw new LockException("Failed to acquire lock, key: " + key);
             }
 
-            // 执行业务操作
-            return supplier.get();
+            // 执行业务操作，期间可通过LockContext获取锁信息
+            return supplyWithContext(lockInfo, supplier);
+        } finally {
+            // 释放锁
+            if (lockInfo != null) {
+                releaseLock(lockInfo);
+            }
+        }
+    }
+
+    /**
+     * 多key锁操作模板方法，获取全部key的锁后执行操作，操作完成后释放锁
+     *
+     * @param keys           锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param supplier       获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeWithLocks(Collection<String> keys, long expire, long acquireTimeout, Supplier<T> supplier) {
+        return executeWithLocks(keys, expire, acquireTimeout, null, supplier);
+    }
+
+    /**
+     * 多key锁操作模板方法，获取全部key的锁后执行操作，操作完成后释放锁
+     *
+     * @param keys           锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param supplier       获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeWithLocks(Collection<String> keys, long expire, long acquireTimeout, String name,
+            Supplier<T> supplier) {
+        LockInfo lockInfo = null;
+        try {
+            // 获取锁
+            lockInfo = lockAll(keys, expire, acquireTimeout, name);
+            if (lockInfo == null) {
+                throw new LockException("Failed to acquire locks, keys: " + keys);
+            }
+
+            // 执行业务操作，期间可通过LockContext获取锁信息
+            return supplyWithContext(lockInfo, supplier);
         } finally {
             // 释放锁
             if (lockInfo != null) {
@@ -179,6 +1128,53 @@ public class LockTemplate {
         }
     }
 
+    /**
+     * 许可锁操作模板方法，获取许可后执行操作，操作完成后释放许可
+     *
+     * @param key            锁的key
+     * @param permits        许可总数
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @param supplier       获取许可后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeWithPermit(String key, int permits, long expire, long acquireTimeout, Supplier<T> supplier) {
+        return executeWithPermit(key, permits, expire, acquireTimeout, null, supplier);
+    }
+
+    /**
+     * 许可锁操作模板方法，获取许可后执行操作，操作完成后释放许可
+     *
+     * @param key            锁的key
+     * @param permits        许可总数
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param supplier       获取许可后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeWithPermit(String key, int permits, long expire, long acquireTimeout, String name,
+            Supplier<T> supplier) {
+        LockInfo lockInfo = null;
+        try {
+            // 获取许可
+            lockInfo = lockPermit(key, permits, expire, acquireTimeout, name);
+            if (lockInfo == null) {
+                throw new LockException("Failed to acquire permit, key: " + key);
+            }
+
+            // 执行业务操作，期间可通过LockContext获取锁信息
+            return supplyWithContext(lockInfo, supplier);
+        } finally {
+            // 释放许可
+            if (lockInfo != null) {
+                releaseLock(lockInfo);
+            }
+        }
+    }
+
     /**
      * 锁操作模板方法，获取锁后执行操作，操作完成后释放锁
      *
@@ -207,8 +1203,70 @@ public class LockTemplate {
         });
     }
 
+    /**
+     * 异步锁操作模板方法，获取锁后执行异步操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param supplier       获取锁后的异步操作
+     * @param <T>            返回值类型
+     * @return 操作结果，获取锁失败时以LockException异常完成
+     */
+    public <T> CompletableFuture<T> executeWithLockAsync(String key, long expire, long acquireTimeout,
+            Supplier<? extends CompletionStage<T>> supplier) {
+        return executeWithLockAsync(key, expire, acquireTimeout, null, supplier);
+    }
+
+    /**
+     * 异步锁操作模板方法，获取锁后在fallbackExecutor中执行异步操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param supplier       获取锁后的异步操作
+     * @param <T>            返回值类型
+     * @return 操作结果，获取锁失败时以LockException异常完成
+     */
+    public <T> CompletableFuture<T> executeWithLockAsync(String key, long expire, long acquireTimeout,
+            String name, Supplier<? extends CompletionStage<T>> supplier) {
+        // 获取锁的回调可能在锁服务客户端的IO线程上执行，业务操作切换到fallbackExecutor执行，避免阻塞IO线程
+        return lockAsync(key, expire, acquireTimeout, name).thenComposeAsync(lockInfo -> {
+            if (lockInfo == null) {
+                throw new LockException("Failed to acquire lock, key: " + key);
+            }
+
+            // 执行业务操作
+            CompletionStage<T> stage;
+            try {
+                stage = supplier.get();
+            } catch (Throwable e) {
+                CompletableFuture<T> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                stage = failed;
+            }
+
+            // 业务操作完成后释放锁，保留业务操作的结果或异常
+            CompletableFuture<T> result = new CompletableFuture<>();
+            stage.whenComplete((value, error) -> releaseLockAsync(lockInfo).whenComplete((released, releaseError) -> {
+                if (releaseError != null) {
+                    log.error("Error occurred while releasing lock asynchronously, key: {}", key, releaseError);
+                }
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            }));
+            return result;
+        }, fallbackExecutor);
+    }
+
     /**
      * 锁操作模板方法，尝试获取锁后执行操作，如果获取锁失败则返回默认值
+     * <p>
+     * acquireTimeout为0时只尝试一次，适用于其他调用者正在执行时直接跳过的场景。
      *
      * @param key            锁的key
      * @param expire         锁的过期时间，单位：毫秒
@@ -225,6 +1283,8 @@ public class LockTemplate {
 
     /**
      * 锁操作模板方法，尝试获取锁后执行操作，如果获取锁失败则返回默认值
+     * <p>
+     * acquireTimeout为0时只尝试一次，适用于其他调用者正在执行时直接跳过的场景。
      *
      * @param key            锁的key
      * @param expire         锁的过期时间，单位：毫秒
@@ -245,8 +1305,8 @@ public class LockTemplate {
                 return defaultValue;
             }
 
-            // 执行业务操作
-            return supplier.get();
+            // 执行业务操作，期间可通过LockContext获取锁信息
+            return supplyWithContext(lockInfo, supplier);
         } finally {
             // 释放锁
             if (lockInfo != null) {
@@ -255,6 +1315,71 @@ public class LockTemplate {
         }
     }
 
+    /**
+     * 共享执行的锁操作模板方法，获取锁后执行操作，操作完成后释放锁
+     * <p>
+     * 同一JVM内相同key的调用正在执行时，其他调用者不获取锁也不执行操作，等待并返回其结果或异常。
+     * 适用于刷新缓存等多次执行与一次执行效果相同的操作。
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param supplier       获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeShared(String key, long expire, long acquireTimeout, Supplier<T> supplier) {
+        return executeShared(key, expire, acquireTimeout, null, supplier);
+    }
+
+    /**
+     * 共享执行的锁操作模板方法，获取锁后执行操作，操作完成后释放锁
+     * <p>
+     * 同一JVM内相同key的调用正在执行时，其他调用者不获取锁也不执行操作，等待并返回其结果或异常。
+     * 适用于刷新缓存等多次执行与一次执行效果相同的操作。
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param supplier       获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果
+     */
+    public <T> T executeShared(String key, long expire, long acquireTimeout, String name, Supplier<T> supplier) {
+        return executeShared(key, key, name,
+                () -> executeWithLock(key, expire, acquireTimeout, name, supplier));
+    }
+
+    /**
+     * 合并同一JVM内相同flightKey的并发调用，只有一个调用者执行call，其他调用者等待并返回其结果或异常
+     * <p>
+     * call内部负责获取和释放锁，等待的调用者不访问锁服务。
+     *
+     * @param flightKey 合并调用的key，相同flightKey的调用必须执行相同的操作
+     * @param key       锁的key，用于监控
+     * @param name      锁的名称，用于监控
+     * @param call      调用
+     * @param <T>       返回值类型
+     * @param <E>       调用可能抛出的异常类型
+     * @return 调用结果
+     * @throws E 调用抛出的异常，等待的调用者抛出同一个异常
+     */
+    public <T, E extends Throwable> T executeShared(String flightKey, String key, String name,
+            SingleFlight.Call<T, E> call) throws E {
+        boolean[] executed = new boolean[1];
+        try {
+            return singleFlight.execute(flightKey, () -> {
+                executed[0] = true;
+                return call.call();
+            });
+        } finally {
+            if (!executed[0] && lockMetrics != null) {
+                lockMetrics.recordLockShared(key, name);
+            }
+        }
+    }
+
     /**
      * 检查锁是否已经被获取
      *
@@ -267,12 +1392,19 @@ public class LockTemplate {
 
     /**
      * 等待锁释放
+     * <p>
+     * 执行器支持释放通知时，锁释放后等待者立即被唤醒，锁因过期失效时最迟在剩余存活时间后返回；
+     * 否则每100毫秒查询一次锁状态。
      *
      * @param key      锁的key
      * @param waitTime 最长等待时间，单位：毫秒
      * @return 是否等待成功（锁被释放）
      */
     public boolean waitForLock(String key, long waitTime) {
+        if (lockExecutor instanceof LockReleaseNotifier) {
+            return waitForRelease((LockReleaseNotifier) lockExecutor, key, waitTime);
+        }
+
         long startTime = System.currentTimeMillis();
         while (System.currentTimeMillis() - startTime < waitTime) {
             if (!isLocked(key)) {
@@ -287,4 +1419,70 @@ public class LockTemplate {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * 基于释放通知等待锁释放
+     */
+    private boolean waitForRelease(LockReleaseNotifier notifier, String key, long waitTime) {
+        long deadline = System.currentTimeMillis() + waitTime;
+        // 先订阅再检查锁状态，避免错过检查之后的释放通知
+        try (ReleaseSubscription subscription = notifier.subscribe(key)) {
+            while (true) {
+                long ttl = notifier.remainTimeToLive(key);
+                if (ttl == -2) {
+                    return true;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                // 锁过期不会发出通知，最多等待到锁过期
+                subscription.await(ttl > 0 ? Math.min(ttl, remaining) : remaining, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to wait for lock release notification, key: {}", key, e);
+            return !isLocked(key);
+        }
+    }
+
+    /**
+     * 同一个key的独占锁的本地队列，除users外的字段只由持有permit的线程访问
+     */
+    private static final class Cohort {
+
+        /**
+         * 本地持有权，公平排队
+         */
+        private final Semaphore permit = new Semaphore(1, true);
+
+        /**
+         * 排队和持有的线程数，只在cohorts.compute中修改
+         */
+        private int users;
+
+        /**
+         * 当前通过本队列持有的锁
+         */
+        private LockInfo holder;
+
+        /**
+         * 前一个持有者移交、等待接手的锁
+         */
+        private LockInfo handed;
+
+        /**
+         * 从锁服务获取锁时的过期时间，单位：毫秒
+         */
+        private long lease;
+
+        /**
+         * 连续移交次数
+         */
+        private int handoffs;
+    }
+}
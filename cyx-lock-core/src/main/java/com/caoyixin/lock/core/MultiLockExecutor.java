@@ -0,0 +1,33 @@
+package com.caoyixin.lock.core;
+
+import java.util.List;
+
+/**
+ * 多key锁执行器接口，在一次原子操作中获取或释放多个key
+ * <p>
+ * 未实现该接口的执行器由{@link LockTemplate}按key顺序依次获取。
+ *
+ * @author caoyixin
+ */
+public interface MultiLockExecutor extends LockExecutor {
+
+    /**
+     * 获取全部key的锁，要么全部获取成功，要么一个都不持有
+     * <p>
+     * 可能在后备线程池中调用，每次获取应使用独立的持有者标识，不能与同一线程上的其他获取重入。
+     *
+     * @param keys           锁的key，已去重并排序
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，locks中包含每个key的锁信息；如果获取失败返回null
+     */
+    LockInfo acquireAll(List<String> keys, long expire, long acquireTimeout);
+
+    /**
+     * 释放全部key的锁
+     *
+     * @param lockInfo {@link #acquireAll(List, long, long)}返回的锁信息
+     * @return 释放结果，全部key都释放成功时为RELEASED
+     */
+    ReleaseResult releaseAll(LockInfo lockInfo);
+}
@@ -0,0 +1,31 @@
+package com.caoyixin.lock.core;
+
+/**
+ * 许可锁执行器接口，同一个key最多允许指定数量的持有者同时持有
+ * <p>
+ * 每个许可有独立的过期时间，持有者异常退出后许可到期自动归还。
+ * 未实现该接口的执行器由{@link LockTemplate}以独占锁代替。
+ *
+ * @author caoyixin
+ */
+public interface PermitLockExecutor extends LockExecutor {
+
+    /**
+     * 获取一个许可
+     *
+     * @param key            锁的key
+     * @param permits        许可总数，首次使用该key时设置，之后不会修改
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @return 锁信息，value为许可标识；如果获取失败返回null
+     */
+    LockInfo acquire(String key, int permits, long expire, long acquireTimeout);
+
+    /**
+     * 查询可用的许可数量，已过期的许可计为可用
+     *
+     * @param key 锁的key
+     * @return 可用的许可数量，查询失败时返回-1
+     */
+    int availablePermits(String key);
+}
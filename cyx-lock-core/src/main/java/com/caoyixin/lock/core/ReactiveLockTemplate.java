@@ -0,0 +1,200 @@
+package com.caoyixin.lock.core;
+
+import com.caoyixin.lock.exception.LockException;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 响应式锁模板类，基于{@link LockTemplate}的异步方法，获取锁和释放锁都不阻塞线程
+ * <p>
+ * 锁在发布者完成、出错或被取消时释放。需要引入reactor-core依赖。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class ReactiveLockTemplate {
+
+    private final LockTemplate lockTemplate;
+
+    public ReactiveLockTemplate(LockTemplate lockTemplate) {
+        this.lockTemplate = lockTemplate;
+    }
+
+    /**
+     * 获取锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，如果获取失败返回空的Mono
+     */
+    public Mono<LockInfo> lock(String key, long expire, long acquireTimeout) {
+        return lock(key, expire, acquireTimeout, null);
+    }
+
+    /**
+     * 获取锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回空的Mono
+     */
+    public Mono<LockInfo> lock(String key, long expire, long acquireTimeout, String name) {
+        return acquire(key, () -> lockTemplate.lockAsync(key, expire, acquireTimeout, name));
+    }
+
+    /**
+     * 按指定模式获取锁
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回空的Mono
+     * @see LockTemplate#lock(String, LockMode, long, long, String)
+     */
+    public Mono<LockInfo> lock(String key, LockMode mode, long expire, long acquireTimeout, String name) {
+        return acquire(key, () -> lockTemplate.lockAsync(key, mode, expire, acquireTimeout, name));
+    }
+
+    /**
+     * 获取许可锁
+     *
+     * @param key            锁的key
+     * @param permits        许可总数
+     * @param expire         许可的过期时间，单位：毫秒
+     * @param acquireTimeout 获取许可的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回空的Mono
+     * @see LockTemplate#lockPermit(String, int, long, long, String)
+     */
+    public Mono<LockInfo> lockPermit(String key, int permits, long expire, long acquireTimeout, String name) {
+        return acquire(key, () -> lockTemplate.lockPermitAsync(key, permits, expire, acquireTimeout, name));
+    }
+
+    /**
+     * 同时获取多个key的锁
+     *
+     * @param keys           锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @return 锁信息，如果获取失败返回空的Mono
+     * @see LockTemplate#lockAll(Collection, long, long, String)
+     */
+    public Mono<LockInfo> lockAll(Collection<String> keys, long expire, long acquireTimeout, String name) {
+        return acquire(String.valueOf(keys), () -> lockTemplate.lockAllAsync(keys, expire, acquireTimeout, name));
+    }
+
+    private Mono<LockInfo> acquire(String key, Supplier<CompletableFuture<LockInfo>> acquirer) {
+        return Mono.defer(() -> {
+            CompletableFuture<LockInfo> acquiring = acquirer.get();
+            AtomicBoolean delivered = new AtomicBoolean();
+            return Mono.fromFuture(acquiring.thenApply(lockInfo -> lockInfo))
+                    .doOnNext(lockInfo -> delivered.set(true))
+                    .doOnCancel(() -> {
+                        // 等待期间被取消，获取到的锁没有使用者，需要释放
+                        if (!delivered.get()) {
+                            acquiring.thenAccept(lockInfo -> {
+                                if (lockInfo != null) {
+                                    log.debug("Lock acquisition cancelled, releasing lock, key: {}", key);
+                                    lockTemplate.releaseLockAsync(lockInfo);
+                                }
+                            });
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 释放锁
+     *
+     * @param lockInfo 锁信息
+     * @return 释放结果
+     */
+    public Mono<ReleaseResult> releaseLock(LockInfo lockInfo) {
+        return Mono.fromFuture(() -> lockTemplate.releaseLockAsync(lockInfo));
+    }
+
+    /**
+     * 锁操作模板方法，获取锁后订阅操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param mono           获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果，获取锁失败时以LockException结束
+     */
+    public <T> Mono<T> executeWithLock(String key, long expire, long acquireTimeout, Mono<T> mono) {
+        return executeWithLock(key, expire, acquireTimeout, null, mono);
+    }
+
+    /**
+     * 锁操作模板方法，获取锁后订阅操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param mono           获取锁后的操作
+     * @param <T>            返回值类型
+     * @return 操作结果，获取锁失败时以LockException结束
+     */
+    public <T> Mono<T> executeWithLock(String key, long expire, long acquireTimeout, String name, Mono<T> mono) {
+        return Mono.usingWhen(lockOrError(key, expire, acquireTimeout, name),
+                lockInfo -> mono,
+                this::releaseLock,
+                (lockInfo, e) -> releaseLock(lockInfo),
+                this::releaseLock);
+    }
+
+    /**
+     * 锁操作模板方法，获取锁后订阅操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param publisher      获取锁后的操作
+     * @param <T>            元素类型
+     * @return 操作结果，获取锁失败时以LockException结束
+     */
+    public <T> Flux<T> executeManyWithLock(String key, long expire, long acquireTimeout, Publisher<T> publisher) {
+        return executeManyWithLock(key, expire, acquireTimeout, null, publisher);
+    }
+
+    /**
+     * 锁操作模板方法，获取锁后订阅操作，操作完成后释放锁
+     *
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @param name           锁的名称
+     * @param publisher      获取锁后的操作
+     * @param <T>            元素类型
+     * @return 操作结果，获取锁失败时以LockException结束
+     */
+    public <T> Flux<T> executeManyWithLock(String key, long expire, long acquireTimeout, String name,
+            Publisher<T> publisher) {
+        return Flux.usingWhen(lockOrError(key, expire, acquireTimeout, name),
+                lockInfo -> publisher,
+                this::releaseLock,
+                (lockInfo, e) -> releaseLock(lockInfo),
+                this::releaseLock);
+    }
+
+    private Mono<LockInfo> lockOrError(String key, long expire, long acquireTimeout, String name) {
+        return lock(key, expire, acquireTimeout, name)
+                .switchIfEmpty(Mono.error(() -> new LockException("Failed to acquire lock, key: " + key)));
+    }
+}
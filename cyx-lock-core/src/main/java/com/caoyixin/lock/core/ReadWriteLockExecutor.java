@@ -0,0 +1,43 @@
+package com.caoyixin.lock.core;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 读写锁执行器接口
+ * <p>
+ * 未实现该接口的执行器由{@link LockTemplate}以独占锁代替读锁和写锁。
+ *
+ * @author caoyixin
+ */
+public interface ReadWriteLockExecutor extends LockExecutor {
+
+    /**
+     * 按指定模式获取锁
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，mode为实际获取的锁模式；如果获取失败返回null
+     */
+    LockInfo acquire(String key, LockMode mode, long expire, long acquireTimeout);
+
+    /**
+     * 按指定模式异步获取锁
+     * <p>
+     * 获取的锁不与任何线程绑定，每次获取使用独立的持有者标识，同一线程上的多次异步获取不会相互重入。
+     * 默认不支持，以UnsupportedOperationException异常完成。
+     *
+     * @param key            锁的key
+     * @param mode           锁模式
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，mode为实际获取的锁模式；如果获取失败结果为null
+     */
+    default CompletableFuture<LockInfo> acquireAsync(String key, LockMode mode, long expire, long acquireTimeout) {
+        CompletableFuture<LockInfo> result = new CompletableFuture<>();
+        result.completeExceptionally(new UnsupportedOperationException(
+                "Asynchronous " + mode + " lock is not supported by " + getClass().getName()));
+        return result;
+    }
+}
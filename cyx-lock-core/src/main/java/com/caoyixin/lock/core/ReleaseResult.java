@@ -0,0 +1,38 @@
+package com.caoyixin.lock.core;
+
+/**
+ * 锁释放结果
+ *
+ * @author caoyixin
+ */
+public enum ReleaseResult {
+
+    /**
+     * 释放成功
+     */
+    RELEASED,
+
+    /**
+     * 锁被其他持有者持有
+     */
+    NOT_OWNER,
+
+    /**
+     * 锁不存在或已过期
+     */
+    EXPIRED,
+
+    /**
+     * 释放过程中发生错误
+     */
+    FAILED;
+
+    /**
+     * 是否释放成功
+     *
+     * @return 是否释放成功
+     */
+    public boolean isReleased() {
+        return this == RELEASED;
+    }
+}
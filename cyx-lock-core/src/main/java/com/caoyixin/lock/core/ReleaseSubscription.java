@@ -0,0 +1,41 @@
+package com.caoyixin.lock.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 锁释放通知的订阅
+ *
+ * @author caoyixin
+ */
+public interface ReleaseSubscription extends AutoCloseable {
+
+    /**
+     * 等待锁释放通知，订阅之后或上次返回之后收到的通知都会被计入
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 是否收到通知
+     * @throws InterruptedException 等待时被中断
+     */
+    boolean await(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * 异步等待锁释放通知，等待期间不占用线程，计入规则与{@link #await(long, TimeUnit)}相同
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 是否收到通知；订阅不支持异步等待时以{@link UnsupportedOperationException}异常完成
+     */
+    default CompletableFuture<Boolean> awaitAsync(long timeout, TimeUnit unit) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        result.completeExceptionally(new UnsupportedOperationException("Asynchronous await is not supported"));
+        return result;
+    }
+
+    /**
+     * 取消订阅
+     */
+    @Override
+    void close();
+}
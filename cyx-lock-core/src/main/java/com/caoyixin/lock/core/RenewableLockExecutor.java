@@ -0,0 +1,20 @@
+package com.caoyixin.lock.core;
+
+import java.util.List;
+
+/**
+ * 支持续期的锁执行器接口，由{@link LeaseRenewalService}定时批量调用
+ *
+ * @author caoyixin
+ */
+public interface RenewableLockExecutor extends LockExecutor {
+
+    /**
+     * 批量续期锁，所有锁在一次批量请求中续期，只续期仍由锁信息中的持有者持有的锁
+     *
+     * @param locks  锁信息
+     * @param expire 续期后的过期时间，单位：毫秒
+     * @return 与locks一一对应的续期结果，锁已丢失时为false；请求失败时返回null
+     */
+    List<Boolean> renew(List<LockInfo> locks, long expire);
+}
@@ -0,0 +1,148 @@
+package com.caoyixin.lock.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟释放服务，释放独占锁时在短暂的保留期内继续持有锁
+ * <p>
+ * 保留期内当前JVM再次获取同一把锁时直接使用保留的锁，不访问锁服务；
+ * 保留期结束仍无人获取时在后台释放。同一个key同一时刻最多保留一把锁。
+ * 保留期应远小于锁的过期时间，其他节点等待锁时最多多等待一个保留期。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class StickyReleaseService implements AutoCloseable {
+
+    /**
+     * 默认保留期，单位：毫秒
+     */
+    public static final long DEFAULT_WINDOW = 5;
+
+    private final LockExecutor lockExecutor;
+
+    /**
+     * 保留期，单位：毫秒
+     */
+    private final long window;
+
+    /**
+     * 保留中的锁
+     */
+    private final ConcurrentHashMap<String, LockInfo> parked = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    public StickyReleaseService(LockExecutor lockExecutor) {
+        this(lockExecutor, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param lockExecutor 锁执行器
+     * @param window       保留期，单位：毫秒
+     */
+    public StickyReleaseService(LockExecutor lockExecutor, long window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.lockExecutor = lockExecutor;
+        this.window = window;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cyx-lock-sticky-release");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 保留锁，保留期结束后仍未被获取时释放
+     *
+     * @param lockInfo 要释放的单key独占锁
+     * @return 是否已保留，为false时需要立即释放锁
+     */
+    public boolean park(LockInfo lockInfo) {
+        if (lockInfo.getKey() == null || lockInfo.getValue() == null || lockInfo.getExpireTime() == null
+                || lockInfo.getExpireTime() - System.currentTimeMillis() <= window * 2) {
+            return false;
+        }
+
+        LockInfo copy = new LockInfo()
+                .setKey(lockInfo.getKey())
+                .setValue(lockInfo.getValue())
+                .setExpireTime(lockInfo.getExpireTime())
+                .setFencingToken(lockInfo.getFencingToken());
+        if (parked.putIfAbsent(copy.getKey(), copy) != null) {
+            return false;
+        }
+        try {
+            scheduler.schedule(() -> release(copy), window, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 服务已关闭
+            parked.remove(copy.getKey(), copy);
+            return false;
+        }
+        log.debug("Parked lock for sticky release, key: {}, window: {}ms", copy.getKey(), window);
+        return true;
+    }
+
+    /**
+     * 取回保留中的锁
+     *
+     * @param key 锁的key
+     * @return 保留中且未过期的锁，取回后不再释放；没有时返回null
+     */
+    public LockInfo claim(String key) {
+        if (key == null) {
+            return null;
+        }
+        LockInfo lockInfo = parked.remove(key);
+        if (lockInfo == null) {
+            return null;
+        }
+        if (lockInfo.getExpireTime() <= System.currentTimeMillis()) {
+            return null;
+        }
+        log.debug("Claimed parked lock, key: {}", key);
+        return lockInfo;
+    }
+
+    /**
+     * 保留中的锁数量
+     */
+    public int size() {
+        return parked.size();
+    }
+
+    /**
+     * 保留期结束，锁仍未被取回时释放
+     */
+    private void release(LockInfo lockInfo) {
+        if (!parked.remove(lockInfo.getKey(), lockInfo)) {
+            return;
+        }
+        try {
+            ReleaseResult result = lockExecutor.releaseWithResult(lockInfo);
+            if (!result.isReleased()) {
+                log.warn("Failed to release parked lock, key: {}, result: {}", lockInfo.getKey(), result);
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while releasing parked lock, key: {}", lockInfo.getKey(), e);
+        }
+    }
+
+    /**
+     * 释放所有保留中的锁并停止服务
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (LockInfo lockInfo : parked.values()) {
+            release(lockInfo);
+        }
+    }
+}
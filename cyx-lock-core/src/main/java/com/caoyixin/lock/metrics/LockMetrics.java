@@ -1,5 +1,9 @@
 package com.caoyixin.lock.metrics;
 
+import com.caoyixin.lock.core.ReleaseResult;
+
+import java.util.function.IntSupplier;
+
 /**
  * 锁监控指标接口，用于记录锁的指标数据
  *
@@ -40,4 +44,43 @@ public interface LockMetrics {
      * @param heldTime 持锁时间(毫秒)
      */
     void recordLockReleased(String key, String name, long heldTime);
-} 
\ No newline at end of file
+
+    /**
+     * 记录锁释放失败
+     *
+     * @param key 锁的key
+     * @param name 锁的名称
+     * @param result 释放结果
+     */
+    default void recordLockReleaseFailure(String key, String name, ReleaseResult result) {
+    }
+
+    /**
+     * 记录许可锁的许可数量，同一个key多次记录时只保留第一次
+     *
+     * @param key 锁的key
+     * @param name 锁的名称
+     * @param permits 许可总数
+     * @param availablePermits 查询可用许可数量，在读取指标时调用，查询失败时返回负数
+     */
+    default void recordPermits(String key, String name, int permits, IntSupplier availablePermits) {
+    }
+
+    /**
+     * 记录共享执行结果，调用者未获取锁，直接使用同一JVM内正在执行的调用者的结果
+     *
+     * @param key 锁的key
+     * @param name 锁的名称
+     */
+    default void recordLockShared(String key, String name) {
+    }
+
+    /**
+     * 记录分桶锁的竞争，获取分桶锁失败或需要等待时调用，用于评估分桶数量是否足够
+     *
+     * @param key 分桶key
+     * @param name 锁的名称
+     */
+    default void recordStripeContention(String key, String name) {
+    }
+}
@@ -1,12 +1,16 @@
 package com.caoyixin.lock.metrics;
 
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.support.LockKeyEncoder;
 import io.micrometer.core.instrument.*;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
 
 /**
  * 基于Micrometer的锁监控实现
@@ -23,6 +27,17 @@ public class MicrometerLockMetrics implements LockMetrics {
      */
     private final ConcurrentMap<String, AtomicInteger> activeLockCountMap = new ConcurrentHashMap<>();
 
+    /**
+     * 已注册许可指标的key
+     */
+    private final ConcurrentMap<String, Boolean> permitGaugeMap = new ConcurrentHashMap<>();
+
+    /**
+     * 锁键编码器，用于在指标中显示原始key
+     */
+    @Setter
+    private LockKeyEncoder keyEncoder;
+
     public MicrometerLockMetrics(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
     }
@@ -105,6 +120,69 @@ public class MicrometerLockMetrics implements LockMetrics {
         }
     }
 
+    @Override
+    public void recordLockReleaseFailure(String key, String name, ReleaseResult result) {
+        try {
+            Counter.builder("cyx_lock_release_failure_total")
+                    .description("Total number of failed lock releases")
+                    .tags(createTags(key, name).and("result", result.name()))
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            log.warn("Failed to record lock release failure metrics", e);
+        }
+    }
+
+    @Override
+    public void recordLockShared(String key, String name) {
+        try {
+            Counter.builder("cyx_lock_shared_total")
+                    .description("Total number of calls served by an in-flight call on the same key")
+                    .tags(createTags(key, name))
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            log.warn("Failed to record lock shared metrics", e);
+        }
+    }
+
+    @Override
+    public void recordStripeContention(String key, String name) {
+        try {
+            Counter.builder("cyx_lock_stripe_contention_total")
+                    .description("Total number of striped lock acquisitions that waited or failed")
+                    .tags(createTags(key, name))
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            log.warn("Failed to record lock stripe contention metrics", e);
+        }
+    }
+
+    @Override
+    public void recordPermits(String key, String name, int permits, IntSupplier availablePermits) {
+        if (permitGaugeMap.putIfAbsent(createMapKey(key, name), Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            Gauge.builder("cyx_lock_permits", () -> permits)
+                    .description("Total number of permits")
+                    .tags(createTags(key, name))
+                    .register(meterRegistry);
+
+            // 读取指标时查询可用许可数量，获取许可时不产生额外的网络往返
+            Gauge.builder("cyx_lock_permits_in_use", () -> {
+                        int available = availablePermits.getAsInt();
+                        return available < 0 ? Double.NaN : permits - available;
+                    })
+                    .description("Number of permits currently in use")
+                    .tags(createTags(key, name))
+                    .register(meterRegistry);
+        } catch (Exception e) {
+            log.warn("Failed to record lock permits metrics", e);
+        }
+    }
+
     /**
      * 创建标签
      *
@@ -113,7 +191,7 @@ public class MicrometerLockMetrics implements LockMetrics {
      * @return 标签数组
      */
     private Tags createTags(String key, String name) {
-        Tags tags = Tags.of("key", truncateTagValue(key));
+        Tags tags = Tags.of("key", truncateTagValue(keyEncoder != null ? keyEncoder.decode(key) : key));
         if (StringUtils.hasText(name)) {
             tags = tags.and("name", truncateTagValue(name));
         }
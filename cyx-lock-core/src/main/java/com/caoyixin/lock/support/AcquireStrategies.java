@@ -0,0 +1,48 @@
+package com.caoyixin.lock.support;
+
+/**
+ * 内置获取策略，各类型共享一个默认参数的实例
+ *
+ * @author caoyixin
+ */
+public final class AcquireStrategies {
+
+    public static final AcquireStrategy EXECUTOR = new ExecutorAcquireStrategy();
+
+    public static final AcquireStrategy TRY_ONCE = new TryOnceAcquireStrategy();
+
+    public static final AcquireStrategy BACKOFF = new BackoffAcquireStrategy();
+
+    public static final AcquireStrategy NOTIFY = new NotifyAcquireStrategy();
+
+    public static final AcquireStrategy SPIN = new SpinAcquireStrategy();
+
+    private AcquireStrategies() {
+    }
+
+    /**
+     * 按类型获取内置获取策略
+     *
+     * @param type 策略类型
+     * @return 获取策略，类型为DEFAULT时返回null
+     */
+    public static AcquireStrategy of(AcquireStrategy.Type type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case EXECUTOR:
+                return EXECUTOR;
+            case TRY_ONCE:
+                return TRY_ONCE;
+            case BACKOFF:
+                return BACKOFF;
+            case NOTIFY:
+                return NOTIFY;
+            case SPIN:
+                return SPIN;
+            default:
+                return null;
+        }
+    }
+}
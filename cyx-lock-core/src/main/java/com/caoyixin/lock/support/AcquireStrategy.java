@@ -0,0 +1,55 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+
+/**
+ * 获取锁的等待策略接口，决定获取锁的超时时间内如何重试和等待
+ * <p>
+ * 除{@link ExecutorAcquireStrategy}外，实现类每次尝试都以0超时调用执行器，等待由策略自身完成。
+ *
+ * @author caoyixin
+ */
+public interface AcquireStrategy {
+
+    /**
+     * 获取锁
+     *
+     * @param lockExecutor   锁执行器
+     * @param key            锁的key
+     * @param expire         锁的过期时间，单位：毫秒
+     * @param acquireTimeout 获取锁的超时时间，单位：毫秒
+     * @return 锁信息，如果获取失败返回null
+     */
+    LockInfo acquire(LockExecutor lockExecutor, String key, long expire, long acquireTimeout);
+
+    /**
+     * 等待策略类型枚举
+     */
+    enum Type {
+        /**
+         * 使用全局配置的等待策略
+         */
+        DEFAULT,
+        /**
+         * 由执行器在获取锁时自行等待
+         */
+        EXECUTOR,
+        /**
+         * 只尝试一次，不等待
+         */
+        TRY_ONCE,
+        /**
+         * 指数退避加随机抖动后重试，避免大量等待者同时重试
+         */
+        BACKOFF,
+        /**
+         * 等待锁释放通知后重试，执行器不支持释放通知时退化为BACKOFF
+         */
+        NOTIFY,
+        /**
+         * 先自旋重试再休眠等待，适用于本地锁和极短的临界区
+         */
+        SPIN
+    }
+}
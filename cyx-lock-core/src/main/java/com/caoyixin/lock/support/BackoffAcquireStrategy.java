@@ -0,0 +1,86 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指数退避的获取策略，每次失败后的等待上限翻倍，实际等待时间在0到上限之间随机取值
+ * <p>
+ * 随机抖动使大量等待者的重试时间分散开，锁释放时不会同时访问锁服务。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class BackoffAcquireStrategy implements AcquireStrategy {
+
+    /**
+     * 默认初始等待上限，单位：毫秒
+     */
+    public static final long DEFAULT_BASE_DELAY = 10;
+
+    /**
+     * 默认最大等待上限，单位：毫秒
+     */
+    public static final long DEFAULT_MAX_DELAY = 200;
+
+    /**
+     * 初始等待上限，单位：毫秒
+     */
+    private final long baseDelay;
+
+    /**
+     * 最大等待上限，单位：毫秒
+     */
+    private final long maxDelay;
+
+    public BackoffAcquireStrategy() {
+        this(DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * @param baseDelay 初始等待上限，单位：毫秒
+     * @param maxDelay  最大等待上限，单位：毫秒
+     */
+    public BackoffAcquireStrategy(long baseDelay, long maxDelay) {
+        if (baseDelay <= 0 || maxDelay < baseDelay) {
+            throw new IllegalArgumentException("Invalid backoff delay, baseDelay: " + baseDelay
+                    + ", maxDelay: " + maxDelay);
+        }
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    @Override
+    public LockInfo acquire(LockExecutor lockExecutor, String key, long expire, long acquireTimeout) {
+        long deadline = System.currentTimeMillis() + acquireTimeout;
+        long delay = baseDelay;
+
+        while (true) {
+            LockInfo lockInfo = lockExecutor.acquire(key, expire, 0);
+            if (lockInfo != null) {
+                return lockInfo;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+
+            // 在0到等待上限之间随机等待
+            long sleep = Math.min(ThreadLocalRandom.current().nextLong(delay + 1), remaining);
+            try {
+                TimeUnit.MILLISECONDS.sleep(sleep);
+            } catch (InterruptedException e) {
+                // 恢复中断状态
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while backing off to acquire lock, key: {}", key);
+                return null;
+            }
+            delay = Math.min(delay << 1, maxDelay);
+        }
+    }
+}
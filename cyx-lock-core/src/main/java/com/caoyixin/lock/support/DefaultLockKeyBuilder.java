@@ -5,10 +5,15 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.util.StringUtils;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 默认锁键生成器实现
@@ -24,49 +29,229 @@ public class DefaultLockKeyBuilder implements LockKeyBuilder {
     @Setter
     private String lockKeyPrefix = "cyx:lock";
 
+    /**
+     * 十六进制字符，用于直接写入UUID
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 每个方法的基础键
+     */
+    private final ConcurrentHashMap<Method, MethodKey> methodKeys = new ConcurrentHashMap<>();
+
     @Override
     public String buildKey(ProceedingJoinPoint joinPoint, String[] keys) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-
-        // 获取方法名和类名
-        String className = signature.getDeclaringType().getSimpleName();
-        String methodName = signature.getName();
+        return buildKey(joinPoint, keys, null);
+    }
 
+    @Override
+    public String buildKey(ProceedingJoinPoint joinPoint, String[] keys, String shardKey) {
         // 构建基础键
-        StringBuilder keyBuilder = new StringBuilder(lockKeyPrefix)
-                .append(":")
-                .append(className)
-                .append(":")
-                .append(methodName);
+        MethodKey methodKey = methodKey(joinPoint);
+        boolean sharded = StringUtils.hasText(shardKey);
 
         // 如果没有指定键表达式，直接使用方法签名作为键
-        if (keys == null || keys.length == 0) {
-            return keyBuilder.toString();
+        if (!sharded && (keys == null || keys.length == 0)) {
+            return methodKey.baseKey;
+        }
+
+        // 解析SpEL表达式，同一次调用的表达式共享评估上下文，值直接写入按上次长度预分配的builder
+        EvaluationContext context = SpelUtils.createEvaluationContext(joinPoint);
+        StringBuilder keyBuilder = sharded ? taggedKey(joinPoint, context, methodKey, shardKey) : null;
+        boolean first = true;
+        if (keys != null) {
+            for (String key : keys) {
+                if (!StringUtils.hasText(key)) {
+                    continue;
+                }
+
+                Object value = evaluate(joinPoint, context, key);
+                if (keyBuilder == null) {
+                    keyBuilder = new StringBuilder(methodKey.capacity).append(methodKey.baseKey);
+                }
+                keyBuilder.append(first ? ':' : '_');
+                first = false;
+                appendValue(keyBuilder, value);
+            }
+        }
+        if (keyBuilder == null) {
+            return methodKey.baseKey;
+        }
+
+        methodKey.capacity = Math.max(methodKey.capacity, keyBuilder.length());
+        return keyBuilder.toString();
+    }
+
+    @Override
+    public List<String> buildKeys(ProceedingJoinPoint joinPoint, String[] keys) {
+        return buildKeys(joinPoint, keys, null);
+    }
+
+    @Override
+    public List<String> buildKeys(ProceedingJoinPoint joinPoint, String[] keys, String shardKey) {
+        MethodKey methodKey = methodKey(joinPoint);
+        String baseKey = methodKey.baseKey;
+
+        // 所有key使用同一个哈希标签，位于同一槽位
+        EvaluationContext context = null;
+        if (StringUtils.hasText(shardKey)) {
+            context = SpelUtils.createEvaluationContext(joinPoint);
+            StringBuilder taggedKey = taggedKey(joinPoint, context, methodKey, shardKey);
+            if (taggedKey != null) {
+                baseKey = taggedKey.toString();
+            }
         }
 
         // 解析SpEL表达式
-        List<String> keyList = new ArrayList<>(keys.length);
-        for (String key : keys) {
-            if (!StringUtils.hasText(key)) {
-                continue;
+        List<String> keyList = new ArrayList<>();
+        if (keys != null && keys.length > 0) {
+            if (context == null) {
+                context = SpelUtils.createEvaluationContext(joinPoint);
             }
+            for (String key : keys) {
+                if (!StringUtils.hasText(key)) {
+                    continue;
+                }
 
-            Object value;
-            try {
-                value = SpelUtils.parseSpel(joinPoint, key);
-            } catch (Exception e) {
-                log.warn("Failed to parse SpEL expression: {}, use raw expression", key, e);
-                value = key;
+                // 集合或数组中的每个元素分别作为一个键
+                Object value = evaluate(joinPoint, context, key);
+                if (value instanceof Collection) {
+                    for (Object element : (Collection<?>) value) {
+                        keyList.add(childKey(baseKey, element));
+                    }
+                } else if (value instanceof Object[]) {
+                    for (Object element : (Object[]) value) {
+                        keyList.add(childKey(baseKey, element));
+                    }
+                } else {
+                    keyList.add(childKey(baseKey, value));
+                }
             }
+        }
+        // 如果没有指定键表达式，直接使用方法签名作为键
+        if (keyList.isEmpty()) {
+            keyList.add(baseKey);
+        }
 
-            keyList.add(String.valueOf(value));
+        return keyList;
+    }
+
+    /**
+     * 在基础键后写入分片表达式的值作为哈希标签，形如{@code 基础键:{值}}
+     *
+     * @return 写入哈希标签的builder，值为null或空时返回null，不使用哈希标签
+     */
+    private StringBuilder taggedKey(ProceedingJoinPoint joinPoint, EvaluationContext context, MethodKey methodKey,
+                                    String shardKey) {
+        Object value = evaluate(joinPoint, context, shardKey);
+        if (value == null) {
+            return null;
         }
+        StringBuilder keyBuilder = new StringBuilder(methodKey.capacity).append(methodKey.baseKey).append(":{");
+        int start = keyBuilder.length();
+        appendValue(keyBuilder, value);
+        if (keyBuilder.length() == start) {
+            return null;
+        }
+        return keyBuilder.append('}');
+    }
+
+    /**
+     * 获取方法的基础键，由前缀、类名和方法名组成，每个方法只构建一次
+     */
+    private MethodKey methodKey(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        MethodKey methodKey = methodKeys.get(method);
+        if (methodKey == null) {
+            // 获取方法名和类名
+            String className = signature.getDeclaringType().getSimpleName();
+            String methodName = signature.getName();
 
-        // 合并键
-        if (!keyList.isEmpty()) {
-            keyBuilder.append(":").append(String.join("_", keyList));
+            methodKey = methodKeys.computeIfAbsent(method,
+                    m -> new MethodKey(lockKeyPrefix + ":" + className + ":" + methodName));
         }
+        return methodKey;
+    }
 
+    private static String childKey(String baseKey, Object value) {
+        StringBuilder keyBuilder = new StringBuilder(baseKey.length() + 37).append(baseKey).append(':');
+        appendValue(keyBuilder, value);
         return keyBuilder.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * 写入表达式的值，结果与String.valueOf一致，常见类型不创建中间字符串
+     */
+    private static void appendValue(StringBuilder keyBuilder, Object value) {
+        if (value instanceof String) {
+            keyBuilder.append((String) value);
+        } else if (value instanceof Long) {
+            keyBuilder.append(((Long) value).longValue());
+        } else if (value instanceof Integer) {
+            keyBuilder.append(((Integer) value).intValue());
+        } else if (value instanceof UUID) {
+            appendUuid(keyBuilder, (UUID) value);
+        } else {
+            keyBuilder.append(value);
+        }
+    }
+
+    /**
+     * 按UUID.toString的格式写入UUID
+     */
+    private static void appendUuid(StringBuilder keyBuilder, UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        appendHex(keyBuilder, most >>> 32, 8);
+        keyBuilder.append('-');
+        appendHex(keyBuilder, most >>> 16, 4);
+        keyBuilder.append('-');
+        appendHex(keyBuilder, most, 4);
+        keyBuilder.append('-');
+        appendHex(keyBuilder, least >>> 48, 4);
+        keyBuilder.append('-');
+        appendHex(keyBuilder, least, 12);
+    }
+
+    private static void appendHex(StringBuilder keyBuilder, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            keyBuilder.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * 解析SpEL表达式，解析失败时使用原始表达式
+     *
+     * @param joinPoint 切点信息
+     * @param context   本次调用共享的评估上下文
+     * @param key       key表达式
+     * @return 表达式的值
+     */
+    protected Object evaluate(ProceedingJoinPoint joinPoint, EvaluationContext context, String key) {
+        try {
+            return SpelUtils.parseSpel(joinPoint, context, key);
+        } catch (Exception e) {
+            log.warn("Failed to parse SpEL expression: {}, use raw expression", key, e);
+            return key;
+        }
+    }
+
+    /**
+     * 方法的基础键和构建锁键时预分配的容量
+     */
+    private static final class MethodKey {
+
+        private final String baseKey;
+
+        /**
+         * 最近构建的最长锁键的长度，并发更新时丢失一次也不影响结果
+         */
+        private int capacity;
+
+        MethodKey(String baseKey) {
+            this.baseKey = baseKey;
+            this.capacity = baseKey.length() + 37;
+        }
+    }
+}
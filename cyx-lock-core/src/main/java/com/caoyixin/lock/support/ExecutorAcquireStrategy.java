@@ -0,0 +1,17 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+
+/**
+ * 由执行器自行等待的获取策略，将获取锁的超时时间直接交给执行器
+ *
+ * @author caoyixin
+ */
+public class ExecutorAcquireStrategy implements AcquireStrategy {
+
+    @Override
+    public LockInfo acquire(LockExecutor lockExecutor, String key, long expire, long acquireTimeout) {
+        return lockExecutor.acquire(key, expire, acquireTimeout);
+    }
+}
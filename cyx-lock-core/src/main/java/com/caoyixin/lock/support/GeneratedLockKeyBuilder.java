@@ -0,0 +1,95 @@
+package com.caoyixin.lock.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 优先使用编译期生成的key表达式求值器的锁键生成器
+ * <p>
+ * 方法所在类存在cyx-lock-processor生成的{@link GeneratedLockKeys}时直接调用生成的代码求值，
+ * 不使用反射和SpEL；没有生成类或表达式未生成时与{@link DefaultLockKeyBuilder}一致。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class GeneratedLockKeyBuilder extends DefaultLockKeyBuilder {
+
+    /**
+     * 方法没有生成的求值器
+     */
+    private static final MethodKeys NONE = new MethodKeys(null, null);
+
+    /**
+     * 每个方法对应的生成求值器
+     */
+    private final ConcurrentHashMap<Method, MethodKeys> methodKeys = new ConcurrentHashMap<>();
+
+    @Override
+    protected Object evaluate(ProceedingJoinPoint joinPoint, EvaluationContext context, String key) {
+        MethodKeys keys = methodKeysOf(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (keys != NONE) {
+            Object value;
+            try {
+                value = keys.generated.evaluate(keys.signature, key, joinPoint.getArgs());
+            } catch (Exception e) {
+                log.warn("Failed to evaluate key expression: {}, use raw expression", key, e);
+                return key;
+            }
+            if (value != GeneratedLockKeys.UNSUPPORTED) {
+                return value;
+            }
+        }
+        return super.evaluate(joinPoint, context, key);
+    }
+
+    private MethodKeys methodKeysOf(Method method) {
+        MethodKeys keys = methodKeys.get(method);
+        if (keys == null) {
+            keys = methodKeys.computeIfAbsent(method, GeneratedLockKeyBuilder::load);
+        }
+        return keys;
+    }
+
+    /**
+     * 加载方法所在类的生成类，不存在时返回NONE
+     */
+    private static MethodKeys load(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        String className = GeneratedLockKeys.classNameOf(type.getName());
+        try {
+            Class<?> generated = ClassUtils.forName(className, type.getClassLoader());
+            if (!GeneratedLockKeys.class.isAssignableFrom(generated)) {
+                return NONE;
+            }
+            GeneratedLockKeys keys = (GeneratedLockKeys) generated.getDeclaredConstructor().newInstance();
+            log.debug("Using generated lock keys: {}, method: {}", className, method);
+            return new MethodKeys(keys, GeneratedLockKeys.signatureOf(method));
+        } catch (ClassNotFoundException e) {
+            return NONE;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Failed to load generated lock keys: {}, use SpEL", className, e);
+            return NONE;
+        }
+    }
+
+    /**
+     * 方法对应的生成求值器和方法签名
+     */
+    private static final class MethodKeys {
+
+        private final GeneratedLockKeys generated;
+
+        private final String signature;
+
+        MethodKeys(GeneratedLockKeys generated, String signature) {
+            this.generated = generated;
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.caoyixin.lock.support;
+
+import java.lang.reflect.Method;
+
+/**
+ * 编译期生成的key表达式求值器，由cyx-lock-processor为每个包含@CyxLock方法的类生成
+ * <p>
+ * 生成的类与原类位于同一个包，类名为原类的二进制名中'$'替换为'_'后加上{@link #CLASS_SUFFIX}。
+ *
+ * @author caoyixin
+ */
+public interface GeneratedLockKeys {
+
+    /**
+     * 生成类的类名后缀
+     */
+    String CLASS_SUFFIX = "_CyxLockKeys";
+
+    /**
+     * 表达式未在编译期生成的标记，此时使用SpEL求值
+     */
+    Object UNSUPPORTED = new Object();
+
+    /**
+     * 求值key表达式
+     *
+     * @param method     方法签名，见{@link #signatureOf(Method)}
+     * @param expression key表达式
+     * @param args       方法参数
+     * @return 表达式的值，未生成时返回{@link #UNSUPPORTED}
+     */
+    Object evaluate(String method, String expression, Object[] args);
+
+    /**
+     * 类对应的生成类名
+     *
+     * @param binaryName 类的二进制名，如com.example.Outer$Inner
+     * @return 生成类的全限定名
+     */
+    static String classNameOf(String binaryName) {
+        return binaryName.replace('$', '_') + CLASS_SUFFIX;
+    }
+
+    /**
+     * 方法签名，由方法名和参数类型名组成，如decrementStock(java.lang.String,int)
+     *
+     * @param method 方法
+     * @return 方法签名
+     */
+    static String signatureOf(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameterTypes[i].getTypeName());
+        }
+        return signature.append(')').toString();
+    }
+}
@@ -0,0 +1,155 @@
+package com.caoyixin.lock.support;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Redis Cluster哈希标签工具
+ * <p>
+ * key中第一个{@code {}后到其后第一个{@code }}之间的非空内容为哈希标签，存在哈希标签时只用标签计算槽位，
+ * 标签相同的key位于同一槽位，可以在一次脚本调用中操作。
+ *
+ * @author caoyixin
+ */
+public final class HashTags {
+
+    /**
+     * Redis Cluster的槽位数量
+     */
+    public static final int SLOTS = 16384;
+
+    private HashTags() {
+    }
+
+    /**
+     * 将值包装为哈希标签
+     *
+     * @param value 标签内容
+     * @return 形如{@code {value}}的哈希标签
+     */
+    public static String tag(String value) {
+        return "{" + value + "}";
+    }
+
+    /**
+     * 查找key中哈希标签的位置
+     *
+     * @param key 锁的key
+     * @return 标签的起始和结束下标(包括大括号)，没有哈希标签时返回null
+     */
+    public static int[] tagRange(String key) {
+        int start = key.indexOf('{');
+        if (start < 0) {
+            return null;
+        }
+        int end = key.indexOf('}', start + 1);
+        if (end <= start + 1) {
+            return null;
+        }
+        return new int[] { start, end + 1 };
+    }
+
+    /**
+     * 获取key中的哈希标签
+     *
+     * @param key 锁的key
+     * @return 标签内容，没有哈希标签时返回null
+     */
+    public static String hashTagOf(String key) {
+        int[] range = tagRange(key);
+        return range != null ? key.substring(range[0] + 1, range[1] - 1) : null;
+    }
+
+    /**
+     * 计算key所在的槽位，与Redis Cluster一致
+     *
+     * @param key 锁的key
+     * @return 槽位，范围为[0, 16384)
+     */
+    public static int slotOf(String key) {
+        String hashTag = hashTagOf(key);
+        byte[] data = (hashTag != null ? hashTag : key).getBytes(StandardCharsets.UTF_8);
+        return crc16(data) & (SLOTS - 1);
+    }
+
+    /**
+     * 生成与key位于同一槽位的关联key，用于需要与锁在一次脚本调用中操作的key
+     * <p>
+     * key包含哈希标签时直接拼接后缀，不包含大括号时整体作为哈希标签。{@code a{}b}、{@code a}b}这类包含大括号
+     * 但没有哈希标签的key整体包装后标签会在key内部的大括号处截断、落到其他槽位，改用与key槽位相同的{@link #slotTag(int)}。
+     *
+     * @param key    锁的key
+     * @param suffix 关联key的后缀
+     * @return 与key位于同一槽位的关联key
+     */
+    public static String colocate(String key, String suffix) {
+        if (tagRange(key) != null) {
+            return key + ":" + suffix;
+        }
+        if (key.indexOf('{') < 0 && key.indexOf('}') < 0) {
+            return tag(key) + ":" + suffix;
+        }
+        return tag(slotTag(slotOf(key))) + ":" + key + ":" + suffix;
+    }
+
+    /**
+     * 获取落在指定槽位的最短标签内容，只包含数字和字母，结果在所有进程中一致
+     *
+     * @param slot 槽位，范围为[0, 16384)
+     * @return 标签内容
+     */
+    public static String slotTag(int slot) {
+        return SlotTags.TAGS[slot];
+    }
+
+    /**
+     * CRC16 XMODEM，多项式0x1021，初始值0
+     */
+    private static int crc16(byte[] data) {
+        int crc = 0;
+        for (byte b : data) {
+            crc ^= (b & 0xff) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return crc & 0xffff;
+    }
+
+    /**
+     * 槽位标签表，第一次使用时按长度和字典序枚举字母数字组合，每个槽位保留第一个命中的组合
+     */
+    private static final class SlotTags {
+
+        private static final char[] ALPHABET =
+                "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+        private static final String[] TAGS = build();
+
+        private static String[] build() {
+            String[] tags = new String[SLOTS];
+            int remaining = SLOTS;
+            for (long n = 1; remaining > 0; n++) {
+                String candidate = candidate(n);
+                int slot = crc16(candidate.getBytes(StandardCharsets.US_ASCII)) & (SLOTS - 1);
+                if (tags[slot] == null) {
+                    tags[slot] = candidate;
+                    remaining--;
+                }
+            }
+            return tags;
+        }
+
+        /**
+         * 第n个组合(从1开始)，即n的双射62进制表示，依次为0..Z、00..ZZ、000..
+         */
+        private static String candidate(long n) {
+            StringBuilder builder = new StringBuilder(4);
+            while (n > 0) {
+                n--;
+                builder.append(ALPHABET[(int) (n % ALPHABET.length)]);
+                n /= ALPHABET.length;
+            }
+            return builder.reverse().toString();
+        }
+    }
+}
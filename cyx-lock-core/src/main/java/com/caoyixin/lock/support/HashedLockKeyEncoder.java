@@ -0,0 +1,239 @@
+package com.caoyixin.lock.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 哈希锁键编码器，保留可读的前缀，其余部分替换为固定长度的哈希
+ * <p>
+ * 以前缀开头的key编码为{@code 前缀:#哈希}，其他key编码为{@code #哈希}；哈希为MurmurHash3 x64 128位的前64或128位，
+ * 以URL安全的Base64编码为11或22个字符。编码后不比原key短时保留原key。
+ * key中的哈希标签保留在哈希之前，编码为{@code 前缀:{标签}:#哈希}，编码后的key与原key位于Redis Cluster的同一槽位。
+ * 最近编码的key保存在有界的本地反查表中，新key覆盖同一槽位的旧key，供日志和监控还原原始key。
+ *
+ * @author caoyixin
+ */
+public class HashedLockKeyEncoder implements LockKeyEncoder {
+
+    /**
+     * 哈希部分的标记
+     */
+    private static final String HASH_MARKER = "#";
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * 保留的可读前缀，包括末尾的分隔符
+     */
+    private final String readablePrefix;
+
+    /**
+     * 哈希位数，64或128
+     */
+    private final int hashBits;
+
+    /**
+     * 反查表，为null时不保存原始key
+     */
+    private final AtomicReferenceArray<Entry> reverseMap;
+
+    /**
+     * 创建哈希锁键编码器
+     *
+     * @param readablePrefix 保留的可读前缀，如锁键前缀cyx:lock
+     * @param hashBits       哈希位数，64或128
+     * @param reverseMapSize 反查表的大小，向上取整为2的幂，0表示不保存原始key
+     */
+    public HashedLockKeyEncoder(String readablePrefix, int hashBits, int reverseMapSize) {
+        if (hashBits != 64 && hashBits != 128) {
+            throw new IllegalArgumentException("hashBits must be 64 or 128: " + hashBits);
+        }
+        if (reverseMapSize < 0) {
+            throw new IllegalArgumentException("reverseMapSize must not be negative: " + reverseMapSize);
+        }
+        this.readablePrefix = readablePrefix == null || readablePrefix.isEmpty() ? "" : readablePrefix + ":";
+        this.hashBits = hashBits;
+        this.reverseMap = reverseMapSize > 0 ? new AtomicReferenceArray<>(tableSize(reverseMapSize)) : null;
+    }
+
+    @Override
+    public String encode(String key) {
+        String prefix = !readablePrefix.isEmpty() && key.startsWith(readablePrefix) ? readablePrefix : "";
+        int[] tagRange = HashTags.tagRange(key);
+        String tag = tagRange != null && tagRange[0] >= prefix.length()
+                ? key.substring(tagRange[0], tagRange[1]) + ":" : "";
+        int hashLength = hashBits == 128 ? 22 : 11;
+        if (key.length() <= prefix.length() + tag.length() + HASH_MARKER.length() + hashLength) {
+            return key;
+        }
+
+        String encoded = prefix + tag + HASH_MARKER + hash(key.substring(prefix.length()));
+        if (reverseMap != null) {
+            int index = indexOf(encoded);
+            Entry entry = reverseMap.get(index);
+            if (entry == null || !entry.encodedKey.equals(encoded)) {
+                reverseMap.set(index, new Entry(encoded, key));
+            }
+        }
+        return encoded;
+    }
+
+    @Override
+    public String decode(String encodedKey) {
+        if (reverseMap == null || encodedKey == null) {
+            return encodedKey;
+        }
+        Entry entry = reverseMap.get(indexOf(encodedKey));
+        return entry != null && entry.encodedKey.equals(encodedKey) ? entry.key : encodedKey;
+    }
+
+    private int indexOf(String encodedKey) {
+        int h = encodedKey.hashCode();
+        return (h ^ (h >>> 16)) & (reverseMap.length() - 1);
+    }
+
+    private static int tableSize(int size) {
+        int n = 1;
+        while (n < size && n < (1 << 30)) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    /**
+     * 计算哈希并编码为Base64
+     */
+    private String hash(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        long[] hash = murmur3(data);
+        byte[] bytes = new byte[hashBits / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (hash[i >> 3] >>> ((i & 7) * 8));
+        }
+        return BASE64.encodeToString(bytes);
+    }
+
+    /**
+     * MurmurHash3 x64 128位，种子为0
+     */
+    static long[] murmur3(byte[] data) {
+        int length = data.length;
+        int blocks = length >> 4;
+        long h1 = 0;
+        long h2 = 0;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i << 4);
+            long k2 = getLong(data, (i << 4) + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks << 4;
+        long k1 = 0;
+        long k2 = 0;
+        switch (length & 15) {
+            case 15:
+                k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14:
+                k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13:
+                k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12:
+                k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11:
+                k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10:
+                k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xff;
+                h2 ^= mixK2(k2);
+            case 8:
+                k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7:
+                k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6:
+                k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5:
+                k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4:
+                k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3:
+                k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2:
+                k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xff;
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] { h1, h2 };
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xff);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * 反查表中的一项
+     */
+    private static final class Entry {
+
+        private final String encodedKey;
+
+        private final String key;
+
+        Entry(String encodedKey, String key) {
+            this.encodedKey = encodedKey;
+            this.key = key;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.caoyixin.lock.support;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 锁键生成器接口，用于生成锁的key
  *
@@ -17,4 +20,49 @@ public interface LockKeyBuilder {
      * @return 锁的key
      */
     String buildKey(ProceedingJoinPoint joinPoint, String[] keys);
-}
\ No newline at end of file
+
+    /**
+     * 构建多个锁的key，每个key表达式对应一个或多个key
+     *
+     * @param joinPoint 切点信息
+     * @param keys      key表达式数组
+     * @return 锁的key列表
+     */
+    default List<String> buildKeys(ProceedingJoinPoint joinPoint, String[] keys) {
+        return Collections.singletonList(buildKey(joinPoint, keys));
+    }
+
+    /**
+     * 构建带哈希标签的锁的key，分片表达式的值作为哈希标签，使同一分片的key位于Redis Cluster的同一槽位
+     * <p>
+     * 默认实现不支持分片表达式，忽略分片表达式构建不带哈希标签的key，并对每个生成器类型告警一次。
+     *
+     * @param joinPoint 切点信息
+     * @param keys      key表达式数组
+     * @param shardKey  分片表达式，为空时与{@link #buildKey(ProceedingJoinPoint, String[])}一致
+     * @return 锁的key
+     */
+    default String buildKey(ProceedingJoinPoint joinPoint, String[] keys, String shardKey) {
+        if (shardKey != null && !shardKey.isEmpty()) {
+            ShardKeyWarnings.ignored(getClass(), shardKey);
+        }
+        return buildKey(joinPoint, keys);
+    }
+
+    /**
+     * 构建多个带哈希标签的锁的key，所有key使用同一个哈希标签
+     * <p>
+     * 默认实现与{@link #buildKey(ProceedingJoinPoint, String[], String)}相同，忽略分片表达式。
+     *
+     * @param joinPoint 切点信息
+     * @param keys      key表达式数组
+     * @param shardKey  分片表达式，为空时与{@link #buildKeys(ProceedingJoinPoint, String[])}一致
+     * @return 锁的key列表
+     */
+    default List<String> buildKeys(ProceedingJoinPoint joinPoint, String[] keys, String shardKey) {
+        if (shardKey != null && !shardKey.isEmpty()) {
+            ShardKeyWarnings.ignored(getClass(), shardKey);
+        }
+        return buildKeys(joinPoint, keys);
+    }
+}
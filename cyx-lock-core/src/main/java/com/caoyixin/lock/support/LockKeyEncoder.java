@@ -0,0 +1,27 @@
+package com.caoyixin.lock.support;
+
+/**
+ * 锁键编码器，在锁键生成后对锁键编码，发送给锁服务的是编码后的key
+ *
+ * @author caoyixin
+ */
+public interface LockKeyEncoder {
+
+    /**
+     * 编码锁键
+     *
+     * @param key 锁键生成器生成的key
+     * @return 编码后的key，同一个key的编码结果在所有节点上相同
+     */
+    String encode(String key);
+
+    /**
+     * 查找编码后的key对应的原始key，用于日志和监控
+     *
+     * @param encodedKey 编码后的key
+     * @return 原始key，无法找到时返回编码后的key
+     */
+    default String decode(String encodedKey) {
+        return encodedKey;
+    }
+}
@@ -0,0 +1,69 @@
+package com.caoyixin.lock.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 锁分桶，将任意数量的key按哈希映射到固定数量的分桶key上
+ * <p>
+ * 不同key可能落在同一个分桶上而相互等待，换取锁服务中key和释放通知频道的数量有上限。
+ * 分桶只由key的内容决定，所有节点对同一个key得到相同的分桶。
+ *
+ * @author caoyixin
+ */
+public final class LockStripes {
+
+    /**
+     * 分桶key中命名空间与分桶编号之间的分隔
+     */
+    private static final String STRIPE_SEPARATOR = ":stripe:";
+
+    private LockStripes() {
+    }
+
+    /**
+     * 计算key所在的分桶编号
+     *
+     * @param key     锁的key
+     * @param stripes 分桶数量
+     * @return 分桶编号，范围为[0, stripes)
+     */
+    public static int indexOf(String key, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), stripes);
+    }
+
+    /**
+     * 计算key所在的分桶key
+     *
+     * @param namespace 分桶所属的命名空间，如方法对应的基础键
+     * @param key       锁的key
+     * @param stripes   分桶数量
+     * @return 分桶key
+     */
+    public static String stripeKey(String namespace, String key, int stripes) {
+        return namespace + STRIPE_SEPARATOR + indexOf(key, stripes);
+    }
+
+    /**
+     * 计算多个key所在的分桶key，落在同一个分桶的key只保留一个
+     *
+     * @param namespace 分桶所属的命名空间，如方法对应的基础键
+     * @param keys      锁的key
+     * @param stripes   分桶数量
+     * @return 分桶key，保持key的原有顺序
+     */
+    public static List<String> stripeKeys(String namespace, List<String> keys, int stripes) {
+        List<String> stripeKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            String stripeKey = stripeKey(namespace, key, stripes);
+            if (!stripeKeys.contains(stripeKey)) {
+                stripeKeys.add(stripeKey);
+            }
+        }
+        return stripeKeys;
+    }
+}
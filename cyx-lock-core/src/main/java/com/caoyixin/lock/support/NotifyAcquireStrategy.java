@@ -0,0 +1,61 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockReleaseNotifier;
+import com.caoyixin.lock.core.ReleaseSubscription;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于释放通知的获取策略，锁被占用时订阅释放通知，收到通知或锁过期后重试
+ * <p>
+ * 执行器未实现{@link LockReleaseNotifier}时按{@link BackoffAcquireStrategy}退避重试。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class NotifyAcquireStrategy implements AcquireStrategy {
+
+    private final AcquireStrategy fallback = new BackoffAcquireStrategy();
+
+    @Override
+    public LockInfo acquire(LockExecutor lockExecutor, String key, long expire, long acquireTimeout) {
+        if (!(lockExecutor instanceof LockReleaseNotifier)) {
+            return fallback.acquire(lockExecutor, key, expire, acquireTimeout);
+        }
+
+        // 第一次尝试不订阅
+        LockInfo lockInfo = lockExecutor.acquire(key, expire, 0);
+        if (lockInfo != null || acquireTimeout <= 0) {
+            return lockInfo;
+        }
+
+        long deadline = System.currentTimeMillis() + acquireTimeout;
+        LockReleaseNotifier notifier = (LockReleaseNotifier) lockExecutor;
+        // 先订阅再重试，避免错过重试之后的释放通知
+        try (ReleaseSubscription subscription = notifier.subscribe(key)) {
+            while (true) {
+                lockInfo = lockExecutor.acquire(key, expire, 0);
+                if (lockInfo != null) {
+                    return lockInfo;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return null;
+                }
+
+                // 锁过期不会发出通知，最多等待到锁过期
+                long ttl = notifier.remainTimeToLive(key);
+                subscription.await(ttl > 0 ? Math.min(ttl, remaining) : remaining, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for lock release notification, key: {}", key);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.ReleaseSubscription;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按key共享的锁释放信号表，供锁执行器实现释放通知
+ * <p>
+ * 同一个key的所有订阅共享一个信号，第一个订阅建立时调用{@link #listenAsync(String)}注册底层监听，
+ * 最后一个订阅关闭时调用{@link #unlisten(String, Object)}注销，收到释放消息后调用{@link #signal(String)}唤醒等待者。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class ReleaseSignals {
+
+    private final ConcurrentHashMap<String, Signal> signals = new ConcurrentHashMap<>();
+
+    /**
+     * 订阅锁释放信号，阻塞到底层监听注册完成
+     *
+     * @param key 锁的key
+     * @return 订阅，使用完毕后必须关闭
+     */
+    public ReleaseSubscription subscribe(String key) {
+        try {
+            return subscribeAsync(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步订阅锁释放信号，底层监听注册完成后返回订阅
+     *
+     * @param key 锁的key
+     * @return 订阅，使用完毕后必须关闭
+     */
+    public CompletableFuture<ReleaseSubscription> subscribeAsync(String key) {
+        Signal signal = signals.compute(key, (k, current) -> {
+            Signal s = current != null ? current : new Signal();
+            s.subscribers++;
+            return s;
+        });
+
+        // 底层监听注册完成前，同一个key的其他订阅者共用同一次注册
+        CompletableFuture<Object> listening;
+        synchronized (signal) {
+            if (signal.listening == null) {
+                try {
+                    signal.listening = listenAsync(key);
+                } catch (RuntimeException e) {
+                    signal.listening = failed(e);
+                }
+            }
+            listening = signal.listening;
+        }
+
+        CompletableFuture<ReleaseSubscription> result = new CompletableFuture<>();
+        listening.whenComplete((handle, e) -> {
+            if (e != null) {
+                synchronized (signal) {
+                    if (signal.listening == listening) {
+                        signal.listening = null;
+                    }
+                }
+                release(key, signal);
+                result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                return;
+            }
+            Subscription subscription;
+            synchronized (signal) {
+                subscription = new Subscription(key, signal, signal.generation);
+            }
+            result.complete(subscription);
+        });
+        return result;
+    }
+
+    /**
+     * 发出锁释放信号，唤醒该key的所有等待者
+     *
+     * @param key 锁的key
+     */
+    public void signal(String key) {
+        Signal signal = signals.get(key);
+        if (signal != null) {
+            List<CompletableFuture<Boolean>> waiters;
+            synchronized (signal) {
+                signal.generation++;
+                signal.notifyAll();
+                waiters = signal.waiters;
+                signal.waiters = null;
+            }
+            if (waiters != null) {
+                waiters.forEach(waiter -> waiter.complete(true));
+            }
+        }
+    }
+
+    /**
+     * 当前有订阅的key数量
+     */
+    public int size() {
+        return signals.size();
+    }
+
+    /**
+     * 注册底层监听，在key的第一个订阅建立时调用
+     *
+     * @param key 锁的key
+     * @return 监听句柄，注销时传回
+     */
+    protected Object listen(String key) {
+        return null;
+    }
+
+    /**
+     * 异步注册底层监听，在key的第一个订阅建立时调用，默认在调用线程上执行{@link #listen(String)}
+     * <p>
+     * 异步获取锁会在客户端回调线程上订阅，底层监听需要网络往返时应覆盖此方法，避免阻塞回调线程。
+     *
+     * @param key 锁的key
+     * @return 监听句柄，注销时传回
+     */
+    protected CompletableFuture<Object> listenAsync(String key) {
+        return CompletableFuture.completedFuture(listen(key));
+    }
+
+    /**
+     * 注销底层监听，在key的最后一个订阅关闭时调用
+     *
+     * @param key    锁的key
+     * @param handle 注册时返回的监听句柄
+     */
+    protected void unlisten(String key, Object handle) {
+    }
+
+    private void release(String key, Signal signal) {
+        boolean[] last = new boolean[1];
+        signals.computeIfPresent(key, (k, current) -> {
+            if (current != signal) {
+                return current;
+            }
+            if (--current.subscribers == 0) {
+                last[0] = true;
+                return null;
+            }
+            return current;
+        });
+
+        if (last[0]) {
+            CompletableFuture<Object> listening;
+            synchronized (signal) {
+                listening = signal.listening;
+                signal.listening = null;
+            }
+            if (listening != null) {
+                listening.thenAccept(handle -> {
+                    try {
+                        unlisten(key, handle);
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to remove lock release listener, key: {}", key, e);
+                    }
+                });
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /**
+     * 异步等待的超时调度线程，所有信号表共用，第一次异步等待时创建
+     */
+    private static final class Timer {
+
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "cyx-lock-release-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            // 等待者大多被释放信号提前唤醒，取消的超时任务立即移出队列
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * 单个key的释放信号
+     */
+    private static final class Signal {
+
+        /**
+         * 订阅数，只在ConcurrentHashMap.compute中修改
+         */
+        private int subscribers;
+
+        /**
+         * 释放信号计数
+         */
+        private long generation;
+
+        /**
+         * 底层监听的注册结果，未注册时为null
+         */
+        private CompletableFuture<Object> listening;
+
+        /**
+         * 异步等待者，收到释放信号时全部完成
+         */
+        private List<CompletableFuture<Boolean>> waiters;
+    }
+
+    private final class Subscription implements ReleaseSubscription {
+
+        private final String key;
+
+        private final Signal signal;
+
+        private long seen;
+
+        private boolean closed;
+
+        private Subscription(String key, Signal signal, long seen) {
+            this.key = key;
+            this.signal = signal;
+            this.seen = seen;
+        }
+
+        @Override
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (signal) {
+                while (signal.generation == seen) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(signal, remaining);
+                }
+                seen = signal.generation;
+                return true;
+            }
+        }
+
+        @Override
+        public CompletableFuture<Boolean> awaitAsync(long timeout, TimeUnit unit) {
+            CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+            synchronized (signal) {
+                if (signal.generation != seen) {
+                    seen = signal.generation;
+                    return CompletableFuture.completedFuture(true);
+                }
+                if (timeout <= 0) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                if (signal.waiters == null) {
+                    signal.waiters = new ArrayList<>();
+                }
+                signal.waiters.add(waiter);
+            }
+
+            ScheduledFuture<?> timeoutTask = Timer.SCHEDULER.schedule(() -> waiter.complete(false), timeout, unit);
+            return waiter.whenComplete((signaled, e) -> {
+                timeoutTask.cancel(false);
+                synchronized (signal) {
+                    if (Boolean.TRUE.equals(signaled)) {
+                        seen = signal.generation;
+                    } else if (signal.waiters != null) {
+                        signal.waiters.remove(waiter);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(key, signal);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.caoyixin.lock.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 不支持分片表达式的锁键生成器的告警，每个生成器类型只告警一次
+ *
+ * @author caoyixin
+ */
+@Slf4j
+final class ShardKeyWarnings {
+
+    private static final Set<Class<?>> WARNED = ConcurrentHashMap.newKeySet();
+
+    private ShardKeyWarnings() {
+    }
+
+    /**
+     * 记录生成器忽略了分片表达式，第一次出现时输出告警
+     *
+     * @param builderType 锁键生成器类型
+     * @param shardKey    被忽略的分片表达式
+     */
+    static void ignored(Class<?> builderType, String shardKey) {
+        if (!WARNED.contains(builderType) && WARNED.add(builderType)) {
+            log.warn("{} does not support shard key, building lock keys without hash tag, shardKey: {}",
+                    builderType.getName(), shardKey);
+        }
+    }
+}
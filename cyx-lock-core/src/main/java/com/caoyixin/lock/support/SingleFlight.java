@@ -0,0 +1,106 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.exception.LockException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * JVM内按key合并并发调用
+ * <p>
+ * 同一个key同时只有一个调用者执行，执行期间到达的其他调用者不再执行，等待并共享其结果或异常。
+ * 执行者在同一线程内再次以相同key调用时直接执行，避免等待自身。
+ *
+ * @author caoyixin
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 执行调用，同一个key已有调用在执行时等待并返回其结果
+     *
+     * @param key  合并调用的key，相同key的调用必须执行相同的操作
+     * @param call 调用
+     * @param <T>  返回值类型
+     * @param <E>  调用可能抛出的异常类型
+     * @return 调用结果，等待者返回执行者的结果
+     * @throws E 调用抛出的异常，等待者抛出执行者抛出的同一个异常
+     */
+    public <T, E extends Throwable> T execute(String key, Call<T, E> call) throws E {
+        Flight flight = new Flight(Thread.currentThread());
+        Flight current = flights.putIfAbsent(key, flight);
+        if (current == null) {
+            T result;
+            try {
+                result = call.call();
+            } catch (Throwable e) {
+                flights.remove(key, flight);
+                flight.result.completeExceptionally(e);
+                throw e;
+            }
+            flights.remove(key, flight);
+            flight.result.complete(result);
+            return result;
+        }
+
+        // 执行者嵌套调用
+        if (current.owner == Thread.currentThread()) {
+            return call.call();
+        }
+        return current.await(key);
+    }
+
+    /**
+     * 正在执行的调用数量
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    /**
+     * 可以抛出指定异常的调用
+     *
+     * @param <T> 返回值类型
+     * @param <E> 异常类型
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Throwable> {
+
+        /**
+         * 执行调用
+         *
+         * @return 调用结果
+         * @throws E 调用抛出的异常
+         */
+        T call() throws E;
+    }
+
+    /**
+     * 一次正在执行的调用
+     */
+    private static final class Flight {
+
+        private final Thread owner;
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Flight(Thread owner) {
+            this.owner = owner;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T, E extends Throwable> T await(String key) throws E {
+            try {
+                return (T) result.get();
+            } catch (ExecutionException e) {
+                throw (E) e.getCause();
+            } catch (InterruptedException e) {
+                // 恢复中断状态
+                Thread.currentThread().interrupt();
+                throw new LockException("Interrupted while waiting for shared result, key: " + key, e);
+            }
+        }
+    }
+}
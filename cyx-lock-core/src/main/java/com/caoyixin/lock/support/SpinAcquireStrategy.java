@@ -0,0 +1,87 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 先自旋后休眠的获取策略，自旋期内连续重试，之后以指数增长的间隔休眠重试
+ * <p>
+ * 适用于本地锁执行器和极短的临界区，锁通常在几微秒内释放，自旋比休眠和唤醒的开销更小；
+ * 远程执行器每次尝试都需要一次网络往返，不建议使用。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class SpinAcquireStrategy implements AcquireStrategy {
+
+    /**
+     * 默认自旋时长，单位：纳秒
+     */
+    public static final long DEFAULT_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    /**
+     * 休眠重试时的最短休眠时间，单位：纳秒
+     */
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /**
+     * 休眠重试时的最长休眠时间，单位：纳秒
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 自旋时长，单位：纳秒
+     */
+    private final long spinNanos;
+
+    public SpinAcquireStrategy() {
+        this(DEFAULT_SPIN_NANOS);
+    }
+
+    /**
+     * @param spinNanos 自旋时长，单位：纳秒
+     */
+    public SpinAcquireStrategy(long spinNanos) {
+        if (spinNanos < 0) {
+            throw new IllegalArgumentException("spinNanos must not be negative: " + spinNanos);
+        }
+        this.spinNanos = spinNanos;
+    }
+
+    @Override
+    public LockInfo acquire(LockExecutor lockExecutor, String key, long expire, long acquireTimeout) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeout);
+        long spinDeadline = start + Math.min(spinNanos, TimeUnit.MILLISECONDS.toNanos(acquireTimeout));
+        long parkNanos = MIN_PARK_NANOS;
+
+        while (true) {
+            LockInfo lockInfo = lockExecutor.acquire(key, expire, 0);
+            if (lockInfo != null) {
+                return lockInfo;
+            }
+
+            long now = System.nanoTime();
+            long remaining = deadline - now;
+            if (remaining <= 0) {
+                return null;
+            }
+
+            // 自旋期内立即重试
+            if (now - spinDeadline < 0) {
+                continue;
+            }
+
+            LockSupport.parkNanos(Math.min(parkNanos, remaining));
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("Interrupted while spinning to acquire lock, key: {}", key);
+                return null;
+            }
+            parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.caoyixin.lock.support;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+
+/**
+ * 只尝试一次的获取策略，忽略获取锁的超时时间，锁被占用时立即失败
+ *
+ * @author caoyixin
+ */
+public class TryOnceAcquireStrategy implements AcquireStrategy {
+
+    @Override
+    public LockInfo acquire(LockExecutor lockExecutor, String key, long expire, long acquireTimeout) {
+        return lockExecutor.acquire(key, expire, 0);
+    }
+}
@@ -0,0 +1,209 @@
+package com.caoyixin.lock.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 简单key表达式，形如{@code #orderId}或{@code #request.user.id}
+ * <p>
+ * 直接读取方法参数并通过缓存的getter方法句柄访问属性，不经过SpEL求值。
+ * 参数为null、找不到可访问的getter或公共字段时返回{@link #UNRESOLVED}，由调用方改用SpEL求值，结果与SpEL一致。
+ *
+ * @author caoyixin
+ */
+final class SimpleKeyExpression {
+
+    /**
+     * 无法直接求值的标记
+     */
+    static final Object UNRESOLVED = new Object();
+
+    /**
+     * 参数引用加上可选的属性路径
+     */
+    private static final Pattern PATTERN = Pattern.compile(
+            "#([A-Za-z_$][\\w$]*)((?:\\.[A-Za-z_$][\\w$]*)*)");
+
+    /**
+     * #p0、#a0形式的参数引用
+     */
+    private static final Pattern INDEX_PATTERN = Pattern.compile("[pa](\\d{1,4})");
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * 参数下标
+     */
+    private final int index;
+
+    /**
+     * 属性路径
+     */
+    private final Property[] properties;
+
+    private SimpleKeyExpression(int index, Property[] properties) {
+        this.index = index;
+        this.properties = properties;
+    }
+
+    /**
+     * 识别简单表达式
+     *
+     * @param method         方法
+     * @param parameterNames 方法的参数名
+     * @param expression     key表达式
+     * @return 简单表达式，不是简单表达式时返回null
+     */
+    static SimpleKeyExpression parse(Method method, String[] parameterNames, String expression) {
+        Matcher matcher = PATTERN.matcher(expression.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        int index = indexOf(method, parameterNames, matcher.group(1));
+        if (index < 0) {
+            return null;
+        }
+        String path = matcher.group(2);
+        String[] names = path.isEmpty() ? new String[0] : path.substring(1).split("\\.");
+        Property[] properties = new Property[names.length];
+        for (int i = 0; i < names.length; i++) {
+            properties[i] = new Property(names[i]);
+        }
+        return new SimpleKeyExpression(index, properties);
+    }
+
+    /**
+     * 参数名优先，其次为#p0、#a0形式；#root、#this等其他变量交给SpEL
+     */
+    private static int indexOf(Method method, String[] parameterNames, String name) {
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (parameterNames[i].equals(name)) {
+                return "root".equals(name) || "this".equals(name) ? -1 : i;
+            }
+        }
+        Matcher matcher = INDEX_PATTERN.matcher(name);
+        if (matcher.matches()) {
+            int index = Integer.parseInt(matcher.group(1));
+            return index < method.getParameterCount() ? index : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * 求值
+     *
+     * @param args 方法参数
+     * @return 表达式的值，无法直接求值时返回{@link #UNRESOLVED}
+     */
+    Object getValue(Object[] args) {
+        if (index >= args.length) {
+            return UNRESOLVED;
+        }
+        Object value = args[index];
+        for (Property property : properties) {
+            if (value == null) {
+                return UNRESOLVED;
+            }
+            MethodHandle getter = property.getter(value.getClass());
+            if (getter == null) {
+                return UNRESOLVED;
+            }
+            try {
+                value = (Object) getter.invokeExact(value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to read property '" + property.name + "' of "
+                        + value.getClass().getName(), e);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 属性访问，按最近一次的参数类型缓存getter
+     */
+    private static final class Property {
+
+        private final String name;
+
+        private volatile Getter cached;
+
+        Property(String name) {
+            this.name = name;
+        }
+
+        MethodHandle getter(Class<?> type) {
+            Getter getter = cached;
+            if (getter == null || getter.type != type) {
+                getter = new Getter(type, lookup(type, name));
+                cached = getter;
+            }
+            return getter.handle;
+        }
+
+        /**
+         * 依次查找getX()、isX()和公共字段，与SpEL的属性访问一致
+         */
+        private static MethodHandle lookup(Class<?> type, String name) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                return null;
+            }
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                Method method = findGetter(type, "get" + suffix);
+                if (method == null) {
+                    method = findGetter(type, "is" + suffix);
+                    if (method != null && method.getReturnType() != boolean.class
+                            && method.getReturnType() != Boolean.class) {
+                        method = null;
+                    }
+                }
+                if (method != null) {
+                    return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+                }
+                Field field = type.getField(name);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    return null;
+                }
+                return MethodHandles.publicLookup().unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (NoSuchFieldException | IllegalAccessException | SecurityException e) {
+                return null;
+            }
+        }
+
+        private static Method findGetter(Class<?> type, String name) {
+            try {
+                Method method = type.getMethod(name);
+                if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class
+                        || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    return null;
+                }
+                return method;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 参数类型与对应的getter，getter为null表示该类型无法直接访问
+     */
+    private static final class Getter {
+
+        private final Class<?> type;
+
+        private final MethodHandle handle;
+
+        Getter(Class<?> type, MethodHandle handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+    }
+}
@@ -2,19 +2,34 @@ package com.caoyixin.lock.util;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.lang.reflect.Method;
-import java.util.Objects;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * SpEL表达式解析工具类
+ * <p>
+ * 表达式按方法和表达式文本缓存，{@code #orderId}、{@code #request.userId}等简单表达式直接读取参数和属性，
+ * 其他表达式使用MIXED模式在多次解释执行后编译为字节码，参数类型变化时退回解释执行。
  *
  * @author caoyixin
  */
@@ -23,13 +38,30 @@ public class SpelUtils {
     /**
      * SpEL表达式解析器
      */
-    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelUtils.class.getClassLoader()));
 
     /**
      * 参数名发现器
      */
     private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
 
+    /**
+     * 空参数名，方法没有参数或无法获取参数名时使用
+     */
+    private static final String[] NO_PARAMETER_NAMES = new String[0];
+
+    /**
+     * 解析后的表达式，按方法和表达式文本缓存，查找时不创建组合key
+     */
+    private static final ConcurrentHashMap<Method, ConcurrentHashMap<String, KeyExpression>> EXPRESSION_CACHE =
+            new ConcurrentHashMap<>();
+
+    /**
+     * 每个方法的参数名
+     */
+    private static final ConcurrentHashMap<Method, String[]> PARAMETER_NAMES_CACHE = new ConcurrentHashMap<>();
+
     /**
      * 解析SpEL表达式
      *
@@ -38,40 +70,204 @@ public class SpelUtils {
      * @return 解析结果
      */
     public static Object parseSpel(JoinPoint joinPoint, String spelExpression) {
-        // 获取方法签名
-        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        Method method = methodSignature.getMethod();
-
-        // 获取方法参数
-        Object[] args = joinPoint.getArgs();
-
-        // 创建评估上下文
-        EvaluationContext context = createEvaluationContext(method, args);
+        return parseSpel(joinPoint, createEvaluationContext(joinPoint), spelExpression);
+    }
 
-        // 解析表达式
-        return EXPRESSION_PARSER.parseExpression(spelExpression).getValue(context);
+    /**
+     * 使用已创建的评估上下文解析SpEL表达式，同一次调用的多个表达式共享一个上下文
+     *
+     * @param joinPoint      切点信息
+     * @param context        {@link #createEvaluationContext(JoinPoint)}创建的评估上下文
+     * @param spelExpression SpEL表达式
+     * @return 解析结果
+     */
+    public static Object parseSpel(JoinPoint joinPoint, EvaluationContext context, String spelExpression) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        KeyExpression expression = getExpression(method, spelExpression);
+        if (expression.simple != null) {
+            Object value = expression.simple.getValue(joinPoint.getArgs());
+            if (value != SimpleKeyExpression.UNRESOLVED) {
+                return value;
+            }
+        }
+        return expression.spel().getValue(context);
     }
 
     /**
-     * 创建评估上下文
+     * 创建评估上下文，方法参数可通过参数名或#p0、#a0形式引用；只有使用SpEL求值时才创建完整的上下文
      *
-     * @param method 方法
-     * @param args   方法参数
+     * @param joinPoint 切点信息
      * @return 评估上下文
      */
-    private static EvaluationContext createEvaluationContext(Method method, Object[] args) {
-        // 创建标准评估上下文
-        StandardEvaluationContext context = new MethodBasedEvaluationContext(null, method, args,
-                PARAMETER_NAME_DISCOVERER);
-
-        // 设置参数值
-        String[] parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
-        if (Objects.nonNull(parameterNames)) {
-            for (int i = 0; i < parameterNames.length; i++) {
-                context.setVariable(parameterNames[i], args[i]);
+    public static EvaluationContext createEvaluationContext(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return new MethodArgumentsContext(getParameterNames(method), joinPoint.getArgs());
+    }
+
+    /**
+     * 获取解析后的表达式，首次使用时解析并缓存
+     */
+    private static KeyExpression getExpression(Method method, String spelExpression) {
+        ConcurrentHashMap<String, KeyExpression> expressions = EXPRESSION_CACHE.get(method);
+        if (expressions == null) {
+            expressions = EXPRESSION_CACHE.computeIfAbsent(method, m -> new ConcurrentHashMap<>(4));
+        }
+        KeyExpression expression = expressions.get(spelExpression);
+        if (expression == null) {
+            expression = expressions.computeIfAbsent(spelExpression, k -> new KeyExpression(spelExpression,
+                    SimpleKeyExpression.parse(method, getParameterNames(method), spelExpression)));
+        }
+        return expression;
+    }
+
+    /**
+     * 获取方法的参数名，首次使用时发现并缓存
+     */
+    private static String[] getParameterNames(Method method) {
+        String[] parameterNames = PARAMETER_NAMES_CACHE.get(method);
+        if (parameterNames == null) {
+            String[] discovered = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+            parameterNames = PARAMETER_NAMES_CACHE.computeIfAbsent(method,
+                    m -> discovered != null ? discovered : NO_PARAMETER_NAMES);
+        }
+        return parameterNames;
+    }
+
+    /**
+     * 缓存的表达式，简单表达式同时保留SpEL表达式，用于无法直接求值时
+     */
+    private static final class KeyExpression {
+
+        private final String text;
+
+        private final SimpleKeyExpression simple;
+
+        private volatile Expression spel;
+
+        KeyExpression(String text, SimpleKeyExpression simple) {
+            this.text = text;
+            this.simple = simple;
+        }
+
+        /**
+         * SpEL表达式，首次使用时解析
+         */
+        Expression spel() {
+            Expression expression = spel;
+            if (expression == null) {
+                expression = EXPRESSION_PARSER.parseExpression(text);
+                spel = expression;
+            }
+            return expression;
+        }
+    }
+
+    /**
+     * 按参数名查找方法参数的评估上下文，不逐个设置变量；SpEL需要的标准上下文在首次使用时创建
+     */
+    private static final class MethodArgumentsContext implements EvaluationContext {
+
+        private final String[] parameterNames;
+
+        private final Object[] args;
+
+        private StandardEvaluationContext delegate;
+
+        MethodArgumentsContext(String[] parameterNames, Object[] args) {
+            this.parameterNames = parameterNames;
+            this.args = args;
+        }
+
+        private StandardEvaluationContext delegate() {
+            if (delegate == null) {
+                delegate = new StandardEvaluationContext();
+            }
+            return delegate;
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return TypedValue.NULL;
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return delegate().getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return delegate().getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return delegate().getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return delegate().getBeanResolver();
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return delegate().getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return delegate().getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return delegate().getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return delegate().getOperatorOverloader();
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            delegate().setVariable(name, value);
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            if (delegate != null) {
+                Object value = delegate.lookupVariable(name);
+                if (value != null) {
+                    return value;
+                }
+            }
+            for (int i = 0; i < parameterNames.length && i < args.length; i++) {
+                if (parameterNames[i].equals(name)) {
+                    return args[i];
+                }
+            }
+            // 与MethodBasedEvaluationContext一致，支持#p0、#a0形式
+            if (name.length() > 1 && (name.charAt(0) == 'p' || name.charAt(0) == 'a')) {
+                int index = parseIndex(name);
+                if (index >= 0 && index < args.length) {
+                    return args[index];
+                }
             }
+            return null;
         }
 
-        return context;
+        private static int parseIndex(String name) {
+            int index = 0;
+            for (int i = 1; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c < '0' || c > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+                    return -1;
+                }
+                index = index * 10 + (c - '0');
+            }
+            return index;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,334 @@
+package com.caoyixin.lock.local.executor;
+
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockReleaseNotifier;
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.core.ReleaseSubscription;
+import com.caoyixin.lock.support.ReleaseSignals;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于JVM内存的锁执行器实现，适用于单实例部署和测试环境
+ * <p>
+ * 锁表按key的哈希分为多个分段，每个分段内的锁状态为不可变对象，
+ * 状态变更全部通过CAS完成，获取和释放均不需要加互斥锁。
+ * 每次获取使用独立的持有者标识，不与线程绑定，可以在其他线程释放或由其他线程接手；
+ * 同一线程的重入由{@link com.caoyixin.lock.core.LockTemplate}处理，执行器本身不可重入。
+ * 锁完全释放时直接唤醒通过{@link #subscribe(String)}等待的线程。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class LocalLockExecutor implements RenewableLockExecutor, LockReleaseNotifier {
+
+    /**
+     * 默认分段数
+     */
+    private static final int DEFAULT_STRIPES = 64;
+
+    /**
+     * 每个分段累计获取多少次后清理一次过期锁
+     */
+    private static final int PURGE_THRESHOLD = 1024;
+
+    /**
+     * 等待锁时的最短休眠时间，单位：纳秒
+     */
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /**
+     * 等待锁时的最长休眠时间，单位：纳秒
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 当前执行器实例的标识，用于生成持有者标识
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 持有者编号，每次获取锁递增
+     */
+    private final AtomicLong ownerSequence = new AtomicLong();
+
+    /**
+     * 锁表分段
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * 分段掩码
+     */
+    private final int mask;
+
+    /**
+     * 锁释放信号
+     */
+    private final ReleaseSignals releaseSignals = new ReleaseSignals();
+
+    /**
+     * 上一次生成的防护令牌，所有key共用，以微秒时间戳为基准，进程重启后仍大于之前的令牌
+     */
+    private final AtomicLong fencingSequence = new AtomicLong();
+
+    public LocalLockExecutor() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes 分段数，会向上取整为2的幂
+     */
+    public LocalLockExecutor(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public LockInfo acquire(String key, long expire, long acquireTimeout) {
+        // 参数校验
+        if (key == null) {
+            throw new IllegalArgumentException("Lock key must not be null");
+        }
+        if (expire <= 0) {
+            throw new IllegalArgumentException("expire must be positive: " + expire);
+        }
+        if (acquireTimeout < 0) {
+            throw new IllegalArgumentException("acquireTimeout must not be negative: " + acquireTimeout);
+        }
+
+        log.debug("Trying to acquire local lock, key: {}, expire: {}ms, acquireTimeout: {}ms",
+                key, expire, acquireTimeout);
+
+        Stripe stripe = stripeOf(key);
+        String owner = nextOwner();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeout);
+        long parkNanos = MIN_PARK_NANOS;
+
+        while (true) {
+            if (tryAcquire(stripe, key, owner, expire)) {
+                log.debug("Acquired local lock successfully, key: {}", key);
+                return new LockInfo().setKey(key).setValue(owner).setFencingToken(nextFencingToken());
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                log.debug("Failed to acquire local lock, key: {}", key);
+                return null;
+            }
+
+            // 指数退避等待，避免空转
+            LockSupport.parkNanos(Math.min(parkNanos, remaining));
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("Interrupted while trying to acquire local lock, key: {}", key);
+                return null;
+            }
+            parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public boolean release(LockInfo lockInfo) {
+        return releaseWithResult(lockInfo).isReleased();
+    }
+
+    @Override
+    public ReleaseResult releaseWithResult(LockInfo lockInfo) {
+        if (lockInfo == null || lockInfo.getKey() == null || lockInfo.getValue() == null) {
+            return ReleaseResult.NOT_OWNER;
+        }
+
+        String key = lockInfo.getKey();
+        ConcurrentHashMap<String, LockState> table = stripeOf(key).table;
+
+        while (true) {
+            LockState current = table.get(key);
+            if (current == null || current.isExpired(System.nanoTime())) {
+                log.debug("Cannot release local lock, key: {}, lock not held or already expired", key);
+                return ReleaseResult.EXPIRED;
+            }
+            if (!current.owner.equals(lockInfo.getValue())) {
+                log.warn("Cannot release local lock, key: {}, not held by owner: {}", key, lockInfo.getValue());
+                return ReleaseResult.NOT_OWNER;
+            }
+
+            if (table.remove(key, current)) {
+                releaseSignals.signal(key);
+                log.debug("Released local lock successfully, key: {}", key);
+                return ReleaseResult.RELEASED;
+            }
+        }
+    }
+
+    @Override
+    public boolean isLocked(String key) {
+        if (key == null) {
+            return false;
+        }
+        LockState current = stripeOf(key).table.get(key);
+        return current != null && !current.isExpired(System.nanoTime());
+    }
+
+    @Override
+    public List<Boolean> renew(List<LockInfo> locks, long expire) {
+        List<Boolean> results = new ArrayList<>(locks.size());
+        for (LockInfo lockInfo : locks) {
+            results.add(renew(lockInfo, expire));
+        }
+        return results;
+    }
+
+    @Override
+    public ReleaseSubscription subscribe(String key) {
+        return releaseSignals.subscribe(key);
+    }
+
+    @Override
+    public long remainTimeToLive(String key) {
+        LockState current = stripeOf(key).table.get(key);
+        long now = System.nanoTime();
+        if (current == null || current.isExpired(now)) {
+            return -2;
+        }
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(current.expireAt - now), 1);
+    }
+
+    /**
+     * 清理所有已过期的锁
+     */
+    public void purgeExpired() {
+        for (Stripe stripe : stripes) {
+            purgeExpired(stripe);
+        }
+    }
+
+    /**
+     * 尝试一次获取锁
+     */
+    private boolean tryAcquire(Stripe stripe, String key, String owner, long expire) {
+        ConcurrentHashMap<String, LockState> table = stripe.table;
+        while (true) {
+            long now = System.nanoTime();
+            long expireAt = now + TimeUnit.MILLISECONDS.toNanos(expire);
+            LockState current = table.get(key);
+
+            if (current == null) {
+                if (table.putIfAbsent(key, new LockState(owner, expireAt)) == null) {
+                    if (stripe.acquireCount.incrementAndGet() % PURGE_THRESHOLD == 0) {
+                        purgeExpired(stripe);
+                    }
+                    return true;
+                }
+            } else if (current.isExpired(now)) {
+                // 锁已过期，直接接管
+                if (table.replace(key, current, new LockState(owner, expireAt))) {
+                    return true;
+                }
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 持有者一致且未过期时刷新过期时间
+     */
+    private boolean renew(LockInfo lockInfo, long expire) {
+        if (lockInfo.getKey() == null || lockInfo.getValue() == null) {
+            return false;
+        }
+        ConcurrentHashMap<String, LockState> table = stripeOf(lockInfo.getKey()).table;
+        while (true) {
+            long now = System.nanoTime();
+            LockState current = table.get(lockInfo.getKey());
+            if (current == null || current.isExpired(now) || !current.owner.equals(lockInfo.getValue())) {
+                return false;
+            }
+            long expireAt = now + TimeUnit.MILLISECONDS.toNanos(expire);
+            if (table.replace(lockInfo.getKey(), current, new LockState(current.owner, expireAt))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 生成防护令牌，取当前微秒时间戳与上一个令牌加1中的较大值
+     */
+    private long nextFencingToken() {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        return fencingSequence.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    private void purgeExpired(Stripe stripe) {
+        long now = System.nanoTime();
+        for (Map.Entry<String, LockState> entry : stripe.table.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                stripe.table.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Stripe stripeOf(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private String nextOwner() {
+        return instanceId + ":" + ownerSequence.incrementAndGet();
+    }
+
+    /**
+     * 锁表分段
+     */
+    private static final class Stripe {
+
+        private final ConcurrentHashMap<String, LockState> table = new ConcurrentHashMap<>();
+
+        private final AtomicInteger acquireCount = new AtomicInteger();
+    }
+
+    /**
+     * 锁状态，不可变对象
+     */
+    private static final class LockState {
+
+        /**
+         * 持有者标识
+         */
+        private final String owner;
+
+        /**
+         * 过期时刻，基于System.nanoTime()
+         */
+        private final long expireAt;
+
+        private LockState(String owner, long expireAt) {
+            this.owner = owner;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+}
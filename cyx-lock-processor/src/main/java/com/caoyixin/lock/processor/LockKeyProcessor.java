@@ -0,0 +1,424 @@
+package com.caoyixin.lock.processor;
+
+import com.caoyixin.lock.annotation.CyxLock;
+import com.caoyixin.lock.support.GeneratedLockKeys;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @CyxLock注解处理器，在编译期为key表达式生成求值代码
+ * <p>
+ * {@code #param}、{@code #p0}和{@code #param.prop.prop}形式的表达式按参数和属性的声明类型生成直接调用getter的代码，
+ * 参数或属性不存在时编译失败；其他表达式只校验语法，运行时仍使用SpEL求值。
+ * 每个包含@CyxLock方法的类生成一个{@link GeneratedLockKeys}实现，由GeneratedLockKeyBuilder按方法查找。
+ *
+ * @author caoyixin
+ */
+@SupportedAnnotationTypes("com.caoyixin.lock.annotation.CyxLock")
+public class LockKeyProcessor extends AbstractProcessor {
+
+    /**
+     * 参数引用加上可选的属性路径，与运行时的简单表达式一致
+     */
+    private static final Pattern SIMPLE_PATTERN = Pattern.compile(
+            "#([A-Za-z_$][\\w$]*)((?:\\.[A-Za-z_$][\\w$]*)*)");
+
+    /**
+     * #p0、#a0形式的参数引用
+     */
+    private static final Pattern INDEX_PATTERN = Pattern.compile("[pa](\\d{1,4})");
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<ExecutableElement>> methodsByType = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(CyxLock.class)) {
+            if (element.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element.getEnclosingElement();
+            methodsByType.computeIfAbsent(type, t -> new ArrayList<>()).add((ExecutableElement) element);
+        }
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methodsByType.entrySet()) {
+            generate(entry.getKey(), entry.getValue());
+        }
+        return false;
+    }
+
+    /**
+     * 为一个类生成key表达式求值器
+     */
+    private void generate(TypeElement type, List<ExecutableElement> methods) {
+        String packageName = elements().getPackageOf(type).getQualifiedName().toString();
+        List<MethodKeys> methodKeys = new ArrayList<>();
+        boolean valid = true;
+        for (ExecutableElement method : methods) {
+            MethodKeys keys = new MethodKeys(signatureOf(method));
+            for (String expression : new LinkedHashSet<>(keyExpressions(method))) {
+                String code;
+                try {
+                    code = compile(method, expression, packageName);
+                } catch (InvalidExpressionException e) {
+                    messager().printMessage(Diagnostic.Kind.ERROR, "Invalid @CyxLock key expression '"
+                            + expression + "': " + e.getMessage(), method);
+                    valid = false;
+                    continue;
+                }
+                if (code != null) {
+                    keys.expressions.put(expression, code);
+                }
+            }
+            if (!keys.expressions.isEmpty()) {
+                methodKeys.add(keys);
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        String binaryName = elements().getBinaryName(type).toString();
+        String qualifiedName = GeneratedLockKeys.classNameOf(binaryName);
+        String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source(packageName, simpleName, binaryName, methodKeys));
+        } catch (IOException e) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + qualifiedName + ": " + e, type);
+        }
+    }
+
+    /**
+     * 注解中的key表达式和分片表达式
+     */
+    private static List<String> keyExpressions(ExecutableElement method) {
+        CyxLock annotation = method.getAnnotation(CyxLock.class);
+        List<String> expressions = new ArrayList<>();
+        for (String key : annotation.keys()) {
+            if (key != null && !key.trim().isEmpty()) {
+                expressions.add(key);
+            }
+        }
+        if (!annotation.shardKey().trim().isEmpty()) {
+            expressions.add(annotation.shardKey());
+        }
+        return expressions;
+    }
+
+    /**
+     * 生成表达式的求值语句
+     *
+     * @return 求值语句，不是简单表达式时返回null
+     * @throws InvalidExpressionException 表达式语法错误，或引用的参数、属性不存在
+     */
+    private String compile(ExecutableElement method, String expression, String packageName)
+            throws InvalidExpressionException {
+        Matcher matcher = SIMPLE_PATTERN.matcher(expression.trim());
+        if (!matcher.matches()) {
+            // 其他表达式运行时使用SpEL求值，编译期只校验语法
+            try {
+                parser.parseExpression(expression);
+            } catch (ParseException e) {
+                throw new InvalidExpressionException(e.getMessage());
+            }
+            return null;
+        }
+
+        String name = matcher.group(1);
+        if ("root".equals(name) || "this".equals(name)) {
+            return null;
+        }
+        List<? extends VariableElement> parameters = method.getParameters();
+        int index = indexOf(parameters, name);
+        if (index < 0) {
+            throw new InvalidExpressionException("no parameter named '" + name + "'");
+        }
+
+        StringBuilder code = new StringBuilder();
+        code.append("                value = args[").append(index).append("];\n");
+        TypeMirror type = parameters.get(index).asType();
+        String path = matcher.group(2);
+        if (!path.isEmpty()) {
+            for (String property : path.substring(1).split("\\.")) {
+                if (type.getKind() == TypeKind.TYPEVAR) {
+                    type = types().erasure(type);
+                }
+                if (type.getKind() != TypeKind.DECLARED) {
+                    throw new InvalidExpressionException("cannot read property '" + property + "' of " + type);
+                }
+                DeclaredType declaredType = (DeclaredType) type;
+                if (!isAccessible((TypeElement) declaredType.asElement(), packageName)) {
+                    // 类型在生成类中不可见，运行时使用SpEL求值
+                    return null;
+                }
+                Element accessor = findAccessor(declaredType, property, packageName);
+                if (accessor == null) {
+                    throw new InvalidExpressionException("no readable property '" + property + "' on " + type);
+                }
+                String target = "((" + types().erasure(type) + ") java.util.Objects.requireNonNull(value, \""
+                        + "Property or field '" + property + "' cannot be found on null\"))";
+                TypeMirror member = types().asMemberOf(declaredType, accessor);
+                if (accessor.getKind() == ElementKind.METHOD) {
+                    code.append("                value = ").append(target).append('.')
+                            .append(accessor.getSimpleName()).append("();\n");
+                    type = ((ExecutableType) member).getReturnType();
+                } else {
+                    code.append("                value = ").append(target).append('.')
+                            .append(accessor.getSimpleName()).append(";\n");
+                    type = member;
+                }
+            }
+        }
+        return code.append("                return value;\n").toString();
+    }
+
+    /**
+     * 参数名优先，其次为#p0、#a0形式
+     */
+    private static int indexOf(List<? extends VariableElement> parameters, String name) {
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).getSimpleName().contentEquals(name)) {
+                return i;
+            }
+        }
+        Matcher matcher = INDEX_PATTERN.matcher(name);
+        if (matcher.matches()) {
+            int index = Integer.parseInt(matcher.group(1));
+            return index < parameters.size() ? index : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * 依次查找getX()、isX()和字段，与SpEL的属性访问一致
+     */
+    private Element findAccessor(DeclaredType type, String property, String packageName) {
+        TypeElement typeElement = (TypeElement) type.asElement();
+        List<? extends Element> members = elements().getAllMembers(typeElement);
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String getter : new String[] { "get" + suffix, "is" + suffix }) {
+            for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+                if (!method.getSimpleName().contentEquals(getter) || !method.getParameters().isEmpty()
+                        || method.getModifiers().contains(Modifier.STATIC)
+                        || method.getReturnType().getKind() == TypeKind.VOID
+                        || !isAccessible(method, packageName)) {
+                    continue;
+                }
+                if (getter.startsWith("is") && !isBoolean(method.getReturnType())) {
+                    continue;
+                }
+                return method;
+            }
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(members)) {
+            if (field.getSimpleName().contentEquals(property) && !field.getModifiers().contains(Modifier.STATIC)
+                    && field.getModifiers().contains(Modifier.PUBLIC)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private boolean isBoolean(TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN
+                || types().isSameType(type, elements().getTypeElement(Boolean.class.getName()).asType());
+    }
+
+    /**
+     * 成员在生成类所在的包中是否可以访问
+     */
+    private boolean isAccessible(Element member, String packageName) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return elements().getPackageOf(member).getQualifiedName().contentEquals(packageName);
+    }
+
+    /**
+     * 类型及其外部类在生成类所在的包中是否都可以访问
+     */
+    private boolean isAccessible(TypeElement type, String packageName) {
+        Element element = type;
+        while (element != null && !(element instanceof PackageElement)) {
+            if (!isAccessible(element, packageName)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * 方法签名，与运行时GeneratedLockKeys.signatureOf一致
+     */
+    private String signatureOf(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(typeName(types().erasure(parameters.get(i).asType())));
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * 与Class.getTypeName一致的类型名
+     */
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return elements().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        }
+        return type.toString();
+    }
+
+    private static String source(String packageName, String simpleName, String binaryName,
+                                 List<MethodKeys> methodKeys) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * ").append(binaryName).append("的@CyxLock key表达式求值器，由LockKeyProcessor生成\n */\n");
+        source.append("public final class ").append(simpleName)
+                .append(" implements com.caoyixin.lock.support.GeneratedLockKeys {\n\n");
+        source.append("    @Override\n");
+        source.append("    public Object evaluate(String method, String expression, Object[] args) {\n");
+        source.append("        switch (method) {\n");
+        for (int i = 0; i < methodKeys.size(); i++) {
+            source.append("            case ").append(literal(methodKeys.get(i).signature)).append(":\n");
+            source.append("                return method").append(i).append("(expression, args);\n");
+        }
+        source.append("            default:\n");
+        source.append("                return UNSUPPORTED;\n");
+        source.append("        }\n");
+        source.append("    }\n");
+        for (int i = 0; i < methodKeys.size(); i++) {
+            source.append("\n    private static Object method").append(i).append("(String expression, Object[] args) {\n");
+            source.append("        Object value;\n");
+            source.append("        switch (expression) {\n");
+            for (Map.Entry<String, String> entry : methodKeys.get(i).expressions.entrySet()) {
+                source.append("            case ").append(literal(entry.getKey())).append(":\n");
+                source.append(entry.getValue());
+            }
+            source.append("            default:\n");
+            source.append("                return UNSUPPORTED;\n");
+            source.append("        }\n");
+            source.append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    /**
+     * Java字符串字面量
+     */
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+
+    private Messager messager() {
+        return processingEnv.getMessager();
+    }
+
+    /**
+     * 一个方法生成的表达式求值语句
+     */
+    private static final class MethodKeys {
+
+        private final String signature;
+
+        private final Map<String, String> expressions = new LinkedHashMap<>();
+
+        MethodKeys(String signature) {
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * 表达式无效
+     */
+    private static final class InvalidExpressionException extends Exception {
+
+        InvalidExpressionException(String message) {
+            super(message);
+        }
+    }
+}
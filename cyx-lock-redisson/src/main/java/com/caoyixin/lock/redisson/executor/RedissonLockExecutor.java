@@ -1,48 +1,139 @@
 package com.caoyixin.lock.redisson.executor;
 
-import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.AsyncLockExecutor;
 import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.core.LockReleaseNotifier;
+import com.caoyixin.lock.core.MultiLockExecutor;
+import com.caoyixin.lock.core.PermitLockExecutor;
+import com.caoyixin.lock.core.ReadWriteLockExecutor;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.core.ReleaseSubscription;
+import com.caoyixin.lock.redisson.script.LockScript;
+import com.caoyixin.lock.redisson.script.LockScripts;
+import com.caoyixin.lock.support.HashTags;
+import com.caoyixin.lock.support.ReleaseSignals;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * 基于Redisson的锁执行器实现
+ * <p>
+ * 异步获取的锁和多key锁每次获取使用独立的负数持有者编号，不与任何线程绑定，始终按持有者标识释放；
+ * 按持有者标识释放时同步获取的独占锁同样如此，只有按线程释放时才使用线程标识。
+ * 释放通知复用RLock的解锁消息频道，同一个key只订阅一次。
+ * 独占锁和多key锁使用与RLock相同的哈希结构，在一次脚本调用中获取全部key并生成防护令牌，
+ * 多key锁不论释放方式都按持有者标识释放。集群模式下多key锁按槽位分组，同一槽位的key在一次脚本调用中获取和释放，
+ * 不同槽位按槽位顺序依次获取，任一组获取失败时释放已获取的组；使用相同哈希标签的key只有一组。
+ * 读锁和写锁与RReadWriteLock的数据结构一致，同样不论释放方式都按持有者标识释放，异步获取时每次使用独立的持有者编号；
+ * 写锁在一次脚本调用中获取并生成防护令牌。异步获取在等待释放通知期间不占用线程。
+ * 许可锁基于RPermitExpirableSemaphore，按许可标识释放，每个许可独立过期。
+ * 续期时所有锁在一次批量请求中续期，集群模式下每个节点一次请求。
  *
  * @author caoyixin
  */
 @Slf4j
-public class RedissonLockExecutor implements LockExecutor {
+public class RedissonLockExecutor implements AsyncLockExecutor, MultiLockExecutor, ReadWriteLockExecutor,
+        PermitLockExecutor, RenewableLockExecutor, LockReleaseNotifier {
+
+    /**
+     * Redisson解锁消息频道前缀，与RLock保持一致
+     */
+    private static final String CHANNEL_PREFIX = "redisson_lock__channel";
+
+    /**
+     * Redisson读写锁解锁消息频道前缀，与RReadWriteLock保持一致
+     */
+    private static final String READ_WRITE_CHANNEL_PREFIX = "redisson_rwlock";
+
+    /**
+     * Redisson解锁消息，与RLock保持一致
+     */
+    private static final long UNLOCK_MESSAGE = 0L;
+
+    /**
+     * 不与线程绑定的持有者编号，每次获取使用一个新编号，取负数避免与线程ID冲突
+     */
+    private static final AtomicLong OWNER_ID = new AtomicLong();
+
+    /**
+     * 已设置许可总数的key，每个key只在首次使用时设置
+     */
+    private final Set<String> permitKeys = ConcurrentHashMap.newKeySet();
 
     @Setter
     private RedissonClient redissonClient;
 
+    /**
+     * 释放锁的方式
+     */
+    @Setter
+    private ReleaseMode releaseMode = ReleaseMode.TOKEN;
+
+    /**
+     * 锁释放信号，按key订阅解锁消息频道
+     */
+    private final ReleaseSignals releaseSignals = new TopicSignals(CHANNEL_PREFIX);
+
+    /**
+     * 读写锁释放信号，按key订阅读写锁的解锁消息频道，用于等待写锁
+     */
+    private final ReleaseSignals readWriteSignals = new TopicSignals(READ_WRITE_CHANNEL_PREFIX);
+
     @Override
     public LockInfo acquire(String key, long expire, long acquireTimeout) {
         // 参数校验
         if (redissonClient == null) {
             throw new IllegalStateException("RedissonClient is not initialized");
         }
+        if (key == null) {
+            throw new IllegalArgumentException("Lock key must not be null");
+        }
 
         log.debug("Trying to acquire lock with Redisson, key: {}, expire: {}ms, acquireTimeout: {}ms",
                 key, expire, acquireTimeout);
 
-        // 获取锁对象
-        RLock lock = redissonClient.getLock(key);
+        // 按持有者标识释放时每次获取使用新的持有者标识，锁被其他线程接手后原线程不能再重入获取；
+        // 按线程释放时与RLock一致使用线程标识
+        String token = releaseMode == ReleaseMode.THREAD
+                ? lockName(Thread.currentThread().getId()) : lockName(-OWNER_ID.incrementAndGet());
 
         try {
-            // 尝试获取锁
-            boolean success = lock.tryLock(acquireTimeout, expire, TimeUnit.MILLISECONDS);
+            // 尝试获取锁，与RLock的数据结构一致，同时生成防护令牌
+            List<Long> fencingTokens = acquireHash(Collections.singletonList(key), token, expire, acquireTimeout);
 
-            if (success) {
+            if (fencingTokens != null) {
                 log.debug("Acquired lock with Redisson successfully, key: {}", key);
 
-                // 创建锁信息对象
+                // 创建锁信息对象，持有者标识用于按标识释放和续期
                 LockInfo lockInfo = new LockInfo();
                 lockInfo.setKey(key);
+                lockInfo.setValue(token);
+                lockInfo.setFencingToken(fencingTokens.get(0));
 
                 return lockInfo;
             } else {
@@ -60,36 +151,161 @@ public class RedissonLockExecutor implements LockExecutor {
         }
     }
 
+    @Override
+    public LockInfo acquire(String key, LockMode mode, long expire, long acquireTimeout) {
+        if (mode == null || mode == LockMode.EXCLUSIVE) {
+            return acquire(key, expire, acquireTimeout);
+        }
+
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        log.debug("Trying to acquire {} lock with Redisson, key: {}, expire: {}ms, acquireTimeout: {}ms",
+                mode, key, expire, acquireTimeout);
+
+        String token = lockName(Thread.currentThread().getId());
+
+        try {
+            LockInfo lockInfo;
+            if (mode == LockMode.WRITE) {
+                // 获取写锁和生成防护令牌在一次脚本调用中完成
+                CompletableFuture<LockInfo> future = acquireWrite(key, token, expire, acquireTimeout);
+                try {
+                    lockInfo = future.get();
+                } catch (InterruptedException e) {
+                    // 等待被中断后仍可能获取成功，获取成功时立即释放
+                    future.thenAccept(acquired -> {
+                        if (acquired != null) {
+                            releaseReadWrite(acquired);
+                        }
+                    });
+                    throw e;
+                }
+            } else {
+                boolean success = readWriteLock(key, mode).tryLock(acquireTimeout, expire, TimeUnit.MILLISECONDS);
+                lockInfo = success ? new LockInfo().setKey(key).setMode(mode).setValue(token) : null;
+            }
+
+            if (lockInfo != null) {
+                log.debug("Acquired {} lock with Redisson successfully, key: {}", mode, key);
+                return lockInfo;
+            } else {
+                log.debug("Failed to acquire {} lock with Redisson, key: {}", mode, key);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while trying to acquire {} lock with Redisson, key: {}", mode, key, e);
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to acquire {} lock with Redisson, key: {}", mode, key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public LockInfo acquire(String key, int permits, long expire, long acquireTimeout) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        log.debug("Trying to acquire permit with Redisson, key: {}, permits: {}, expire: {}ms, acquireTimeout: {}ms",
+                key, permits, expire, acquireTimeout);
+
+        // 获取信号量对象
+        RPermitExpirableSemaphore semaphore = redissonClient.getPermitExpirableSemaphore(key);
+
+        try {
+            // 许可总数已存在时不会修改
+            if (!permitKeys.contains(key)) {
+                semaphore.trySetPermits(permits);
+                permitKeys.add(key);
+            }
+
+            // 尝试获取许可
+            String permitId = semaphore.tryAcquire(acquireTimeout, expire, TimeUnit.MILLISECONDS);
+
+            if (permitId != null) {
+                log.debug("Acquired permit with Redisson successfully, key: {}, permitId: {}", key, permitId);
+                return new LockInfo().setKey(key).setValue(permitId).setPermits(permits);
+            } else {
+                log.debug("Failed to acquire permit with Redisson, key: {}", key);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while trying to acquire permit with Redisson, key: {}", key, e);
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to acquire permit with Redisson, key: {}", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public int availablePermits(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        try {
+            return redissonClient.getPermitExpirableSemaphore(key).availablePermits();
+        } catch (Exception e) {
+            log.error("Error occurred while checking available permits with Redisson, key: {}", key, e);
+            return -1;
+        }
+    }
+
     @Override
     public boolean release(LockInfo lockInfo) {
+        return releaseWithResult(lockInfo).isReleased();
+    }
+
+    @Override
+    public ReleaseResult releaseWithResult(LockInfo lockInfo) {
         // 参数校验
         if (redissonClient == null) {
             throw new IllegalStateException("RedissonClient is not initialized");
         }
         if (lockInfo == null || lockInfo.getKey() == null) {
-            return false;
+            return ReleaseResult.NOT_OWNER;
         }
 
         String key = lockInfo.getKey();
-        log.debug("Trying to release lock with Redisson, key: {}", key);
+        log.debug("Trying to release lock with Redisson, key: {}, releaseMode: {}", key, releaseMode);
 
         try {
-            // 获取锁对象
-            RLock lock = redissonClient.getLock(key);
-
-            // 检查锁是否被当前线程持有
-            if (lock.isLocked() && lock.isHeldByCurrentThread()) {
-                // 释放锁
-                lock.unlock();
+            // 不与线程绑定的锁，以及可能在其他线程释放的读锁和写锁，都按持有者标识释放
+            ReleaseResult result;
+            if (lockInfo.getPermits() != null) {
+                result = releasePermit(lockInfo).get();
+            } else if (isReadWrite(lockInfo)) {
+                result = releaseReadWrite(lockInfo).get();
+            } else if (releaseMode == ReleaseMode.TOKEN || isDetachedOwner(lockInfo.getValue())) {
+                result = releaseByToken(key, lockInfo.getValue());
+            } else {
+                result = releaseByThread(key);
+            }
+            if (result.isReleased()) {
                 log.debug("Released lock with Redisson successfully, key: {}", key);
-                return true;
             } else {
-                log.warn("Cannot release lock with Redisson, key: {}, not locked by current thread", key);
-                return false;
+                log.warn("Cannot release lock with Redisson, key: {}, result: {}", key, result);
             }
+            return result;
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while trying to release lock with Redisson, key: {}", key, e);
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            return ReleaseResult.FAILED;
         } catch (Exception e) {
             log.error("Error occurred while trying to release lock with Redisson, key: {}", key, e);
-            return false;
+            return ReleaseResult.FAILED;
         }
     }
 
@@ -114,4 +330,768 @@ public class RedissonLockExecutor implements LockExecutor {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public CompletableFuture<LockInfo> acquireAsync(String key, long expire, long acquireTimeout) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        log.debug("Trying to acquire lock asynchronously with Redisson, key: {}, expire: {}ms, acquireTimeout: {}ms",
+                key, expire, acquireTimeout);
+
+        String token = lockName(-OWNER_ID.incrementAndGet());
+        List<Object> scriptKeys = Arrays.<Object>asList(key, fencingKey(key));
+        CompletableFuture<LockInfo> result = new CompletableFuture<>();
+        try {
+            // 与同步获取相同，获取锁和生成防护令牌在一次脚本调用中完成
+            acquireScriptAsync(key, releaseSignals, acquireTimeout,
+                    () -> LockScripts.HASH_ACQUIRE_ALL.evalAsync(redissonClient.getScript(StringCodec.INSTANCE),
+                            RScript.Mode.READ_WRITE, RScript.ReturnType.MULTI, scriptKeys, expire, token))
+                    .whenComplete((fencingTokens, e) -> {
+                        if (e != null) {
+                            log.error("Error occurred while trying to acquire lock asynchronously with Redisson, key: {}",
+                                    key, e);
+                            result.complete(null);
+                        } else if (fencingTokens != null) {
+                            log.debug("Acquired lock asynchronously with Redisson successfully, key: {}", key);
+                            result.complete(new LockInfo().setKey(key).setValue(token)
+                                    .setFencingToken(fencingTokens.get(0)));
+                        } else {
+                            log.debug("Failed to acquire lock asynchronously with Redisson, key: {}", key);
+                            result.complete(null);
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Error occurred while trying to acquire lock asynchronously with Redisson, key: {}", key, e);
+            result.complete(null);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<LockInfo> acquireAsync(String key, LockMode mode, long expire, long acquireTimeout) {
+        if (mode == null || mode == LockMode.EXCLUSIVE) {
+            return acquireAsync(key, expire, acquireTimeout);
+        }
+
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        log.debug("Trying to acquire {} lock asynchronously with Redisson, key: {}, expire: {}ms, acquireTimeout: {}ms",
+                mode, key, expire, acquireTimeout);
+
+        // RReadWriteLock按持有者编号重入，每次获取使用新的编号
+        long ownerId = -OWNER_ID.incrementAndGet();
+        CompletableFuture<LockInfo> result = new CompletableFuture<>();
+        try {
+            // 写锁的获取和防护令牌在一次脚本调用中完成，读锁没有防护令牌，直接使用RReadWriteLock
+            CompletableFuture<LockInfo> acquired;
+            if (mode == LockMode.WRITE) {
+                acquired = acquireWrite(key, lockName(ownerId), expire, acquireTimeout);
+            } else {
+                acquired = readWriteLock(key, mode)
+                        .tryLockAsync(acquireTimeout, expire, TimeUnit.MILLISECONDS, ownerId).toCompletableFuture()
+                        .thenApply(success -> Boolean.TRUE.equals(success)
+                                ? new LockInfo().setKey(key).setMode(mode).setValue(lockName(ownerId)) : null);
+            }
+            acquired.whenComplete((lockInfo, e) -> {
+                if (e != null) {
+                    log.error("Error occurred while trying to acquire {} lock asynchronously with Redisson, key: {}",
+                            mode, key, e);
+                    result.complete(null);
+                } else if (lockInfo != null) {
+                    log.debug("Acquired {} lock asynchronously with Redisson successfully, key: {}", mode, key);
+                    result.complete(lockInfo);
+                } else {
+                    log.debug("Failed to acquire {} lock asynchronously with Redisson, key: {}", mode, key);
+                    result.complete(null);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error occurred while trying to acquire {} lock asynchronously with Redisson, key: {}",
+                    mode, key, e);
+            result.complete(null);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<ReleaseResult> releaseAsync(LockInfo lockInfo) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        if (lockInfo == null || lockInfo.getKey() == null || lockInfo.getValue() == null) {
+            return CompletableFuture.completedFuture(ReleaseResult.NOT_OWNER);
+        }
+
+        String key = lockInfo.getKey();
+        log.debug("Trying to release lock asynchronously with Redisson, key: {}", key);
+
+        CompletableFuture<ReleaseResult> result = new CompletableFuture<>();
+        try {
+            if (lockInfo.getPermits() != null) {
+                return releasePermit(lockInfo);
+            }
+            if (isReadWrite(lockInfo)) {
+                return releaseReadWrite(lockInfo);
+            }
+            LockScripts.HASH_RELEASE.<Long>evalAsync(redissonClient.getScript(StringCodec.INSTANCE),
+                    RScript.Mode.READ_WRITE, RScript.ReturnType.INTEGER,
+                    Arrays.<Object>asList(key, channelName(key)), lockInfo.getValue(), UNLOCK_MESSAGE)
+                    .whenComplete((value, e) -> {
+                        if (e != null) {
+                            log.error("Error occurred while trying to release lock asynchronously with Redisson, key: {}",
+                                    key, e);
+                            result.complete(ReleaseResult.FAILED);
+                            return;
+                        }
+                        ReleaseResult releaseResult = toReleaseResult(value);
+                        if (releaseResult.isReleased()) {
+                            log.debug("Released lock asynchronously with Redisson successfully, key: {}", key);
+                        } else {
+                            log.warn("Cannot release lock asynchronously with Redisson, key: {}, result: {}",
+                                    key, releaseResult);
+                        }
+                        result.complete(releaseResult);
+                    });
+        } catch (Exception e) {
+            log.error("Error occurred while trying to release lock asynchronously with Redisson, key: {}", key, e);
+            result.complete(ReleaseResult.FAILED);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isLockedAsync(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        if (key == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        redissonClient.getLock(key).isLockedAsync().whenComplete((locked, e) -> {
+            if (e != null) {
+                log.error("Error occurred while checking lock status asynchronously with Redisson, key: {}", key, e);
+                result.complete(false);
+            } else {
+                result.complete(locked);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public LockInfo acquireAll(List<String> keys, long expire, long acquireTimeout) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        log.debug("Trying to acquire multi lock with Redisson, keys: {}, expire: {}ms, acquireTimeout: {}ms",
+                keys, expire, acquireTimeout);
+
+        // 每次获取使用新的持有者标识，同一线程上的两次获取不会相互重入
+        String token = lockName(-OWNER_ID.incrementAndGet());
+
+        try {
+            List<List<String>> groups = slotGroups(keys);
+            List<Long> fencingTokens = groups.size() == 1
+                    ? acquireHash(keys, token, expire, acquireTimeout)
+                    : acquireGroups(keys, groups, token, expire, acquireTimeout);
+            if (fencingTokens == null) {
+                log.debug("Failed to acquire multi lock with Redisson, keys: {}", keys);
+                return null;
+            }
+
+            log.debug("Acquired multi lock with Redisson successfully, keys: {}", keys);
+            List<LockInfo> locks = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                locks.add(new LockInfo().setKey(keys.get(i)).setValue(token).setFencingToken(fencingTokens.get(i)));
+            }
+            return new LockInfo().setValue(token).setLocks(locks);
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while trying to acquire multi lock with Redisson, keys: {}", keys, e);
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to acquire multi lock with Redisson, keys: {}", keys, e);
+            return null;
+        }
+    }
+
+    @Override
+    public ReleaseResult releaseAll(LockInfo lockInfo) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        if (lockInfo == null || lockInfo.getLocks() == null || lockInfo.getValue() == null) {
+            return ReleaseResult.NOT_OWNER;
+        }
+
+        List<LockInfo> locks = lockInfo.getLocks();
+        List<String> keys = new ArrayList<>(locks.size());
+        for (LockInfo lock : locks) {
+            keys.add(lock.getKey());
+        }
+        log.debug("Trying to release multi lock with Redisson, key: {}", lockInfo.getKey());
+
+        try {
+            List<List<String>> groups = slotGroups(keys);
+            Long released;
+            if (groups.size() == 1) {
+                released = LockScripts.HASH_RELEASE_ALL.eval(redissonClient.getScript(StringCodec.INSTANCE),
+                        RScript.Mode.READ_WRITE, RScript.ReturnType.INTEGER,
+                        releaseKeys(keys), lockInfo.getValue(), UNLOCK_MESSAGE);
+            } else {
+                released = releaseGroups(groups, lockInfo.getValue());
+            }
+            if (released != null && released == locks.size()) {
+                log.debug("Released multi lock with Redisson successfully, key: {}", lockInfo.getKey());
+                return ReleaseResult.RELEASED;
+            }
+            log.warn("Cannot release multi lock with Redisson, key: {}, released: {}/{}",
+                    lockInfo.getKey(), released, locks.size());
+            return ReleaseResult.EXPIRED;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to release multi lock with Redisson, key: {}",
+                    lockInfo.getKey(), e);
+            return ReleaseResult.FAILED;
+        }
+    }
+
+    @Override
+    public List<Boolean> renew(List<LockInfo> locks, long expire) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        // 多key锁的每个key分别续期，全部成功才算续期成功；没有持有者标识的锁无法续期
+        long now = System.currentTimeMillis();
+        List<LockScript.Call> calls = new ArrayList<>(locks.size());
+        int[] counts = new int[locks.size()];
+        for (int i = 0; i < locks.size(); i++) {
+            LockInfo lockInfo = locks.get(i);
+            List<LockInfo> parts = lockInfo.getLocks() != null
+                    ? lockInfo.getLocks() : Collections.singletonList(lockInfo);
+            for (LockInfo part : parts) {
+                if (part.getValue() == null) {
+                    counts[i] = -1;
+                    break;
+                }
+            }
+            if (counts[i] < 0) {
+                continue;
+            }
+            for (LockInfo part : parts) {
+                calls.add(renewCall(part, expire, now));
+            }
+            counts[i] = parts.size();
+        }
+
+        try {
+            List<?> responses = calls.isEmpty() ? Collections.emptyList()
+                    : LockScript.evalBatch(redissonClient, calls);
+            List<Boolean> results = new ArrayList<>(locks.size());
+            int index = 0;
+            for (int count : counts) {
+                boolean renewed = count > 0;
+                for (int j = 0; j < count; j++) {
+                    renewed &= Long.valueOf(1).equals(responses.get(index++));
+                }
+                results.add(renewed);
+            }
+            return results;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to renew locks with Redisson, count: {}", locks.size(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public ReleaseSubscription subscribe(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        return releaseSignals.subscribe(key);
+    }
+
+    @Override
+    public long remainTimeToLive(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        return redissonClient.getLock(key).remainTimeToLive();
+    }
+
+    /**
+     * 在一次脚本调用中获取全部key的锁并生成防护令牌，被占用时订阅第一个被占用key的释放通知后重试
+     *
+     * @return 每个key的防护令牌；超时未获取到时返回null
+     */
+    private List<Long> acquireHash(List<String> keys, String token, long expire, long acquireTimeout)
+            throws InterruptedException {
+        List<Object> scriptKeys = new ArrayList<>(keys.size() * 2);
+        scriptKeys.addAll(keys);
+        for (String key : keys) {
+            scriptKeys.add(fencingKey(key));
+        }
+
+        long deadline = System.currentTimeMillis() + acquireTimeout;
+        ReleaseSubscription subscription = null;
+        String waitingKey = null;
+
+        try {
+            while (true) {
+                List<Long> result = LockScripts.HASH_ACQUIRE_ALL.eval(redissonClient.getScript(StringCodec.INSTANCE),
+                        RScript.Mode.READ_WRITE, RScript.ReturnType.MULTI, scriptKeys, expire, token);
+                if (result.get(0) == 0) {
+                    return result.subList(1, result.size());
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return null;
+                }
+
+                // 订阅第一个被占用key的释放通知，订阅后立即重试一次，避免错过订阅之前的释放
+                String blockingKey = keys.get(result.get(0).intValue() - 1);
+                if (!blockingKey.equals(waitingKey)) {
+                    if (subscription != null) {
+                        subscription.close();
+                    }
+                    subscription = releaseSignals.subscribe(blockingKey);
+                    waitingKey = blockingKey;
+                    continue;
+                }
+
+                // 锁过期不会发出通知，最多等待到锁过期
+                long ttl = result.get(1);
+                subscription.await(ttl > 0 ? Math.min(ttl, remaining) : remaining, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            if (subscription != null) {
+                subscription.close();
+            }
+        }
+    }
+
+    /**
+     * 按槽位顺序依次获取每组key的锁，任一组超时未获取到时释放已获取的组
+     *
+     * @return 与keys一一对应的防护令牌；超时未获取到时返回null
+     */
+    private List<Long> acquireGroups(List<String> keys, List<List<String>> groups, String token, long expire,
+                                     long acquireTimeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + acquireTimeout;
+        Map<String, Long> fencingTokens = new HashMap<>(keys.size() * 2);
+        List<List<String>> acquired = new ArrayList<>(groups.size());
+        boolean success = false;
+        try {
+            for (List<String> group : groups) {
+                List<Long> groupTokens = acquireHash(group, token, expire,
+                        Math.max(0, deadline - System.currentTimeMillis()));
+                if (groupTokens == null) {
+                    return null;
+                }
+                acquired.add(group);
+                for (int i = 0; i < group.size(); i++) {
+                    fencingTokens.put(group.get(i), groupTokens.get(i));
+                }
+            }
+            success = true;
+        } finally {
+            if (!success && !acquired.isEmpty()) {
+                try {
+                    releaseGroups(acquired, token);
+                } catch (Exception e) {
+                    log.warn("Failed to release partially acquired multi lock with Redisson, keys: {}", keys, e);
+                }
+            }
+        }
+
+        List<Long> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(fencingTokens.get(key));
+        }
+        return result;
+    }
+
+    /**
+     * 在一次批量请求中按组释放多key锁，每组一次脚本调用
+     *
+     * @return 释放的key数量
+     */
+    private long releaseGroups(List<List<String>> groups, String token) {
+        List<LockScript.Call> calls = new ArrayList<>(groups.size());
+        for (List<String> group : groups) {
+            calls.add(LockScripts.HASH_RELEASE_ALL.call(releaseKeys(group), token, UNLOCK_MESSAGE));
+        }
+        long released = 0;
+        for (Object response : LockScript.evalBatch(redissonClient, calls)) {
+            if (response instanceof Number) {
+                released += ((Number) response).longValue();
+            }
+        }
+        return released;
+    }
+
+    /**
+     * 释放多key锁的脚本key，依次为锁的key和对应的解锁消息频道
+     */
+    private static List<Object> releaseKeys(List<String> keys) {
+        List<Object> scriptKeys = new ArrayList<>(keys.size() * 2);
+        scriptKeys.addAll(keys);
+        for (String key : keys) {
+            scriptKeys.add(channelName(key));
+        }
+        return scriptKeys;
+    }
+
+    /**
+     * 按槽位对key分组，组按槽位排序，使所有调用者以相同的顺序获取；非集群模式下不分组
+     */
+    private List<List<String>> slotGroups(List<String> keys) {
+        if (keys.size() <= 1 || !redissonClient.getConfig().isClusterConfig()) {
+            return Collections.singletonList(keys);
+        }
+        TreeMap<Integer, List<String>> groups = new TreeMap<>();
+        for (String key : keys) {
+            groups.computeIfAbsent(HashTags.slotOf(key), slot -> new ArrayList<>()).add(key);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * 获取写锁并生成防护令牌，在一次脚本调用中完成，被占用时等待读写锁的解锁消息后重试
+     *
+     * @param token 持有者标识，写锁在哈希结构中的字段为持有者标识加:write后缀
+     * @return 写锁信息；超时未获取到时为null
+     */
+    private CompletableFuture<LockInfo> acquireWrite(String key, String token, long expire, long acquireTimeout) {
+        List<Object> scriptKeys = Arrays.<Object>asList(key, fencingKey(key));
+        String field = token + ":write";
+        return acquireScriptAsync(key, readWriteSignals, acquireTimeout,
+                () -> LockScripts.HASH_WRITE_ACQUIRE.evalAsync(redissonClient.getScript(StringCodec.INSTANCE),
+                        RScript.Mode.READ_WRITE, RScript.ReturnType.MULTI, scriptKeys, expire, field))
+                .thenApply(fencingTokens -> fencingTokens != null
+                        ? new LockInfo().setKey(key).setMode(LockMode.WRITE).setValue(token)
+                        .setFencingToken(fencingTokens.get(0))
+                        : null);
+    }
+
+    /**
+     * 异步执行获取脚本直到获取成功或超时，被占用时订阅key的释放通知后重试，等待期间不占用线程
+     *
+     * @param signals 等待使用的释放信号
+     * @param attempt 执行一次获取脚本，返回值第一个元素为0表示获取成功，否则第二个元素为锁的剩余存活时间
+     * @return 获取成功时为返回值第一个元素之后的防护令牌；超时未获取到时为null
+     */
+    private CompletableFuture<List<Long>> acquireScriptAsync(String key, ReleaseSignals signals, long acquireTimeout,
+                                                             Supplier<CompletableFuture<List<Long>>> attempt) {
+        CompletableFuture<List<Long>> result = new CompletableFuture<>();
+        retryScriptAsync(key, signals, System.currentTimeMillis() + acquireTimeout, attempt, null, result);
+        return result;
+    }
+
+    private void retryScriptAsync(String key, ReleaseSignals signals, long deadline,
+                                  Supplier<CompletableFuture<List<Long>>> attempt, ReleaseSubscription subscription,
+                                  CompletableFuture<List<Long>> result) {
+        CompletableFuture<List<Long>> response;
+        try {
+            response = attempt.get();
+        } catch (RuntimeException e) {
+            completeScript(subscription, result, null, e);
+            return;
+        }
+
+        response.whenComplete((value, e) -> {
+            if (e != null) {
+                completeScript(subscription, result, null, e);
+                return;
+            }
+            if (value.get(0) == 0) {
+                completeScript(subscription, result, value.subList(1, value.size()), null);
+                return;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                completeScript(subscription, result, null, null);
+                return;
+            }
+
+            if (subscription == null) {
+                // 订阅后立即重试一次，避免错过订阅之前的释放
+                signals.subscribeAsync(key).whenComplete((subscribed, subscribeError) -> {
+                    if (subscribeError != null) {
+                        completeScript(null, result, null, subscribeError);
+                    } else {
+                        retryScriptAsync(key, signals, deadline, attempt, subscribed, result);
+                    }
+                });
+                return;
+            }
+
+            // 锁过期不会发出通知，最多等待到锁过期
+            long ttl = value.get(1);
+            subscription.awaitAsync(ttl > 0 ? Math.min(ttl, remaining) : remaining, TimeUnit.MILLISECONDS)
+                    .whenComplete((signaled, awaitError) -> {
+                        if (awaitError != null) {
+                            completeScript(subscription, result, null, awaitError);
+                        } else {
+                            retryScriptAsync(key, signals, deadline, attempt, subscription, result);
+                        }
+                    });
+        });
+    }
+
+    private static void completeScript(ReleaseSubscription subscription, CompletableFuture<List<Long>> result,
+                                       List<Long> value, Throwable e) {
+        if (subscription != null) {
+            subscription.close();
+        }
+        if (e != null) {
+            result.completeExceptionally(e);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    /**
+     * 按持有者标识释放锁，校验和删除在一次脚本调用中完成
+     */
+    private ReleaseResult releaseByToken(String key, String token) {
+        if (token == null) {
+            return ReleaseResult.NOT_OWNER;
+        }
+
+        Long result = LockScripts.HASH_RELEASE.eval(redissonClient.getScript(StringCodec.INSTANCE),
+                RScript.Mode.READ_WRITE, RScript.ReturnType.INTEGER,
+                Arrays.<Object>asList(key, channelName(key)), token, UNLOCK_MESSAGE);
+        return toReleaseResult(result);
+    }
+
+    /**
+     * 按持有者标识释放读锁或写锁
+     * <p>
+     * RReadWriteLock的解锁脚本在key不存在时同样返回成功，因此先检查key是否存在；
+     * key存在但不属于该持有者时解锁脚本抛出IllegalMonitorStateException。
+     */
+    private CompletableFuture<ReleaseResult> releaseReadWrite(LockInfo lockInfo) {
+        String key = lockInfo.getKey();
+        String token = lockInfo.getValue();
+        String prefix = redissonClient.getId() + ":";
+        if (token == null || !token.startsWith(prefix)) {
+            return CompletableFuture.completedFuture(ReleaseResult.NOT_OWNER);
+        }
+        long ownerId = Long.parseLong(token.substring(prefix.length()));
+
+        CompletableFuture<ReleaseResult> result = new CompletableFuture<>();
+        redissonClient.getBucket(key).isExistsAsync()
+                .thenCompose(exists -> {
+                    if (!Boolean.TRUE.equals(exists)) {
+                        return CompletableFuture.completedFuture(ReleaseResult.EXPIRED);
+                    }
+                    return readWriteLock(key, lockInfo.getMode()).unlockAsync(ownerId)
+                            .thenApply(v -> ReleaseResult.RELEASED);
+                })
+                .whenComplete((releaseResult, e) -> {
+                    if (e == null) {
+                        result.complete(releaseResult);
+                        return;
+                    }
+                    Throwable cause = e instanceof CompletionException || e instanceof ExecutionException
+                            ? e.getCause() : e;
+                    if (cause instanceof IllegalMonitorStateException) {
+                        result.complete(ReleaseResult.NOT_OWNER);
+                    } else {
+                        log.error("Error occurred while trying to release {} lock with Redisson, key: {}",
+                                lockInfo.getMode(), key, cause);
+                        result.complete(ReleaseResult.FAILED);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * 按许可标识释放许可，许可已过期或不存在时释放失败
+     */
+    private CompletableFuture<ReleaseResult> releasePermit(LockInfo lockInfo) {
+        String key = lockInfo.getKey();
+        if (lockInfo.getValue() == null) {
+            return CompletableFuture.completedFuture(ReleaseResult.NOT_OWNER);
+        }
+
+        CompletableFuture<ReleaseResult> result = new CompletableFuture<>();
+        redissonClient.getPermitExpirableSemaphore(key).tryReleaseAsync(lockInfo.getValue())
+                .whenComplete((released, e) -> {
+                    if (e != null) {
+                        log.error("Error occurred while trying to release permit with Redisson, key: {}", key, e);
+                        result.complete(ReleaseResult.FAILED);
+                    } else {
+                        result.complete(Boolean.TRUE.equals(released) ? ReleaseResult.RELEASED : ReleaseResult.EXPIRED);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * 续期脚本调用，按锁的类型选择脚本和持有者字段，与Redisson的数据结构保持一致
+     */
+    private static LockScript.Call renewCall(LockInfo lockInfo, long expire, long now) {
+        String key = lockInfo.getKey();
+        String token = lockInfo.getValue();
+        if (lockInfo.getPermits() != null) {
+            return LockScripts.PERMIT_RENEW.call(Collections.<Object>singletonList(suffixName(key, "timeout")),
+                    token, now + expire, now);
+        }
+        if (lockInfo.getMode() == LockMode.WRITE) {
+            return LockScripts.HASH_RENEW.call(Collections.<Object>singletonList(key), token + ":write", expire, "");
+        }
+        if (lockInfo.getMode() == LockMode.READ) {
+            return LockScripts.HASH_RENEW.call(Collections.<Object>singletonList(key), token, expire,
+                    suffixName(key, token) + ":rwlock_timeout");
+        }
+        return LockScripts.HASH_RENEW.call(Collections.<Object>singletonList(key), token, expire, "");
+    }
+
+    /**
+     * Redisson创建的关联key(信号量和读写锁的超时key)的命名规则，必须与Redisson完全一致才能找到这些key
+     */
+    private static String suffixName(String name, String suffix) {
+        if (name.contains("{")) {
+            return name + ":" + suffix;
+        }
+        return "{" + name + "}:" + suffix;
+    }
+
+    /**
+     * 防护令牌key，与锁的key位于同一槽位
+     */
+    private static String fencingKey(String key) {
+        return HashTags.colocate(key, "fencing");
+    }
+
+    /**
+     * 读写锁中指定模式的锁对象
+     */
+    private RLock readWriteLock(String key, LockMode mode) {
+        RReadWriteLock readWriteLock = redissonClient.getReadWriteLock(key);
+        return mode == LockMode.READ ? readWriteLock.readLock() : readWriteLock.writeLock();
+    }
+
+    /**
+     * 是否为读锁或写锁
+     */
+    private static boolean isReadWrite(LockInfo lockInfo) {
+        return lockInfo.getMode() == LockMode.READ || lockInfo.getMode() == LockMode.WRITE;
+    }
+
+    /**
+     * 将释放脚本的返回值转换为释放结果
+     */
+    private static ReleaseResult toReleaseResult(Long result) {
+        if (result == null || result < 0) {
+            return ReleaseResult.EXPIRED;
+        }
+        return result == 0 ? ReleaseResult.NOT_OWNER : ReleaseResult.RELEASED;
+    }
+
+    /**
+     * 按当前线程释放锁，需要多次网络往返
+     */
+    private ReleaseResult releaseByThread(String key) {
+        RLock lock = redissonClient.getLock(key);
+        if (!lock.isLocked()) {
+            return ReleaseResult.EXPIRED;
+        }
+        if (!lock.isHeldByCurrentThread()) {
+            return ReleaseResult.NOT_OWNER;
+        }
+        lock.unlock();
+        return ReleaseResult.RELEASED;
+    }
+
+    /**
+     * 持有者标识，与RLock哈希结构中的字段一致
+     */
+    private String lockName(long threadId) {
+        return redissonClient.getId() + ":" + threadId;
+    }
+
+    /**
+     * 是否为不与线程绑定的持有者标识
+     */
+    private boolean isDetachedOwner(String token) {
+        return token != null && token.startsWith(redissonClient.getId() + ":-");
+    }
+
+    /**
+     * 解锁消息频道，与RLock的命名规则一致
+     */
+    private static String channelName(String key) {
+        return prefixName(CHANNEL_PREFIX, key);
+    }
+
+    /**
+     * Redisson解锁消息频道的命名规则，必须与Redisson完全一致，RLock和RReadWriteLock的等待者才能收到释放消息
+     */
+    private static String prefixName(String prefix, String name) {
+        if (name.contains("{")) {
+            return prefix + ":" + name;
+        }
+        return prefix + ":{" + name + "}";
+    }
+
+    /**
+     * 订阅Redisson解锁消息频道的释放信号，异步注册监听，不阻塞Redisson的回调线程
+     */
+    private final class TopicSignals extends ReleaseSignals {
+
+        private final String prefix;
+
+        private TopicSignals(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected CompletableFuture<Object> listenAsync(String key) {
+            return redissonClient.getTopic(prefixName(prefix, key), LongCodec.INSTANCE)
+                    .addListenerAsync(Long.class, (channel, message) -> signal(key))
+                    .<Object>thenApply(listenerId -> listenerId)
+                    .toCompletableFuture();
+        }
+
+        @Override
+        protected void unlisten(String key, Object handle) {
+            redissonClient.getTopic(prefixName(prefix, key), LongCodec.INSTANCE).removeListenerAsync((Integer) handle);
+        }
+    }
+
+    /**
+     * 释放锁的方式枚举
+     */
+    public enum ReleaseMode {
+        /**
+         * 按LockInfo中的持有者标识释放，校验和删除在一次脚本调用中完成，可在其他线程释放
+         */
+        TOKEN,
+        /**
+         * 按当前线程释放，依次调用isLocked、isHeldByCurrentThread和unlock
+         */
+        THREAD
+    }
+}
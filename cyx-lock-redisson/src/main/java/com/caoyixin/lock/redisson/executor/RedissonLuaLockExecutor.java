@@ -0,0 +1,266 @@
+package com.caoyixin.lock.redisson.executor;
+
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockReleaseNotifier;
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.core.ReleaseSubscription;
+import com.caoyixin.lock.redisson.script.LockScript;
+import com.caoyixin.lock.redisson.script.LockScripts;
+import com.caoyixin.lock.support.HashTags;
+import com.caoyixin.lock.support.ReleaseSignals;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Lua脚本的锁执行器实现
+ * <p>
+ * 锁以字符串形式存储，值为持有者标识。获取锁和释放锁各只需一条EVALSHA命令，
+ * 不使用RLock的哈希结构。获取锁时在同一次脚本调用中生成防护令牌。
+ * 释放锁时发布解锁消息，等待中的获取者按key共享一个订阅并被立即唤醒。
+ * 执行器本身不可重入，通过{@link com.caoyixin.lock.core.LockTemplate}获取时由模板记录重入。
+ * 与{@link RedissonLockExecutor}的数据结构不同，同一个key不能混用两种执行器。
+ *
+ * @author caoyixin
+ */
+@Slf4j
+public class RedissonLuaLockExecutor implements RenewableLockExecutor, LockReleaseNotifier {
+
+    /**
+     * 解锁消息频道前缀
+     */
+    private static final String CHANNEL_PREFIX = "cyx_lock__channel";
+
+    /**
+     * 解锁消息
+     */
+    private static final long UNLOCK_MESSAGE = 0L;
+
+    @Setter
+    private RedissonClient redissonClient;
+
+    /**
+     * 锁释放信号，按key订阅解锁消息频道
+     */
+    private final ReleaseSignals releaseSignals = new ReleaseSignals() {
+        @Override
+        protected Object listen(String key) {
+            return redissonClient.getTopic(channelName(key), LongCodec.INSTANCE)
+                    .addListener(Long.class, (channel, message) -> signal(key));
+        }
+
+        @Override
+        protected void unlisten(String key, Object handle) {
+            redissonClient.getTopic(channelName(key), LongCodec.INSTANCE).removeListener((Integer) handle);
+        }
+    };
+
+    /**
+     * 预加载脚本到Redis，加载失败时在首次使用时自动重新加载
+     */
+    public void loadScripts() {
+        try {
+            RScript script = script();
+            LockScripts.STRING_ACQUIRE.load(script);
+            LockScripts.STRING_RELEASE.load(script);
+            LockScripts.STRING_RENEW.load(script);
+        } catch (Exception e) {
+            log.warn("Failed to preload lock scripts, they will be loaded on first use", e);
+        }
+    }
+
+    @Override
+    public LockInfo acquire(String key, long expire, long acquireTimeout) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Lock key must not be null");
+        }
+        if (expire <= 0) {
+            throw new IllegalArgumentException("expire must be positive: " + expire);
+        }
+        if (acquireTimeout < 0) {
+            throw new IllegalArgumentException("acquireTimeout must not be negative: " + acquireTimeout);
+        }
+
+        log.debug("Trying to acquire lock with Lua script, key: {}, expire: {}ms, acquireTimeout: {}ms",
+                key, expire, acquireTimeout);
+
+        String value = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + acquireTimeout;
+        ReleaseSubscription subscription = null;
+
+        try {
+            while (true) {
+                List<Long> result = eval(LockScripts.STRING_ACQUIRE, RScript.ReturnType.MULTI,
+                        Arrays.<Object>asList(key, fencingKey(key)), value, expire);
+                if (result.get(0) == 0) {
+                    log.debug("Acquired lock with Lua script successfully, key: {}", key);
+                    return new LockInfo().setKey(key).setValue(value).setFencingToken(result.get(1));
+                }
+                long ttl = result.get(1);
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.debug("Failed to acquire lock with Lua script, key: {}", key);
+                    return null;
+                }
+
+                // 首次获取失败后订阅释放通知，订阅后立即重试一次，避免错过订阅之前的释放
+                if (subscription == null) {
+                    subscription = releaseSignals.subscribe(key);
+                    continue;
+                }
+
+                // 等待释放通知，锁过期不会发出通知，最多等待到锁过期
+                subscription.await(ttl > 0 ? Math.min(ttl, remaining) : remaining, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while trying to acquire lock with Lua script, key: {}", key, e);
+            // 恢复中断状态
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to acquire lock with Lua script, key: {}", key, e);
+            return null;
+        } finally {
+            if (subscription != null) {
+                subscription.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean release(LockInfo lockInfo) {
+        return releaseWithResult(lockInfo).isReleased();
+    }
+
+    @Override
+    public ReleaseResult releaseWithResult(LockInfo lockInfo) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        if (lockInfo == null || lockInfo.getKey() == null || lockInfo.getValue() == null) {
+            return ReleaseResult.NOT_OWNER;
+        }
+
+        String key = lockInfo.getKey();
+        log.debug("Trying to release lock with Lua script, key: {}", key);
+
+        try {
+            Long result = eval(LockScripts.STRING_RELEASE, RScript.ReturnType.INTEGER,
+                    Arrays.<Object>asList(key, channelName(key)), lockInfo.getValue(), UNLOCK_MESSAGE);
+            if (result != null && result == 1) {
+                log.debug("Released lock with Lua script successfully, key: {}", key);
+                return ReleaseResult.RELEASED;
+            }
+            ReleaseResult releaseResult = result != null && result == 0 ? ReleaseResult.NOT_OWNER : ReleaseResult.EXPIRED;
+            log.warn("Cannot release lock with Lua script, key: {}, result: {}", key, releaseResult);
+            return releaseResult;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to release lock with Lua script, key: {}", key, e);
+            return ReleaseResult.FAILED;
+        }
+    }
+
+    @Override
+    public boolean isLocked(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        if (key == null) {
+            return false;
+        }
+
+        try {
+            return redissonClient.getBucket(key, StringCodec.INSTANCE).isExists();
+        } catch (Exception e) {
+            log.error("Error occurred while checking lock status with Lua script, key: {}", key, e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<Boolean> renew(List<LockInfo> locks, long expire) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+
+        List<LockScript.Call> calls = new ArrayList<>(locks.size());
+        for (LockInfo lockInfo : locks) {
+            calls.add(LockScripts.STRING_RENEW.call(Collections.<Object>singletonList(lockInfo.getKey()),
+                    lockInfo.getValue(), expire));
+        }
+
+        try {
+            List<?> responses = LockScript.evalBatch(redissonClient, calls);
+            List<Boolean> results = new ArrayList<>(responses.size());
+            for (Object response : responses) {
+                results.add(Long.valueOf(1).equals(response));
+            }
+            return results;
+        } catch (Exception e) {
+            log.error("Error occurred while trying to renew locks with Lua script, count: {}", locks.size(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public ReleaseSubscription subscribe(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        return releaseSignals.subscribe(key);
+    }
+
+    @Override
+    public long remainTimeToLive(String key) {
+        // 参数校验
+        if (redissonClient == null) {
+            throw new IllegalStateException("RedissonClient is not initialized");
+        }
+        return redissonClient.getBucket(key, StringCodec.INSTANCE).remainTimeToLive();
+    }
+
+    private <R> R eval(LockScript lockScript, RScript.ReturnType returnType, List<Object> keys, Object... args) {
+        return lockScript.eval(script(), RScript.Mode.READ_WRITE, returnType, keys, args);
+    }
+
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+
+    /**
+     * 防护令牌key，与锁的key位于同一槽位
+     */
+    private static String fencingKey(String key) {
+        return HashTags.colocate(key, "fencing");
+    }
+
+    /**
+     * 解锁消息频道，命名规则与RLock一致
+     */
+    private static String channelName(String key) {
+        if (key.contains("{")) {
+            return CHANNEL_PREFIX + ":" + key;
+        }
+        return CHANNEL_PREFIX + ":{" + key + "}";
+    }
+}
@@ -0,0 +1,224 @@
+package com.caoyixin.lock.redisson.script;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Lua脚本定义，通过EVALSHA执行
+ * <p>
+ * 脚本的SHA1摘要在本地计算，正常情况下每次执行只发送一条EVALSHA命令；
+ * 服务端未缓存脚本时（如重启或故障转移后）自动加载并重试一次。
+ *
+ * @author caoyixin
+ */
+public final class LockScript {
+
+    /**
+     * 脚本名称，用于日志
+     */
+    private final String name;
+
+    /**
+     * 脚本内容
+     */
+    private final String source;
+
+    /**
+     * 脚本的SHA1摘要
+     */
+    private final String sha;
+
+    public LockScript(String name, String source) {
+        this.name = name;
+        this.source = source;
+        this.sha = sha1Hex(source);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    /**
+     * 加载脚本到服务端缓存
+     *
+     * @param script Redisson脚本对象
+     */
+    public void load(RScript script) {
+        script.scriptLoad(source);
+    }
+
+    /**
+     * 执行脚本
+     *
+     * @param script     Redisson脚本对象
+     * @param mode       读写模式
+     * @param returnType 返回值类型
+     * @param keys       脚本使用的key
+     * @param args       脚本参数
+     * @param <R>        返回值类型
+     * @return 脚本执行结果
+     */
+    public <R> R eval(RScript script, RScript.Mode mode, RScript.ReturnType returnType,
+            List<Object> keys, Object... args) {
+        try {
+            return script.evalSha(mode, sha, returnType, keys, args);
+        } catch (RedisException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            load(script);
+            return script.evalSha(mode, sha, returnType, keys, args);
+        }
+    }
+
+    /**
+     * 异步执行脚本
+     *
+     * @param script     Redisson脚本对象
+     * @param mode       读写模式
+     * @param returnType 返回值类型
+     * @param keys       脚本使用的key
+     * @param args       脚本参数
+     * @param <R>        返回值类型
+     * @return 脚本执行结果
+     */
+    public <R> CompletableFuture<R> evalAsync(RScript script, RScript.Mode mode, RScript.ReturnType returnType,
+            List<Object> keys, Object... args) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        script.<R>evalShaAsync(mode, sha, returnType, keys, args).whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+            } else if (isNoScript(unwrap(e))) {
+                script.scriptLoadAsync(source)
+                        .thenCompose(loaded -> script.<R>evalShaAsync(mode, sha, returnType, keys, args))
+                        .whenComplete((retried, retryError) -> {
+                            if (retryError == null) {
+                                result.complete(retried);
+                            } else {
+                                result.completeExceptionally(unwrap(retryError));
+                            }
+                        });
+            } else {
+                result.completeExceptionally(unwrap(e));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 在一次批量请求中执行多个返回整数的脚本调用，集群模式下按节点分组发送
+     * <p>
+     * 服务端未缓存脚本时加载涉及的脚本后重试一次。
+     *
+     * @param client Redisson客户端
+     * @param calls  脚本调用
+     * @return 与calls一一对应的执行结果
+     */
+    public static List<?> evalBatch(RedissonClient client, List<Call> calls) {
+        try {
+            return executeBatch(client, calls);
+        } catch (RedisException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            Set<LockScript> scripts = new LinkedHashSet<>();
+            for (Call call : calls) {
+                scripts.add(call.script);
+            }
+            RScript script = client.getScript(StringCodec.INSTANCE);
+            for (LockScript lockScript : scripts) {
+                lockScript.load(script);
+            }
+            return executeBatch(client, calls);
+        }
+    }
+
+    private static List<?> executeBatch(RedissonClient client, List<Call> calls) {
+        RBatch batch = client.createBatch();
+        RScriptAsync script = batch.getScript(StringCodec.INSTANCE);
+        for (Call call : calls) {
+            script.evalShaAsync(RScript.Mode.READ_WRITE, call.script.sha, RScript.ReturnType.INTEGER,
+                    call.keys, call.args);
+        }
+        return batch.execute().getResponses();
+    }
+
+    /**
+     * 创建批量请求中的一次脚本调用
+     *
+     * @param keys 脚本使用的key
+     * @param args 脚本参数
+     * @return 脚本调用
+     */
+    public Call call(List<Object> keys, Object... args) {
+        return new Call(this, keys, args);
+    }
+
+    /**
+     * 判断是否为脚本未缓存异常
+     */
+    public static boolean isNoScript(Throwable e) {
+        return e instanceof RedisException && e.getMessage() != null && e.getMessage().contains("NOSCRIPT");
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static String sha1Hex(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 algorithm not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + sha + ")";
+    }
+
+    /**
+     * 批量请求中的一次脚本调用
+     */
+    public static final class Call {
+
+        private final LockScript script;
+
+        private final List<Object> keys;
+
+        private final Object[] args;
+
+        private Call(LockScript script, List<Object> keys, Object[] args) {
+            this.script = script;
+            this.keys = keys;
+            this.args = args;
+        }
+    }
+}
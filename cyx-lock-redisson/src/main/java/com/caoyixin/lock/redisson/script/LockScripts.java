@@ -0,0 +1,213 @@
+package com.caoyixin.lock.redisson.script;
+
+/**
+ * 锁操作使用的Lua脚本
+ *
+ * @author caoyixin
+ */
+public final class LockScripts {
+
+    private LockScripts() {
+    }
+
+    /**
+     * 生成防护令牌的Lua函数：取服务端微秒时间戳与上一个令牌加1中的较大值，令牌key与锁同时过期
+     * <p>
+     * 令牌以时间为基准，令牌key过期后生成的令牌仍大于之前的令牌，不需要为每个key永久保存计数器。
+     * 使用该函数的脚本需要先调用redis.replicate_commands()，才能在读取服务端时间后执行写命令。
+     */
+    private static final String FENCE_FUNCTION = "local function fence(key, ttl) "
+            + "local time = redis.call('time'); "
+            + "local token = tonumber(time[1]) * 1000000 + tonumber(time[2]); "
+            + "local last = tonumber(redis.call('get', key)); "
+            + "if last ~= nil and last >= token then "
+            + "token = last + 1; "
+            + "end; "
+            + "redis.call('set', key, string.format('%.0f', token), 'PX', ttl); "
+            + "return token; "
+            + "end; ";
+
+    /**
+     * 获取字符串锁：SET NX PX，获取成功时生成防护令牌
+     * <p>
+     * KEYS[1]: 锁的key；KEYS[2]: 防护令牌key；ARGV[1]: 持有者标识；ARGV[2]: 过期时间(毫秒)
+     * <p>
+     * 获取成功返回{0, 防护令牌}，否则返回{1, 锁的剩余存活时间(毫秒)}
+     */
+    public static final LockScript STRING_ACQUIRE = new LockScript("string-acquire",
+            "redis.replicate_commands(); "
+                    + FENCE_FUNCTION
+                    + "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then "
+                    + "return {0, fence(KEYS[2], ARGV[2])}; "
+                    + "end; "
+                    + "return {1, redis.call('pttl', KEYS[1])};");
+
+    /**
+     * 释放字符串锁：校验持有者后删除并发布解锁消息
+     * <p>
+     * KEYS[1]: 锁的key；KEYS[2]: 解锁消息频道；ARGV[1]: 持有者标识；ARGV[2]: 解锁消息
+     * <p>
+     * 返回1表示释放成功，0表示锁被其他持有者持有，-1表示锁不存在或已过期
+     */
+    public static final LockScript STRING_RELEASE = new LockScript("string-release",
+            "local value = redis.call('get', KEYS[1]); "
+                    + "if value == false then "
+                    + "return -1; "
+                    + "end; "
+                    + "if value ~= ARGV[1] then "
+                    + "return 0; "
+                    + "end; "
+                    + "redis.call('del', KEYS[1]); "
+                    + "redis.call('publish', KEYS[2], ARGV[2]); "
+                    + "return 1;");
+
+    /**
+     * 释放Redisson哈希结构的锁：按持有者标识校验、减少持有计数，计数归零时删除并发布解锁消息
+     * <p>
+     * 数据结构与RLock一致，哈希字段为持有者标识，值为重入计数。
+     * <p>
+     * KEYS[1]: 锁的key；KEYS[2]: 解锁消息频道；ARGV[1]: 持有者标识；ARGV[2]: 解锁消息
+     * <p>
+     * 返回1表示释放成功，2表示减少了一次重入计数、锁仍被持有，0表示锁被其他持有者持有，-1表示锁不存在或已过期
+     */
+    public static final LockScript HASH_RELEASE = new LockScript("hash-release",
+            "if redis.call('exists', KEYS[1]) == 0 then "
+                    + "return -1; "
+                    + "end; "
+                    + "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then "
+                    + "return 0; "
+                    + "end; "
+                    + "if redis.call('hincrby', KEYS[1], ARGV[1], -1) > 0 then "
+                    + "return 2; "
+                    + "end; "
+                    + "redis.call('del', KEYS[1]); "
+                    + "redis.call('publish', KEYS[2], ARGV[2]); "
+                    + "return 1;");
+
+    /**
+     * 获取Redisson哈希结构的锁：任一key被其他持有者持有时不做任何修改，获取成功时为每个key生成防护令牌
+     * <p>
+     * 数据结构与RLock一致，同一持有者已持有的key增加重入计数。集群模式下所有key需要位于同一槽位。
+     * <p>
+     * KEYS: 前一半为锁的key，后一半为对应的防护令牌key；ARGV[1]: 过期时间（毫秒）；ARGV[2]: 持有者标识
+     * <p>
+     * 获取成功返回0和每个key的防护令牌，否则返回第一个被占用key的序号（从1开始）和剩余存活时间
+     */
+    public static final LockScript HASH_ACQUIRE_ALL = new LockScript("hash-acquire-all",
+            "redis.replicate_commands(); "
+                    + FENCE_FUNCTION
+                    + "local n = #KEYS / 2; "
+                    + "for i = 1, n do "
+                    + "if redis.call('exists', KEYS[i]) == 1 and redis.call('hexists', KEYS[i], ARGV[2]) == 0 then "
+                    + "return {i, redis.call('pttl', KEYS[i])}; "
+                    + "end; "
+                    + "end; "
+                    + "local result = {0}; "
+                    + "for i = 1, n do "
+                    + "redis.call('hincrby', KEYS[i], ARGV[2], 1); "
+                    + "redis.call('pexpire', KEYS[i], ARGV[1]); "
+                    + "result[i + 1] = fence(KEYS[n + i], ARGV[1]); "
+                    + "end; "
+                    + "return result;");
+
+    /**
+     * 获取Redisson读写锁中的写锁，获取成功时生成防护令牌
+     * <p>
+     * 数据结构与RReadWriteLock的写锁一致：哈希的mode字段为write，持有者字段为持有者标识加:write后缀，值为重入计数，
+     * 重入时与Redisson相同在剩余存活时间上累加过期时间。
+     * <p>
+     * KEYS[1]: 锁的key；KEYS[2]: 防护令牌key；ARGV[1]: 过期时间(毫秒)；ARGV[2]: 持有者字段
+     * <p>
+     * 获取成功返回{0, 防护令牌}，否则返回{1, 锁的剩余存活时间(毫秒)}
+     */
+    public static final LockScript HASH_WRITE_ACQUIRE = new LockScript("hash-write-acquire",
+            "redis.replicate_commands(); "
+                    + FENCE_FUNCTION
+                    + "local mode = redis.call('hget', KEYS[1], 'mode'); "
+                    + "if mode == false then "
+                    + "redis.call('hset', KEYS[1], 'mode', 'write'); "
+                    + "redis.call('hset', KEYS[1], ARGV[2], 1); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[1]); "
+                    + "return {0, fence(KEYS[2], ARGV[1])}; "
+                    + "end; "
+                    + "if mode == 'write' and redis.call('hexists', KEYS[1], ARGV[2]) == 1 then "
+                    + "redis.call('hincrby', KEYS[1], ARGV[2], 1); "
+                    + "redis.call('pexpire', KEYS[1], redis.call('pttl', KEYS[1]) + ARGV[1]); "
+                    + "return {0, fence(KEYS[2], ARGV[1])}; "
+                    + "end; "
+                    + "return {1, redis.call('pttl', KEYS[1])};");
+
+    /**
+     * 同时释放多个Redisson哈希结构的锁：逐个减少持有计数，计数归零时删除并发布解锁消息
+     * <p>
+     * KEYS: 前一半为锁的key，后一半为对应的解锁消息频道；ARGV[1]: 持有者标识；ARGV[2]: 解锁消息
+     * <p>
+     * 返回由该持有者持有的key数量
+     */
+    public static final LockScript HASH_RELEASE_ALL = new LockScript("hash-release-all",
+            "local n = #KEYS / 2; "
+                    + "local released = 0; "
+                    + "for i = 1, n do "
+                    + "if redis.call('hexists', KEYS[i], ARGV[1]) == 1 then "
+                    + "released = released + 1; "
+                    + "if redis.call('hincrby', KEYS[i], ARGV[1], -1) <= 0 then "
+                    + "redis.call('del', KEYS[i]); "
+                    + "redis.call('publish', KEYS[n + i], ARGV[2]); "
+                    + "end; "
+                    + "end; "
+                    + "end; "
+                    + "return released;");
+
+    /**
+     * 续期字符串锁：持有者标识一致时刷新过期时间
+     * <p>
+     * KEYS[1]: 锁的key；ARGV[1]: 持有者标识；ARGV[2]: 过期时间(毫秒)
+     * <p>
+     * 返回1表示续期成功，0表示锁已不属于该持有者
+     */
+    public static final LockScript STRING_RENEW = new LockScript("string-renew",
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                    + "return 1; "
+                    + "end; "
+                    + "return 0;");
+
+    /**
+     * 续期Redisson哈希结构的锁，包括读写锁：持有者字段存在时延长过期时间，不缩短其他持有者的过期时间
+     * <p>
+     * KEYS[1]: 锁的key；ARGV[1]: 持有者字段；ARGV[2]: 过期时间(毫秒)；
+     * ARGV[3]: 读锁每次重入的超时key前缀，其他锁为空字符串
+     * <p>
+     * 返回1表示续期成功，0表示锁已不属于该持有者
+     */
+    public static final LockScript HASH_RENEW = new LockScript("hash-renew",
+            "local counter = redis.call('hget', KEYS[1], ARGV[1]); "
+                    + "if counter == false then "
+                    + "return 0; "
+                    + "end; "
+                    + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                    + "end; "
+                    + "if ARGV[3] ~= '' then "
+                    + "for i = 1, tonumber(counter) do "
+                    + "redis.call('pexpire', ARGV[3] .. ':' .. i, ARGV[2]); "
+                    + "end; "
+                    + "end; "
+                    + "return 1;");
+
+    /**
+     * 续期Redisson可过期信号量的许可：许可未过期时更新过期时间戳
+     * <p>
+     * KEYS[1]: 许可超时有序集合；ARGV[1]: 许可标识(十六进制，Redisson以原始字节作为成员)；ARGV[2]: 新的过期时间戳(毫秒)；ARGV[3]: 当前时间戳(毫秒)
+     * <p>
+     * 返回1表示续期成功，0表示许可已过期或不存在
+     */
+    public static final LockScript PERMIT_RENEW = new LockScript("permit-renew",
+            "local id = string.gsub(ARGV[1], '..', function(c) return string.char(tonumber(c, 16)); end); "
+                    + "local expireAt = redis.call('zscore', KEYS[1], id); "
+                    + "if expireAt == false or tonumber(expireAt) <= tonumber(ARGV[3]) then "
+                    + "return 0; "
+                    + "end; "
+                    + "redis.call('zadd', KEYS[1], ARGV[2], id); "
+                    + "return 1;");
+}
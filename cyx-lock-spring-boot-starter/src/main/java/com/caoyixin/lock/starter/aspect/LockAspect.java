@@ -1,10 +1,15 @@
 package com.caoyixin.lock.starter.aspect;
 
 import com.caoyixin.lock.annotation.CyxLock;
+import com.caoyixin.lock.core.LockContext;
 import com.caoyixin.lock.core.LockInfo;
 import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.metrics.LockMetrics;
+import com.caoyixin.lock.starter.properties.LockProperties;
 import com.caoyixin.lock.support.LockFailureStrategy;
 import com.caoyixin.lock.support.LockKeyBuilder;
+import com.caoyixin.lock.support.LockKeyEncoder;
+import com.caoyixin.lock.support.LockStripes;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -14,9 +19,17 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 锁切面类，处理@CyxLock注解
+ * <p>
+ * 返回CompletionStage、Mono或Flux的方法，异步获取锁，并在返回结果完成后才释放锁。
  *
  * @author caoyixin
  */
@@ -34,6 +47,31 @@ public class LockAspect {
     @Setter
     private LockFailureStrategy failureStrategy;
 
+    @Setter
+    private LockMetrics lockMetrics;
+
+    /**
+     * 锁键编码器，为null时不编码
+     */
+    @Setter
+    private LockKeyEncoder keyEncoder;
+
+    /**
+     * 锁配置属性，提供注解未指定的锁属性
+     */
+    @Setter
+    private LockProperties properties = new LockProperties();
+
+    /**
+     * 每个方法解析后的锁属性
+     */
+    private final ConcurrentHashMap<Method, LockMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * 响应式支持，首次处理响应式方法时创建
+     */
+    private volatile ReactiveLockSupport reactiveLockSupport;
+
     /**
      * 环绕通知，处理加锁和解锁
      *
@@ -43,40 +81,125 @@ public class LockAspect {
      */
     @Around("@annotation(com.caoyixin.lock.annotation.CyxLock)")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
-        // 获取方法签名
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-
-        // 获取注解
-        CyxLock lockAnnotation = method.getAnnotation(CyxLock.class);
-        if (lockAnnotation == null) {
-            log.warn("CyxLock annotation not found on method: {}", signature.toShortString());
+        // 获取方法的锁属性
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LockMetadata metadata = metadataOf(method);
+        if (metadata == null) {
+            log.warn("CyxLock annotation not found on method: {}", method);
             return joinPoint.proceed();
         }
 
-        // 构建锁key
-        String key = keyBuilder.buildKey(joinPoint, lockAnnotation.keys());
+        // 构建锁key，multi模式下每个key分别加锁；指定分片表达式时key带有相同的哈希标签
+        List<String> lockKeys;
+        if (metadata.multi) {
+            lockKeys = metadata.isSharded()
+                    ? keyBuilder.buildKeys(joinPoint, metadata.keys, metadata.shardKey)
+                    : keyBuilder.buildKeys(joinPoint, metadata.keys);
+        } else {
+            lockKeys = Collections.singletonList(metadata.isSharded()
+                    ? keyBuilder.buildKey(joinPoint, metadata.keys, metadata.shardKey)
+                    : keyBuilder.buildKey(joinPoint, metadata.keys));
+        }
+
+        // 分桶时key映射到方法的分桶key上
+        List<String> stripedKeys = metadata.isStriped()
+                ? LockStripes.stripeKeys(namespaceOf(joinPoint, metadata), lockKeys, metadata.stripes)
+                : lockKeys;
+        List<String> keys = keyEncoder != null ? encode(stripedKeys) : stripedKeys;
 
-        // 获取锁的其他属性
-        long expire = lockAnnotation.expire();
-        long acquireTimeout = lockAnnotation.acquireTimeout();
-        boolean autoRelease = lockAnnotation.autoRelease();
-        String lockName = lockAnnotation.name();
+        if (log.isDebugEnabled()) {
+            log.debug("@CyxLock annotation processing, method: {}, keys: {}, mode: {}, permits: {}, expire: {}ms, "
+                            + "acquireTimeout: {}ms, autoRelease: {}, name: {}", metadata.method, keys, metadata.mode,
+                    metadata.permits, metadata.expire, metadata.acquireTimeout, metadata.autoRelease, metadata.name);
+        }
+
+        // 异步返回类型在结果完成后释放锁
+        switch (metadata.returnKind) {
+            case COMPLETION_STAGE:
+                return processWithLockAsync(joinPoint, metadata, keys);
+            case REACTIVE:
+                return reactiveLockSupport().processWithLock(joinPoint, metadata, keys);
+            default:
+                break;
+        }
+        if (metadata.singleFlight) {
+            // 同一方法相同key的并发调用共享执行结果，分桶时按原始key合并
+            String key = String.join(",", keys);
+            return lockTemplate.executeShared(metadata.flightKey + String.join(",", lockKeys), key, metadata.name,
+                    () -> processWithLock(joinPoint, metadata, keys));
+        }
+        return processWithLock(joinPoint, metadata, keys);
+    }
 
-        log.debug(
-                "@CyxLock annotation processing, method: {}, key: {}, expire: {}ms, acquireTimeout: {}ms, autoRelease: {}, name: {}",
-                signature.toShortString(), key, expire, acquireTimeout, autoRelease, lockName);
+    /**
+     * 获取方法的锁属性，首次调用时解析并缓存；方法上没有注解时返回null
+     */
+    private LockMetadata metadataOf(Method method) {
+        LockMetadata metadata = metadataCache.get(method);
+        if (metadata != null) {
+            return metadata;
+        }
+        CyxLock lockAnnotation = method.getAnnotation(CyxLock.class);
+        if (lockAnnotation == null) {
+            return null;
+        }
+        return metadataCache.computeIfAbsent(method, m -> LockMetadata.resolve(m, lockAnnotation, properties));
+    }
+
+    /**
+     * 编码锁键，编码后相同的key只保留一个
+     */
+    private List<String> encode(List<String> keys) {
+        if (keys.size() == 1) {
+            return Collections.singletonList(keyEncoder.encode(keys.get(0)));
+        }
+        List<String> encoded = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            String encodedKey = keyEncoder.encode(key);
+            if (!encoded.contains(encodedKey)) {
+                encoded.add(encodedKey);
+            }
+        }
+        return encoded;
+    }
 
-        return processWithLock(joinPoint, key, expire, acquireTimeout, autoRelease, lockName);
+    /**
+     * 分桶的命名空间，为不带表达式时的基础键，首次调用时生成；使用哈希标签时包括本次调用的哈希标签，每次调用生成
+     */
+    private String namespaceOf(ProceedingJoinPoint joinPoint, LockMetadata metadata) {
+        if (metadata.isSharded()) {
+            return keyBuilder.buildKey(joinPoint, null, metadata.shardKey);
+        }
+        String namespace = metadata.namespace;
+        if (namespace == null) {
+            namespace = keyBuilder.buildKey(joinPoint, null);
+            metadata.namespace = namespace;
+        }
+        return namespace;
     }
 
     /**
      * 通用锁处理逻辑
      */
-    private Object processWithLock(ProceedingJoinPoint joinPoint, String key, long expire,
-            long acquireTimeout, boolean autoRelease, String lockName) throws Throwable {
+    private Object processWithLock(ProceedingJoinPoint joinPoint, LockMetadata metadata, List<String> keys)
+            throws Throwable {
+        String key = keys.size() == 1 ? keys.get(0) : String.join(",", keys);
+        long acquireTimeout = metadata.acquireTimeout;
+
         // 获取锁
-        LockInfo lockInfo = lockTemplate.lock(key, expire, acquireTimeout, lockName);
+        LockInfo lockInfo;
+        if (keys.size() > 1) {
+            lockInfo = lockTemplate.lockAll(keys, metadata.expire, acquireTimeout, metadata.name);
+        } else if (metadata.permits > 0) {
+            lockInfo = lockTemplate.lockPermit(key, metadata.permits, metadata.expire, acquireTimeout,
+                    metadata.name);
+        } else {
+            lockInfo = lockTemplate.lock(key, metadata.mode, metadata.expire, acquireTimeout, metadata.name,
+                    metadata.strategy);
+        }
+        if (metadata.isStriped()) {
+            recordStripeContention(key, metadata.name, lockInfo);
+        }
 
         // 如果获取锁失败
         if (lockInfo == null) {
@@ -84,16 +207,122 @@ public class LockAspect {
             return failureStrategy.onLockFailure(key, acquireTimeout);
         }
 
+        LockInfo previous = LockContext.bind(lockInfo);
         try {
-            // 执行目标方法
+            // 执行目标方法，期间可通过LockContext获取锁信息
             log.debug("Acquired lock successfully, key: {}, proceed with method execution", key);
             return joinPoint.proceed();
         } finally {
+            LockContext.restore(previous);
             // 自动释放锁
-            if (autoRelease) {
+            if (metadata.autoRelease) {
                 log.debug("Auto releasing lock, key: {}", key);
                 lockTemplate.releaseLock(lockInfo);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 异步锁处理逻辑，返回的CompletionStage完成后释放锁
+     */
+    private Object processWithLockAsync(ProceedingJoinPoint joinPoint, LockMetadata metadata, List<String> keys) {
+        String key = keys.size() == 1 ? keys.get(0) : String.join(",", keys);
+        long acquireTimeout = metadata.acquireTimeout;
+        CompletableFuture<LockInfo> acquire;
+        if (keys.size() > 1) {
+            acquire = lockTemplate.lockAllAsync(keys, metadata.expire, acquireTimeout, metadata.name);
+        } else if (metadata.permits > 0) {
+            acquire = lockTemplate.lockPermitAsync(key, metadata.permits, metadata.expire, acquireTimeout,
+                    metadata.name);
+        } else {
+            acquire = lockTemplate.lockAsync(key, metadata.mode, metadata.expire, acquireTimeout, metadata.name);
+        }
+
+        // 获取锁的回调可能在锁服务客户端的IO线程上执行，失败策略和目标方法切换到锁模板的线程池执行
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        acquire.whenCompleteAsync((lockInfo, lockError) -> {
+            if (lockError != null) {
+                result.completeExceptionally(lockError);
+                return;
+            }
+            if (metadata.isStriped()) {
+                recordStripeContention(key, metadata.name, lockInfo);
+            }
+
+            // 如果获取锁失败
+            if (lockInfo == null) {
+                log.debug("Failed to acquire lock, key: {}, using failure strategy", key);
+                try {
+                    Object value = failureStrategy.onLockFailure(key, acquireTimeout);
+                    if (value instanceof CompletionStage) {
+                        ((CompletionStage<?>) value).whenComplete((v, e) -> complete(result, v, e));
+                    } else {
+                        result.complete(value);
+                    }
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+                return;
+            }
+
+            // 执行目标方法
+            log.debug("Acquired lock successfully, key: {}, proceed with method execution", key);
+            CompletionStage<?> stage;
+            LockInfo previous = LockContext.bind(lockInfo);
+            try {
+                stage = (CompletionStage<?>) joinPoint.proceed();
+            } catch (Throwable e) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                stage = failed;
+            } finally {
+                LockContext.restore(previous);
+            }
+            if (stage == null) {
+                stage = CompletableFuture.completedFuture(null);
+            }
+
+            stage.whenComplete((value, error) -> {
+                if (!metadata.autoRelease) {
+                    complete(result, value, error);
+                    return;
+                }
+                // 自动释放锁
+                log.debug("Auto releasing lock, key: {}", key);
+                lockTemplate.releaseLockAsync(lockInfo).whenComplete((released, releaseError) -> {
+                    if (releaseError != null) {
+                        log.error("Error occurred while releasing lock asynchronously, key: {}", key, releaseError);
+                    }
+                    complete(result, value, error);
+                });
+            });
+        }, lockTemplate.getFallbackExecutor());
+        return result;
+    }
+
+    /**
+     * 分桶锁获取失败或获取耗时不为0时记录分桶竞争
+     */
+    private void recordStripeContention(String key, String lockName, LockInfo lockInfo) {
+        if (lockMetrics != null && (lockInfo == null || lockInfo.getAcquireTime() > 0)) {
+            lockMetrics.recordStripeContention(key, lockName);
+        }
+    }
+
+    private static void complete(CompletableFuture<Object> result, Object value, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    private ReactiveLockSupport reactiveLockSupport() {
+        ReactiveLockSupport support = reactiveLockSupport;
+        if (support == null) {
+            support = new ReactiveLockSupport(lockTemplate, failureStrategy);
+            reactiveLockSupport = support;
+        }
+        return support;
+    }
+}
@@ -0,0 +1,177 @@
+package com.caoyixin.lock.starter.aspect;
+
+import com.caoyixin.lock.annotation.CyxLock;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.starter.properties.LockProperties;
+import com.caoyixin.lock.support.AcquireStrategies;
+import com.caoyixin.lock.support.AcquireStrategy;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 方法上@CyxLock注解解析后的锁属性，每个方法只解析一次
+ * <p>
+ * 未在注解中指定的过期时间、获取超时时间、分桶数量和分片表达式使用{@link LockProperties}中的全局配置。
+ *
+ * @author caoyixin
+ */
+final class LockMetadata {
+
+    /**
+     * 是否引入了reactor-core
+     */
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono",
+            LockMetadata.class.getClassLoader());
+
+    /**
+     * 方法描述，用于日志
+     */
+    final String method;
+
+    /**
+     * 非空的key表达式
+     */
+    final String[] keys;
+
+    final boolean multi;
+
+    final long expire;
+
+    final long acquireTimeout;
+
+    final boolean autoRelease;
+
+    final String name;
+
+    final LockMode mode;
+
+    final int permits;
+
+    /**
+     * 获取策略，为null时使用锁模板的默认策略
+     */
+    final AcquireStrategy strategy;
+
+    /**
+     * 分桶数量，0表示不分桶
+     */
+    final int stripes;
+
+    final boolean singleFlight;
+
+    /**
+     * 单飞合并key的前缀，为方法的完整签名加分隔符，区分重载方法
+     */
+    final String flightKey;
+
+    /**
+     * 分片表达式，为空时不使用哈希标签
+     */
+    final String shardKey;
+
+    final ReturnKind returnKind;
+
+    /**
+     * 分桶的命名空间，首次调用时由锁键生成器生成
+     */
+    volatile String namespace;
+
+    private LockMetadata(Method method, CyxLock annotation, LockProperties properties) {
+        this.method = ClassUtils.getQualifiedMethodName(method);
+        this.keys = nonBlank(annotation.keys());
+        this.multi = annotation.multi();
+        this.expire = annotation.expire() >= 0 ? annotation.expire() : properties.getExpire();
+        this.acquireTimeout = annotation.acquireTimeout() >= 0
+                ? annotation.acquireTimeout() : properties.getAcquireTimeout();
+        this.autoRelease = annotation.autoRelease();
+        this.name = annotation.name();
+        this.mode = annotation.mode();
+        this.permits = annotation.permits();
+        this.strategy = AcquireStrategies.of(annotation.strategy());
+        this.stripes = annotation.stripes() >= 0 ? annotation.stripes() : properties.getLockStripes();
+        this.singleFlight = annotation.singleFlight();
+        this.flightKey = method + "#";
+        this.shardKey = StringUtils.hasText(annotation.shardKey()) ? annotation.shardKey()
+                : StringUtils.hasText(properties.getShardKey()) ? properties.getShardKey() : "";
+        this.returnKind = ReturnKind.of(method.getReturnType());
+    }
+
+    /**
+     * 解析方法上的锁属性，属性组合不支持时抛出异常
+     *
+     * @param method     方法
+     * @param annotation 方法上的@CyxLock注解
+     * @param properties 锁配置属性
+     * @return 锁属性
+     */
+    static LockMetadata resolve(Method method, CyxLock annotation, LockProperties properties) {
+        LockMetadata metadata = new LockMetadata(method, annotation, properties);
+        if (metadata.multi && metadata.mode != LockMode.EXCLUSIVE) {
+            throw new IllegalStateException("Multi-key lock only supports EXCLUSIVE mode, method: "
+                    + metadata.method);
+        }
+        if (metadata.permits > 0 && (metadata.multi || metadata.mode != LockMode.EXCLUSIVE)) {
+            throw new IllegalStateException("Permit lock cannot be combined with multi-key or read/write lock, method: "
+                    + metadata.method);
+        }
+        if (metadata.singleFlight && metadata.returnKind != ReturnKind.SYNC) {
+            throw new IllegalStateException("Single flight does not support asynchronous return type, method: "
+                    + metadata.method);
+        }
+        return metadata;
+    }
+
+    boolean isStriped() {
+        return stripes > 0;
+    }
+
+    boolean isSharded() {
+        return !shardKey.isEmpty();
+    }
+
+    private static String[] nonBlank(String[] keys) {
+        List<String> result = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            if (StringUtils.hasText(key)) {
+                result.add(key);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * 方法返回类型的处理方式
+     */
+    enum ReturnKind {
+        /**
+         * 同步返回，方法返回后释放锁
+         */
+        SYNC,
+        /**
+         * 返回CompletionStage，结果完成后释放锁
+         */
+        COMPLETION_STAGE,
+        /**
+         * 返回Mono或Flux，发布者结束后释放锁
+         */
+        REACTIVE;
+
+        static ReturnKind of(Class<?> returnType) {
+            // 只处理可以用CompletableFuture作为返回值的CompletionStage类型
+            if (CompletionStage.class.isAssignableFrom(returnType)
+                    && returnType.isAssignableFrom(CompletableFuture.class)) {
+                return COMPLETION_STAGE;
+            }
+            if (REACTOR_PRESENT && ReactiveLockSupport.supports(returnType)) {
+                return REACTIVE;
+            }
+            return SYNC;
+        }
+    }
+}
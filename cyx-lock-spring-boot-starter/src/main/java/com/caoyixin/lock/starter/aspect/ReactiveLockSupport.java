@@ -0,0 +1,117 @@
+package com.caoyixin.lock.starter.aspect;
+
+import com.caoyixin.lock.core.LockContext;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.ReactiveLockTemplate;
+import com.caoyixin.lock.support.LockFailureStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 切面的响应式支持，处理返回Mono或Flux的方法，仅在引入reactor-core时加载
+ *
+ * @author caoyixin
+ */
+@Slf4j
+class ReactiveLockSupport {
+
+    private final ReactiveLockTemplate reactiveLockTemplate;
+
+    private final LockFailureStrategy failureStrategy;
+
+    ReactiveLockSupport(LockTemplate lockTemplate, LockFailureStrategy failureStrategy) {
+        this.reactiveLockTemplate = new ReactiveLockTemplate(lockTemplate);
+        this.failureStrategy = failureStrategy;
+    }
+
+    /**
+     * 是否为支持的响应式返回类型
+     */
+    static boolean supports(Class<?> returnType) {
+        return returnType == Mono.class || returnType == Flux.class;
+    }
+
+    /**
+     * 在订阅时获取锁，发布者结束后释放锁
+     */
+    Object processWithLock(ProceedingJoinPoint joinPoint, LockMetadata metadata, List<String> keys) {
+        String key = keys.size() == 1 ? keys.get(0) : String.join(",", keys);
+        long expire = metadata.expire;
+        long acquireTimeout = metadata.acquireTimeout;
+        boolean autoRelease = metadata.autoRelease;
+        Mono<LockInfo> acquire;
+        if (keys.size() > 1) {
+            acquire = reactiveLockTemplate.lockAll(keys, expire, acquireTimeout, metadata.name);
+        } else if (metadata.permits > 0) {
+            acquire = reactiveLockTemplate.lockPermit(key, metadata.permits, expire, acquireTimeout, metadata.name);
+        } else {
+            acquire = reactiveLockTemplate.lock(key, metadata.mode, expire, acquireTimeout, metadata.name);
+        }
+        Mono<Optional<LockInfo>> lock = acquire
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        if (((MethodSignature) joinPoint.getSignature()).getReturnType() == Mono.class) {
+            return lock.flatMap(lockInfo -> lockInfo.isPresent()
+                    ? withLock(lockInfo.get(), autoRelease, Mono.defer(() -> Mono.from(proceed(joinPoint, lockInfo.get()))))
+                    : Mono.from(onLockFailure(key, acquireTimeout)));
+        }
+        return lock.flatMapMany(lockInfo -> lockInfo.isPresent()
+                ? withLock(lockInfo.get(), autoRelease, Flux.defer(() -> proceed(joinPoint, lockInfo.get())))
+                : onLockFailure(key, acquireTimeout));
+    }
+
+    private Mono<Object> withLock(LockInfo lockInfo, boolean autoRelease, Mono<Object> body) {
+        if (!autoRelease) {
+            return body;
+        }
+        return Mono.usingWhen(Mono.just(lockInfo), l -> body,
+                this::release, (l, e) -> release(l), this::release);
+    }
+
+    private Flux<Object> withLock(LockInfo lockInfo, boolean autoRelease, Flux<Object> body) {
+        if (!autoRelease) {
+            return body;
+        }
+        return Flux.usingWhen(Mono.just(lockInfo), l -> body,
+                this::release, (l, e) -> release(l), this::release);
+    }
+
+    private Mono<?> release(LockInfo lockInfo) {
+        log.debug("Auto releasing lock, key: {}", lockInfo.getKey());
+        return reactiveLockTemplate.releaseLock(lockInfo);
+    }
+
+    /**
+     * 调用目标方法，组装发布者期间可通过LockContext获取锁信息
+     */
+    @SuppressWarnings("unchecked")
+    private Publisher<Object> proceed(ProceedingJoinPoint joinPoint, LockInfo lockInfo) {
+        LockInfo previous = LockContext.bind(lockInfo);
+        try {
+            Publisher<Object> publisher = (Publisher<Object>) joinPoint.proceed();
+            return publisher != null ? publisher : Flux.empty();
+        } catch (Throwable e) {
+            return Flux.error(e);
+        } finally {
+            LockContext.restore(previous);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<Object> onLockFailure(String key, long acquireTimeout) {
+        log.debug("Failed to acquire lock, key: {}, using failure strategy", key);
+        return Mono.fromCallable(() -> failureStrategy.onLockFailure(key, acquireTimeout))
+                .flatMapMany(result -> result instanceof Publisher
+                        ? Flux.from((Publisher<Object>) result)
+                        : Flux.just(result));
+    }
+}
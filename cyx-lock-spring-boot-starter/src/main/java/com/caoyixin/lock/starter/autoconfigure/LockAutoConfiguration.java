@@ -1,16 +1,27 @@
 package com.caoyixin.lock.starter.autoconfigure;
 
+import com.caoyixin.lock.core.LeaseRenewalService;
 import com.caoyixin.lock.core.LockExecutor;
 import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.ReactiveLockTemplate;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.core.StickyReleaseService;
+import com.caoyixin.lock.local.executor.LocalLockExecutor;
 import com.caoyixin.lock.metrics.LockMetrics;
 import com.caoyixin.lock.metrics.MicrometerLockMetrics;
 import com.caoyixin.lock.redisson.executor.RedissonLockExecutor;
+import com.caoyixin.lock.redisson.executor.RedissonLuaLockExecutor;
 import com.caoyixin.lock.starter.aspect.LockAspect;
 import com.caoyixin.lock.starter.properties.LockProperties;
+import com.caoyixin.lock.support.AcquireStrategies;
+import com.caoyixin.lock.support.AcquireStrategy;
 import com.caoyixin.lock.support.DefaultLockFailureStrategy;
 import com.caoyixin.lock.support.DefaultLockKeyBuilder;
+import com.caoyixin.lock.support.GeneratedLockKeyBuilder;
+import com.caoyixin.lock.support.HashedLockKeyEncoder;
 import com.caoyixin.lock.support.LockFailureStrategy;
 import com.caoyixin.lock.support.LockKeyBuilder;
+import com.caoyixin.lock.support.LockKeyEncoder;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.redisson.api.RedissonClient;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -40,38 +51,120 @@ public class LockAutoConfiguration {
      * 配置锁执行器
      *
      * @param redissonClient Redisson客户端
+     * @param properties     锁配置属性
      * @return 锁执行器
      */
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(RedissonClient.class)
-    public LockExecutor lockExecutor(RedissonClient redissonClient) {
+    @ConditionalOnProperty(prefix = "cyx-lock", name = "executor-type", havingValue = "redisson", matchIfMissing = true)
+    public LockExecutor lockExecutor(RedissonClient redissonClient, LockProperties properties) {
         RedissonLockExecutor executor = new RedissonLockExecutor();
         executor.setRedissonClient(redissonClient);
+        executor.setReleaseMode(properties.getReleaseMode());
         return executor;
     }
 
     /**
-     * 配置锁模板
+     * 配置基于Lua脚本的锁执行器
+     *
+     * @param redissonClient Redisson客户端
+     * @return 锁执行器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedissonClient.class)
+    @ConditionalOnProperty(prefix = "cyx-lock", name = "executor-type", havingValue = "lua")
+    public LockExecutor luaLockExecutor(RedissonClient redissonClient) {
+        RedissonLuaLockExecutor executor = new RedissonLuaLockExecutor();
+        executor.setRedissonClient(redissonClient);
+        executor.loadScripts();
+        return executor;
+    }
+
+    /**
+     * 配置锁续期服务
+     *
+     * @param lockExecutor 锁执行器
+     * @param properties   锁配置属性
+     * @return 锁续期服务
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "cyx-lock", name = "lease-renewal-enabled", havingValue = "true")
+    public LeaseRenewalService leaseRenewalService(LockExecutor lockExecutor, LockProperties properties) {
+        if (!(lockExecutor instanceof RenewableLockExecutor)) {
+            throw new IllegalStateException("Lease renewal is enabled but lock executor does not support renewal: "
+                    + lockExecutor.getClass().getName());
+        }
+        return new LeaseRenewalService((RenewableLockExecutor) lockExecutor, properties.getLeaseRenewalInterval());
+    }
+
+    /**
+     * 配置延迟释放服务
      *
      * @param lockExecutor 锁执行器
-     * @param lockMetrics  锁监控指标，可选
+     * @param properties   锁配置属性
+     * @return 延迟释放服务
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "cyx-lock", name = "sticky-release-enabled", havingValue = "true")
+    public StickyReleaseService stickyReleaseService(LockExecutor lockExecutor, LockProperties properties) {
+        if (isThreadBound(lockExecutor, properties)) {
+            throw new IllegalStateException("Sticky release cannot be combined with THREAD release mode");
+        }
+        return new StickyReleaseService(lockExecutor, properties.getStickyReleaseWindow());
+    }
+
+    /**
+     * 配置锁模板
+     *
+     * @param lockExecutor         锁执行器
+     * @param lockMetrics          锁监控指标，可选
+     * @param leaseRenewalService  锁续期服务，可选
+     * @param stickyReleaseService 延迟释放服务，可选
+     * @param properties           锁配置属性
      * @return 锁模板
      */
     @Bean
     @ConditionalOnMissingBean
     public LockTemplate lockTemplate(LockExecutor lockExecutor,
-            @org.springframework.beans.factory.annotation.Autowired(required = false) LockMetrics lockMetrics) {
+            @org.springframework.beans.factory.annotation.Autowired(required = false) LockMetrics lockMetrics,
+            @org.springframework.beans.factory.annotation.Autowired(required = false)
+                    LeaseRenewalService leaseRenewalService,
+            @org.springframework.beans.factory.annotation.Autowired(required = false)
+                    StickyReleaseService stickyReleaseService,
+            LockProperties properties) {
+        // 按线程释放的锁不能移交给其他线程
+        if (properties.getCohortMaxHandoffs() > 0 && isThreadBound(lockExecutor, properties)) {
+            throw new IllegalStateException("Cohort handoff cannot be combined with THREAD release mode");
+        }
         LockTemplate template = new LockTemplate();
         template.setLockExecutor(lockExecutor);
         if (lockMetrics != null) {
             template.setLockMetrics(lockMetrics);
         }
+        template.setLeaseRenewalService(leaseRenewalService);
+        template.setCohortMaxHandoffs(properties.getCohortMaxHandoffs());
+        template.setStickyReleaseService(stickyReleaseService);
+        AcquireStrategy acquireStrategy = AcquireStrategies.of(properties.getAcquireStrategy());
+        if (acquireStrategy != null) {
+            template.setAcquireStrategy(acquireStrategy);
+        }
         return template;
     }
 
     /**
-     * 配置锁键生成器
+     * 锁是否只能由获取锁的线程释放
+     */
+    private static boolean isThreadBound(LockExecutor lockExecutor, LockProperties properties) {
+        return lockExecutor instanceof RedissonLockExecutor
+                && properties.getReleaseMode() == RedissonLockExecutor.ReleaseMode.THREAD;
+    }
+
+    /**
+     * 配置锁键生成器，优先使用cyx-lock-processor在编译期生成的key表达式求值器
      *
      * @param properties 锁配置属性
      * @return 锁键生成器
@@ -79,11 +172,25 @@ public class LockAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public LockKeyBuilder lockKeyBuilder(LockProperties properties) {
-        DefaultLockKeyBuilder keyBuilder = new DefaultLockKeyBuilder();
+        DefaultLockKeyBuilder keyBuilder = new GeneratedLockKeyBuilder();
         keyBuilder.setLockKeyPrefix(properties.getLockKeyPrefix());
         return keyBuilder;
     }
 
+    /**
+     * 配置锁键编码器
+     *
+     * @param properties 锁配置属性
+     * @return 锁键编码器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "cyx-lock", name = "key-hashing-enabled", havingValue = "true")
+    public LockKeyEncoder lockKeyEncoder(LockProperties properties) {
+        return new HashedLockKeyEncoder(properties.getLockKeyPrefix(), properties.getKeyHashBits(),
+                properties.getKeyReverseMapSize());
+    }
+
     /**
      * 配置锁失败策略
      *
@@ -101,17 +208,26 @@ public class LockAutoConfiguration {
      * @param lockTemplate    锁模板
      * @param keyBuilder      锁键生成器
      * @param failureStrategy 锁失败策略
+     * @param lockMetrics     锁监控指标，可选
+     * @param keyEncoder      锁键编码器，可选
+     * @param properties      锁配置属性
      * @return 锁切面
      */
     @Bean
     @ConditionalOnMissingBean
     public LockAspect lockAspect(LockTemplate lockTemplate,
             LockKeyBuilder keyBuilder,
-            LockFailureStrategy failureStrategy) {
+            LockFailureStrategy failureStrategy,
+            @org.springframework.beans.factory.annotation.Autowired(required = false) LockMetrics lockMetrics,
+            @org.springframework.beans.factory.annotation.Autowired(required = false) LockKeyEncoder keyEncoder,
+            LockProperties properties) {
         LockAspect aspect = new LockAspect();
         aspect.setLockTemplate(lockTemplate);
         aspect.setKeyBuilder(keyBuilder);
+        aspect.setKeyEncoder(keyEncoder);
         aspect.setFailureStrategy(failureStrategy);
+        aspect.setLockMetrics(lockMetrics);
+        aspect.setProperties(properties);
         return aspect;
     }
 
@@ -119,6 +235,7 @@ public class LockAutoConfiguration {
      * 配置锁监控指标
      *
      * @param meterRegistry 指标注册器
+     * @param keyEncoder    锁键编码器，可选
      * @param properties    锁配置属性
      * @return 锁监控指标
      */
@@ -126,7 +243,51 @@ public class LockAutoConfiguration {
     @ConditionalOnBean(MeterRegistry.class)
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "cyx-lock", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
-    public LockMetrics lockMetrics(MeterRegistry meterRegistry, LockProperties properties) {
-        return new MicrometerLockMetrics(meterRegistry);
+    public LockMetrics lockMetrics(MeterRegistry meterRegistry,
+            @org.springframework.beans.factory.annotation.Autowired(required = false) LockKeyEncoder keyEncoder,
+            LockProperties properties) {
+        MicrometerLockMetrics lockMetrics = new MicrometerLockMetrics(meterRegistry);
+        lockMetrics.setKeyEncoder(keyEncoder);
+        return lockMetrics;
+    }
+
+    /**
+     * 本地锁执行器配置，需引入cyx-lock-local模块并设置cyx-lock.executor-type=local
+     */
+    @Configuration
+    @ConditionalOnClass(LocalLockExecutor.class)
+    @ConditionalOnProperty(prefix = "cyx-lock", name = "executor-type", havingValue = "local")
+    static class LocalLockExecutorConfiguration {
+
+        /**
+         * 配置本地锁执行器
+         *
+         * @return 锁执行器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public LockExecutor localLockExecutor() {
+            return new LocalLockExecutor();
+        }
+    }
+
+    /**
+     * 响应式锁模板配置，需引入reactor-core
+     */
+    @Configuration
+    @ConditionalOnClass(name = "reactor.core.publisher.Mono")
+    static class ReactiveLockTemplateConfiguration {
+
+        /**
+         * 配置响应式锁模板
+         *
+         * @param lockTemplate 锁模板
+         * @return 响应式锁模板
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveLockTemplate reactiveLockTemplate(LockTemplate lockTemplate) {
+            return new ReactiveLockTemplate(lockTemplate);
+        }
     }
-}
\ No newline at end of file
+}
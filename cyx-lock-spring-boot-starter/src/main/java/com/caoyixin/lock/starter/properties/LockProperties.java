@@ -1,5 +1,7 @@
 package com.caoyixin.lock.starter.properties;
 
+import com.caoyixin.lock.redisson.executor.RedissonLockExecutor;
+import com.caoyixin.lock.support.AcquireStrategy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -31,4 +33,89 @@ public class LockProperties {
      * 是否启用监控指标
      */
     private boolean metricsEnabled = true;
+
+    /**
+     * 锁执行器类型
+     */
+    private ExecutorType executorType = ExecutorType.REDISSON;
+
+    /**
+     * Redisson锁执行器释放锁的方式
+     */
+    private RedissonLockExecutor.ReleaseMode releaseMode = RedissonLockExecutor.ReleaseMode.TOKEN;
+
+    /**
+     * 是否在持有锁期间自动续期，启用后expire为每次续期的过期时间
+     */
+    private boolean leaseRenewalEnabled = false;
+
+    /**
+     * 自动续期的检查间隔，单位：毫秒，锁的过期时间应不小于该间隔的3倍
+     */
+    private long leaseRenewalInterval = 1000;
+
+    /**
+     * 同一把锁在本地线程之间连续移交的最大次数，0表示不移交；
+     * 大于0时释放锁时如果本地有线程等待同一把锁，直接移交而不访问锁服务
+     */
+    private int cohortMaxHandoffs = 0;
+
+    /**
+     * 是否延迟释放独占锁，启用后锁释放时在保留期内继续持有，期间本JVM再次获取时不访问锁服务
+     */
+    private boolean stickyReleaseEnabled = false;
+
+    /**
+     * 延迟释放的保留期，单位：毫秒，应远小于锁的过期时间
+     */
+    private long stickyReleaseWindow = 5;
+
+    /**
+     * 获取独占锁时默认的等待策略，@CyxLock未指定策略时使用
+     */
+    private AcquireStrategy.Type acquireStrategy = AcquireStrategy.Type.EXECUTOR;
+
+    /**
+     * 默认分桶数量，大于0时@CyxLock的key按哈希映射到每个方法固定数量的分桶key上，0表示不分桶
+     */
+    private int lockStripes = 0;
+
+    /**
+     * 默认分片表达式，@CyxLock未指定shardKey时使用，如"#tenantId"；方法没有对应参数时值为null，不使用哈希标签。
+     * 自定义的LockKeyBuilder未实现带分片表达式的重载时忽略分片表达式，并告警一次
+     */
+    private String shardKey = "";
+
+    /**
+     * 是否对锁键编码，启用后锁键前缀之后的部分替换为固定长度的哈希，减少锁服务的内存和网络传输
+     */
+    private boolean keyHashingEnabled = false;
+
+    /**
+     * 锁键哈希的位数，64或128
+     */
+    private int keyHashBits = 128;
+
+    /**
+     * 本地保存最近编码的原始锁键的数量，用于日志和监控，0表示不保存
+     */
+    private int keyReverseMapSize = 1024;
+
+    /**
+     * 锁执行器类型枚举
+     */
+    public enum ExecutorType {
+        /**
+         * 基于Redisson的分布式锁
+         */
+        REDISSON,
+        /**
+         * 基于Lua脚本的分布式锁，获取和释放各只需一次网络往返
+         */
+        LUA,
+        /**
+         * 基于JVM内存的本地锁，适用于单实例部署和测试环境
+         */
+        LOCAL
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.exception.LockException;
+import com.caoyixin.lock.support.AcquireStrategies;
+import com.caoyixin.lock.support.AcquireStrategy;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 获取策略测试 - 使用LocalLockExecutor实现
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = LocalTestConfiguration.class)
+public class AcquireStrategyTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        stockService.reset();
+    }
+
+    /**
+     * 测试只尝试一次的策略在锁被占用时立即失败
+     */
+    @Test
+    public void testTryOnceFailsImmediately() throws Exception {
+        String lockKey = "strategy:try-once";
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = holdLock(lockKey, locked, done);
+        assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到锁");
+
+        try {
+            long start = System.currentTimeMillis();
+            LockInfo lockInfo = lockTemplate.lock(lockKey, LockMode.EXCLUSIVE, 30000, 3000, null,
+                    AcquireStrategies.TRY_ONCE);
+            assertNull(lockInfo, "锁被占用时应该获取失败");
+            assertTrue(System.currentTimeMillis() - start < 1000, "只尝试一次时不应该等待");
+        } finally {
+            done.countDown();
+            holder.get(3, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 测试各等待策略在持有者释放锁后获取成功
+     */
+    @Test
+    public void testWaitingStrategiesAcquireAfterRelease() throws Exception {
+        AcquireStrategy[] strategies = { AcquireStrategies.BACKOFF, AcquireStrategies.NOTIFY, AcquireStrategies.SPIN };
+        for (AcquireStrategy strategy : strategies) {
+            String lockKey = "strategy:wait:" + strategy.getClass().getSimpleName();
+
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(1);
+            CompletableFuture<Void> holder = holdLock(lockKey, locked, done);
+            assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到锁");
+
+            // 持有者稍后释放锁
+            new Thread(() -> {
+                sleep(100);
+                done.countDown();
+            }).start();
+
+            LockInfo lockInfo = lockTemplate.lock(lockKey, LockMode.EXCLUSIVE, 30000, 3000, null, strategy);
+            assertNotNull(lockInfo, strategy.getClass().getSimpleName() + "应该在锁释放后获取成功");
+            assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+            holder.get(3, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 测试等待策略在超时后获取失败
+     */
+    @Test
+    public void testBackoffTimeout() throws Exception {
+        String lockKey = "strategy:backoff:timeout";
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = holdLock(lockKey, locked, done);
+        assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到锁");
+
+        try {
+            long start = System.currentTimeMillis();
+            LockInfo lockInfo = lockTemplate.lock(lockKey, LockMode.EXCLUSIVE, 30000, 300, null,
+                    AcquireStrategies.BACKOFF);
+            long elapsed = System.currentTimeMillis() - start;
+            assertNull(lockInfo, "超时后应该获取失败");
+            assertTrue(elapsed >= 300, "应该等待到超时: " + elapsed);
+        } finally {
+            done.countDown();
+            holder.get(3, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 测试注解指定只尝试一次的策略
+     */
+    @Test
+    public void testAnnotationTryOnce() throws Exception {
+        String productId = "strategy-product";
+        stockService.initStock(productId, 10);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = holdLock("test:lock:StockService:decrementStockTryOnce:" + productId,
+                locked, done);
+        assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到锁");
+
+        try {
+            long start = System.currentTimeMillis();
+            assertThrows(LockException.class, () -> stockService.decrementStockTryOnce(productId, 1),
+                    "锁被占用时应该立即失败");
+            assertTrue(System.currentTimeMillis() - start < 1000, "只尝试一次时不应该等待");
+        } finally {
+            done.countDown();
+            holder.get(3, TimeUnit.SECONDS);
+        }
+
+        assertTrue(stockService.decrementStockTryOnce(productId, 1), "锁空闲时应该成功");
+        assertEquals(9, stockService.getStock(productId), "库存应该减少");
+    }
+
+    /**
+     * 测试acquireTimeout为0时不论获取策略都只访问一次锁服务
+     */
+    @Test
+    public void testZeroTimeoutTriesOnce() throws Exception {
+        String lockKey = "strategy:zero-timeout";
+
+        AtomicInteger acquireCount = new AtomicInteger();
+        LockExecutor countingExecutor = new LockExecutor() {
+            @Override
+            public LockInfo acquire(String key, long expire, long acquireTimeout) {
+                acquireCount.incrementAndGet();
+                return lockExecutor.acquire(key, expire, acquireTimeout);
+            }
+
+            @Override
+            public boolean release(LockInfo lockInfo) {
+                return lockExecutor.release(lockInfo);
+            }
+
+            @Override
+            public boolean isLocked(String key) {
+                return lockExecutor.isLocked(key);
+            }
+        };
+        LockTemplate template = new LockTemplate();
+        template.setLockExecutor(countingExecutor);
+        template.setAcquireStrategy(AcquireStrategies.BACKOFF);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = holdLock(lockKey, locked, done);
+        assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到锁");
+
+        try {
+            assertNull(template.lock(lockKey, 30000, 0), "锁被占用时应该获取失败");
+            assertNull(template.tryLock(lockKey, 30000), "锁被占用时应该获取失败");
+            assertEquals(2, acquireCount.get(), "每次只应该访问一次锁服务");
+        } finally {
+            done.countDown();
+            holder.get(3, TimeUnit.SECONDS);
+        }
+
+        LockInfo lockInfo = template.tryLock(lockKey, 30000);
+        assertNotNull(lockInfo, "锁空闲时应该获取成功");
+        assertTrue(template.releaseLock(lockInfo), "应该成功释放锁");
+    }
+
+    /**
+     * 在其他线程中持有锁，直到done计数归零后释放
+     */
+    private CompletableFuture<Void> holdLock(String lockKey, CountDownLatch locked, CountDownLatch done) {
+        return CompletableFuture.runAsync(() -> {
+            LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+            assertNotNull(lockInfo, "持有者应该获取到锁");
+            locked.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lockTemplate.releaseLock(lockInfo);
+            }
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.AsyncLockExecutor;
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.exception.LockException;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异步锁测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class AsyncLockTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        assertNotNull(lockExecutor);
+        assertTrue(lockExecutor instanceof AsyncLockExecutor, "锁执行器应该支持异步操作");
+    }
+
+    /**
+     * 测试异步获取和释放锁
+     */
+    @Test
+    public void testAsyncLockAndRelease() throws Exception {
+        String lockKey = "test:async:basic";
+
+        LockInfo lockInfo = lockTemplate.lockAsync(lockKey, 30000, 1000).get(3, TimeUnit.SECONDS);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertEquals(LockInfo.LockState.LOCKED, lockInfo.getState(), "锁状态应该为LOCKED");
+        assertTrue(((AsyncLockExecutor) lockExecutor).isLockedAsync(lockKey).get(3, TimeUnit.SECONDS), "锁应该已被获取");
+
+        assertEquals(ReleaseResult.RELEASED, lockTemplate.releaseLockAsync(lockInfo).get(3, TimeUnit.SECONDS),
+                "应该成功释放锁");
+        assertFalse(lockTemplate.isLocked(lockKey), "锁应该已被释放");
+        assertEquals(ReleaseResult.EXPIRED, lockTemplate.releaseLockAsync(lockInfo).get(3, TimeUnit.SECONDS),
+                "第二次释放同一个锁应该失败");
+    }
+
+    /**
+     * 测试异步获取的锁互斥，且不在同一线程内重入
+     */
+    @Test
+    public void testAsyncLockMutualExclusion() throws Exception {
+        String lockKey = "test:async:mutex";
+
+        LockInfo first = lockTemplate.lockAsync(lockKey, 30000, 1000).get(3, TimeUnit.SECONDS);
+        assertNotNull(first, "应该成功获取锁");
+
+        // 同一线程再次异步获取也应该等待
+        CompletableFuture<LockInfo> second = lockTemplate.lockAsync(lockKey, 30000, 5000);
+        Thread.sleep(200);
+        assertFalse(second.isDone(), "锁被持有时不应该获取成功");
+
+        // 释放后等待者应该获取到锁
+        assertTrue(lockTemplate.releaseLock(first), "同步方法也应该能释放异步获取的锁");
+        LockInfo secondInfo = second.get(3, TimeUnit.SECONDS);
+        assertNotNull(secondInfo, "锁释放后应该获取成功");
+        assertNotEquals(first.getValue(), secondInfo.getValue(), "两次异步获取的持有者标识应该不同");
+
+        // 在其他线程释放
+        ReleaseResult result = CompletableFuture.supplyAsync(() -> lockTemplate.releaseLockWithResult(secondInfo))
+                .get(3, TimeUnit.SECONDS);
+        assertEquals(ReleaseResult.RELEASED, result, "应该能在其他线程释放异步获取的锁");
+    }
+
+    /**
+     * 测试异步获取锁超时
+     */
+    @Test
+    public void testAsyncLockTimeout() throws Exception {
+        String lockKey = "test:async:timeout";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        try {
+            assertNull(lockTemplate.lockAsync(lockKey, 30000, 200).get(3, TimeUnit.SECONDS), "获取锁应该超时");
+        } finally {
+            lockTemplate.releaseLock(lockInfo);
+        }
+    }
+
+    /**
+     * 测试异步锁模板方法在操作完成后释放锁
+     */
+    @Test
+    public void testExecuteWithLockAsync() throws Exception {
+        String lockKey = "test:async:execute";
+
+        CompletableFuture<String> operation = new CompletableFuture<>();
+        CompletableFuture<String> result = lockTemplate.executeWithLockAsync(lockKey, 30000, 1000, () -> operation);
+
+        // 操作未完成前锁一直被持有
+        Thread.sleep(200);
+        assertTrue(lockTemplate.isLocked(lockKey), "操作执行期间锁应该被持有");
+        assertFalse(result.isDone(), "操作未完成时结果不应该完成");
+
+        operation.complete("done");
+        assertEquals("done", result.get(3, TimeUnit.SECONDS), "应该返回操作结果");
+        assertFalse(lockTemplate.isLocked(lockKey), "操作完成后锁应该被释放");
+    }
+
+    /**
+     * 测试异步操作异常时释放锁并传递异常
+     */
+    @Test
+    public void testExecuteWithLockAsyncException() throws Exception {
+        String lockKey = "test:async:exception";
+
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("test"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> lockTemplate.executeWithLockAsync(lockKey, 30000, 1000, () -> failed).get(3, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException, "应该传递操作的异常");
+        assertFalse(lockTemplate.isLocked(lockKey), "操作异常后锁应该被释放");
+    }
+
+    /**
+     * 测试异步锁模板方法获取锁失败
+     */
+    @Test
+    public void testExecuteWithLockAsyncFailure() throws Exception {
+        String lockKey = "test:async:failure";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        try {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> lockTemplate.executeWithLockAsync(lockKey, 30000, 100,
+                            () -> CompletableFuture.completedFuture("never")).get(3, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof LockException, "获取锁失败应该以LockException完成");
+        } finally {
+            lockTemplate.releaseLock(lockInfo);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 锁本地移交测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class CohortLockTest {
+
+    private static final int THREAD_COUNT = 9;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    private final AtomicInteger acquireCount = new AtomicInteger();
+
+    private LockTemplate lockTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        acquireCount.set(0);
+        lockTemplate = new LockTemplate();
+        lockTemplate.setLockExecutor(new LockExecutor() {
+            @Override
+            public LockInfo acquire(String key, long expire, long acquireTimeout) {
+                acquireCount.incrementAndGet();
+                return lockExecutor.acquire(key, expire, acquireTimeout);
+            }
+
+            @Override
+            public boolean release(LockInfo lockInfo) {
+                return lockExecutor.release(lockInfo);
+            }
+
+            @Override
+            public boolean isLocked(String key) {
+                return lockExecutor.isLocked(key);
+            }
+        });
+    }
+
+    /**
+     * 测试本地线程排队时锁直接移交，不访问锁服务，且仍然互斥
+     */
+    @Test
+    public void testHandOffToLocalWaiters() throws Exception {
+        String lockKey = "test:cohort:handoff";
+        lockTemplate.setCohortMaxHandoffs(100);
+
+        int maxConcurrent = contend(lockKey);
+        assertEquals(1, maxConcurrent, "移交的锁仍然应该互斥");
+        assertTrue(acquireCount.get() < THREAD_COUNT,
+                "本地排队的线程应该接手移交的锁，实际访问锁服务次数: " + acquireCount.get());
+        assertFalse(lockExecutor.isLocked(lockKey), "所有线程释放后锁应该被释放");
+    }
+
+    /**
+     * 测试连续移交次数达到上限后释放给锁服务
+     */
+    @Test
+    public void testMaxHandoffs() throws Exception {
+        String lockKey = "test:cohort:max-handoffs";
+        lockTemplate.setCohortMaxHandoffs(2);
+
+        int maxConcurrent = contend(lockKey);
+        assertEquals(1, maxConcurrent, "移交的锁仍然应该互斥");
+        assertTrue(acquireCount.get() >= THREAD_COUNT / 3,
+                "每次从锁服务获取的锁最多连续移交2次，实际访问锁服务次数: " + acquireCount.get());
+        assertFalse(lockExecutor.isLocked(lockKey), "所有线程释放后锁应该被释放");
+    }
+
+    /**
+     * 测试锁移交给本地等待的线程后，原线程不能再重入获取
+     */
+    @Test
+    public void testOriginalThreadBlockedAfterHandOff() throws Exception {
+        String lockKey = "test:cohort:reown";
+        lockTemplate.setCohortMaxHandoffs(100);
+
+        LockInfo holder = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(holder, "应该成功获取锁");
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 5000);
+            if (lockInfo == null) {
+                return false;
+            }
+            acquired.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lockTemplate.releaseLock(lockInfo);
+        });
+
+        // 等待其他线程在本地排队后释放，锁移交给排队的线程
+        Thread.sleep(200);
+        assertTrue(lockTemplate.releaseLock(holder), "应该成功释放锁");
+        assertTrue(acquired.await(3, TimeUnit.SECONDS), "排队的线程应该接手移交的锁");
+        assertEquals(1, acquireCount.get(), "接手移交的锁不应该访问锁服务");
+        try {
+            assertNull(lockExecutor.acquire(lockKey, 30000, 200), "锁被移交后原线程不应该重入获取");
+            assertNull(lockTemplate.lock(lockKey, 30000, 200), "锁被移交后原线程不应该通过锁模板获取");
+            assertNull(lockTemplate.lockAll(Arrays.asList(lockKey, lockKey + ":other"), 30000, 200),
+                    "锁被移交后原线程不应该通过多key锁获取");
+        } finally {
+            done.countDown();
+        }
+        assertTrue(waiter.get(3, TimeUnit.SECONDS), "接手的线程应该成功释放锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "所有线程释放后锁应该被释放");
+    }
+
+    /**
+     * 测试未开启移交时每次都访问锁服务
+     */
+    @Test
+    public void testHandOffDisabled() throws Exception {
+        String lockKey = "test:cohort:disabled";
+
+        int maxConcurrent = contend(lockKey);
+        assertEquals(1, maxConcurrent, "锁应该互斥");
+        assertEquals(THREAD_COUNT, acquireCount.get(), "未开启移交时每次都应该访问锁服务");
+    }
+
+    /**
+     * 多个线程同时获取同一把锁，持有一段时间后释放
+     *
+     * @return 同时持有锁的最大线程数
+     */
+    private int contend(String lockKey) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger successCount = new AtomicInteger();
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.submit(() -> {
+                startLatch.await();
+                LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 10000);
+                if (lockInfo == null) {
+                    return null;
+                }
+                try {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    Thread.sleep(50);
+                    concurrent.decrementAndGet();
+                    successCount.incrementAndGet();
+                } finally {
+                    lockTemplate.releaseLock(lockInfo);
+                }
+                return null;
+            });
+        }
+        startLatch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS), "所有线程应该在超时前完成");
+        assertEquals(THREAD_COUNT, successCount.get(), "所有线程都应该获取到锁");
+        return maxConcurrent.get();
+    }
+}
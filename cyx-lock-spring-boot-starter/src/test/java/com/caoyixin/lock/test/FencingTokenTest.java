@@ -0,0 +1,133 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockContext;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 防护令牌测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class FencingTokenTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        stockService.reset();
+    }
+
+    /**
+     * 测试同一个key的防护令牌严格递增，令牌key过期后仍然递增
+     */
+    @Test
+    public void testTokenIncreases() {
+        String lockKey = "test:fencing:basic";
+
+        long previous = 0;
+        for (int i = 0; i < 3; i++) {
+            LockInfo lockInfo = lockTemplate.lock(lockKey, 5000, 1000);
+            assertNotNull(lockInfo, "应该成功获取锁");
+            assertNotNull(lockInfo.getFencingToken(), "应该生成防护令牌");
+            assertTrue(lockInfo.getFencingToken() > previous, "防护令牌应该严格递增");
+            previous = lockInfo.getFencingToken();
+            assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        }
+
+        // 模拟令牌key过期
+        redissonClient.getBucket("{" + lockKey + "}:fencing").delete();
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 5000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertTrue(lockInfo.getFencingToken() > previous, "令牌key过期后防护令牌仍应该递增");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+    }
+
+    /**
+     * 测试写锁、多key锁和异步获取的锁都生成防护令牌，读锁和许可锁不生成
+     */
+    @Test
+    public void testTokenForLockTypes() throws Exception {
+        LockInfo write = lockTemplate.lock("test:fencing:write", LockMode.WRITE, 5000, 1000, null);
+        LockInfo read = lockTemplate.lock("test:fencing:read", LockMode.READ, 5000, 1000, null);
+        LockInfo multi = lockTemplate.lockAll(Arrays.asList("test:fencing:multi:a", "test:fencing:multi:b"), 5000, 1000);
+        LockInfo async = lockTemplate.lockAsync("test:fencing:async", 5000, 1000).get(3, TimeUnit.SECONDS);
+        LockInfo permit = lockTemplate.lockPermit("test:fencing:permit", 2, 5000, 1000);
+
+        try {
+            assertNotNull(write.getFencingToken(), "写锁应该生成防护令牌");
+            assertNull(read.getFencingToken(), "读锁不应该生成防护令牌");
+            multi.getLocks().forEach(lockInfo -> assertNotNull(lockInfo.getFencingToken(), "多key锁的每个key应该生成防护令牌"));
+            assertNotNull(async.getFencingToken(), "异步获取的锁应该生成防护令牌");
+            assertNull(permit.getFencingToken(), "许可锁不应该生成防护令牌");
+        } finally {
+            Arrays.asList(write, read, multi, async, permit).forEach(lockTemplate::releaseLock);
+        }
+    }
+
+    /**
+     * 测试异步获取的独占锁和写锁等待释放后获取，防护令牌大于前一个持有者的令牌
+     */
+    @Test
+    public void testAsyncTokenAfterWaiting() throws Exception {
+        for (LockMode mode : Arrays.asList(LockMode.EXCLUSIVE, LockMode.WRITE)) {
+            String lockKey = "test:fencing:async-wait:" + mode;
+            LockInfo holder = lockTemplate.lock(lockKey, mode, 5000, 1000, null);
+            assertNotNull(holder, "应该成功获取锁");
+
+            CompletableFuture<LockInfo> waiting = lockTemplate.lockAsync(lockKey, mode, 5000, 3000, null);
+            Thread.sleep(200);
+            assertFalse(waiting.isDone(), "锁被占用时异步获取应该等待");
+            assertTrue(lockTemplate.releaseLock(holder), "应该成功释放锁");
+
+            LockInfo next = waiting.get(3, TimeUnit.SECONDS);
+            assertNotNull(next, "锁释放后异步获取应该成功");
+            assertTrue(next.getFencingToken() > holder.getFencingToken(), "后获取的防护令牌应该更大");
+            assertTrue(lockTemplate.releaseLock(next), "应该成功释放锁");
+        }
+    }
+
+    /**
+     * 测试注解方法和模板方法通过LockContext获取防护令牌
+     */
+    @Test
+    public void testLockContext() {
+        String productId = "fencing-product";
+
+        Long first = stockService.setStockWithFencing(productId, 10);
+        Long second = stockService.setStockWithFencing(productId, 20);
+        assertNotNull(first, "注解方法应该能获取防护令牌");
+        assertNotNull(second, "注解方法应该能获取防护令牌");
+        assertTrue(second > first, "后一次写入的防护令牌应该更大");
+        assertEquals(20, stockService.getStock(productId), "两次写入都应该成功");
+        assertNull(LockContext.current(), "方法执行完成后应该清除锁上下文");
+
+        Long token = lockTemplate.executeWithLock("test:fencing:execute", 5000, 1000,
+                () -> LockContext.fencingToken("test:fencing:execute"));
+        assertNotNull(token, "模板方法执行期间应该能获取防护令牌");
+        assertNull(LockContext.fencingToken(), "操作完成后应该清除锁上下文");
+    }
+}
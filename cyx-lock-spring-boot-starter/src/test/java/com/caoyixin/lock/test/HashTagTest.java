@@ -0,0 +1,97 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.support.HashTags;
+import com.caoyixin.lock.support.HashedLockKeyEncoder;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 哈希标签测试 - 使用LocalLockExecutor实现
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = LocalTestConfiguration.class)
+public class HashTagTest {
+
+    private static final String BASE_KEY = "test:lock:StockService:getShardedLockKeys";
+
+    @Autowired
+    private StockService stockService;
+
+    /**
+     * 测试槽位计算与Redis Cluster一致
+     */
+    @Test
+    public void testSlot() {
+        assertEquals(12739, HashTags.slotOf("123456789"), "应该使用CRC16 XMODEM计算槽位");
+        assertEquals(12182, HashTags.slotOf("foo"), "槽位应该与CLUSTER KEYSLOT一致");
+        assertEquals(HashTags.slotOf("user1000"), HashTags.slotOf("{user1000}.following"), "应该只用哈希标签计算槽位");
+        assertEquals(HashTags.slotOf("{user1000}.following"), HashTags.slotOf("{user1000}.followers"),
+                "标签相同的key应该位于同一槽位");
+
+        assertEquals("a", HashTags.hashTagOf("x:{a}:{b}"), "应该使用第一个哈希标签");
+        assertNull(HashTags.hashTagOf("x:{}:{b}"), "空的大括号不是哈希标签");
+        assertNull(HashTags.hashTagOf("x:{a"), "没有右括号时不是哈希标签");
+    }
+
+    /**
+     * 测试关联key与锁的key位于同一槽位，包含大括号但没有哈希标签的key也不例外
+     */
+    @Test
+    public void testColocate() {
+        assertEquals("x:{a}:b:fencing", HashTags.colocate("x:{a}:b", "fencing"), "有哈希标签时应该直接拼接");
+        assertEquals("{plain}:fencing", HashTags.colocate("plain", "fencing"), "没有大括号时应该整体作为哈希标签");
+
+        for (String key : Arrays.asList("a{}b", "a}b", "a{b", "}{", "x:{}:{b")) {
+            String fencingKey = HashTags.colocate(key, "fencing");
+            assertEquals(HashTags.slotOf(key), HashTags.slotOf(fencingKey),
+                    "关联key应该与锁的key位于同一槽位: " + key + " -> " + fencingKey);
+        }
+        assertNotEquals(HashTags.slotOf("a{}b"), HashTags.slotOf(HashTags.tag("a{}b")), "整体包装会改变a{}b的槽位");
+        assertNotEquals(HashTags.slotOf("a}b"), HashTags.slotOf(HashTags.tag("a}b")), "整体包装会改变a}b的槽位");
+
+        for (int slot : new int[] { 0, 1, 7143, 12182, HashTags.SLOTS - 1 }) {
+            assertEquals(slot, HashTags.slotOf(HashTags.slotTag(slot)), "槽位标签应该落在对应槽位");
+        }
+    }
+
+    /**
+     * 测试注解的分片表达式作为哈希标签写入所有key
+     */
+    @Test
+    public void testShardedKeys() {
+        List<String> keys = stockService.getShardedLockKeys("tenant-1", Arrays.asList("product-1", "product-2"));
+        assertEquals(Arrays.asList(BASE_KEY + ":{tenant-1}:product-1", BASE_KEY + ":{tenant-1}:product-2"), keys,
+                "分片值应该作为哈希标签写入key");
+        assertEquals(HashTags.slotOf(keys.get(0)), HashTags.slotOf(keys.get(1)), "同一分片的key应该位于同一槽位");
+
+        assertEquals(Collections.singletonList(BASE_KEY + ":product-1"),
+                stockService.getShardedLockKeys(null, Collections.singletonList("product-1")),
+                "分片值为null时不应该使用哈希标签");
+    }
+
+    /**
+     * 测试编码锁键时保留哈希标签
+     */
+    @Test
+    public void testEncoderKeepsHashTag() {
+        HashedLockKeyEncoder encoder = new HashedLockKeyEncoder("test:lock", 128, 16);
+        String key = BASE_KEY + ":{tenant-1}:20240101_merchant-000123";
+        String encoded = encoder.encode(key);
+        assertTrue(encoded.startsWith("test:lock:{tenant-1}:#"), "编码后应该保留哈希标签: " + encoded);
+        assertEquals(HashTags.slotOf(key), HashTags.slotOf(encoded), "编码后的key应该位于同一槽位");
+        assertEquals(key, encoder.decode(encoded), "应该能还原原始key");
+        assertNotEquals(encoded, encoder.encode(BASE_KEY + ":{tenant-1}:20240101_merchant-000124"),
+                "同一分片的不同key编码结果应该不同");
+    }
+}
@@ -0,0 +1,140 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LeaseRenewalService;
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 锁续期测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class LeaseRenewalTest {
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private LeaseRenewalService leaseRenewalService;
+
+    private LockTemplate lockTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        assertTrue(lockExecutor instanceof RenewableLockExecutor, "锁执行器应该支持续期");
+        leaseRenewalService = new LeaseRenewalService((RenewableLockExecutor) lockExecutor, 100);
+        lockTemplate = new LockTemplate();
+        lockTemplate.setLockExecutor(lockExecutor);
+        lockTemplate.setLeaseRenewalService(leaseRenewalService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        leaseRenewalService.close();
+    }
+
+    /**
+     * 测试持有期间锁不会过期，释放后停止续期
+     */
+    @Test
+    public void testRenewUntilReleased() throws InterruptedException {
+        String lockKey = "test:renewal:basic";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 600, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertEquals(1, leaseRenewalService.size(), "获取锁后应该开始续期");
+
+        Thread.sleep(1500);
+        assertTrue(lockTemplate.isLocked(lockKey), "持有期间锁不应该过期");
+
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertEquals(0, leaseRenewalService.size(), "释放锁后应该停止续期");
+        assertFalse(lockTemplate.isLocked(lockKey), "锁应该已被释放");
+    }
+
+    /**
+     * 测试读写锁、许可锁和多key锁的续期
+     */
+    @Test
+    public void testRenewAllLockTypes() throws InterruptedException {
+        List<LockInfo> locks = new ArrayList<>();
+        locks.add(lockTemplate.lock("test:renewal:read", LockMode.READ, 600, 1000, null));
+        locks.add(lockTemplate.lock("test:renewal:write", LockMode.WRITE, 600, 1000, null));
+        locks.add(lockTemplate.lockPermit("test:renewal:permit", 2, 600, 1000));
+        locks.add(lockTemplate.lockAll(Arrays.asList("test:renewal:multi:a", "test:renewal:multi:b"), 600, 1000));
+        locks.forEach(lockInfo -> assertNotNull(lockInfo, "应该成功获取锁"));
+
+        try {
+            Thread.sleep(1500);
+            assertTrue(lockTemplate.isLocked("test:renewal:read"), "读锁不应该过期");
+            assertTrue(lockTemplate.isLocked("test:renewal:write"), "写锁不应该过期");
+            assertEquals(1, lockTemplate.availablePermits("test:renewal:permit"), "许可不应该过期");
+            assertTrue(lockTemplate.isLocked("test:renewal:multi:a"), "多key锁不应该过期");
+            assertEquals(4, leaseRenewalService.size(), "所有锁都应该在续期");
+        } finally {
+            locks.forEach(lockInfo -> assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁"));
+        }
+    }
+
+    /**
+     * 测试锁丢失后停止续期
+     */
+    @Test
+    public void testStopRenewingLostLock() throws InterruptedException {
+        String lockKey = "test:renewal:lost";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 600, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        // 绕过锁模板直接释放，续期服务仍在跟踪该锁
+        assertTrue(lockExecutor.release(lockInfo), "应该成功释放锁");
+        Thread.sleep(500);
+        assertEquals(0, leaseRenewalService.size(), "锁丢失后应该停止续期");
+        assertFalse(lockTemplate.isLocked(lockKey), "不应该续期已释放的锁");
+    }
+
+    /**
+     * 测试一次批量续期大量锁，服务端脚本缓存被清空后自动加载
+     */
+    @Test
+    public void testRenewBatch() {
+        List<LockInfo> locks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LockInfo lockInfo = lockExecutor.acquire("test:renewal:batch:" + i, 5000, 1000);
+            assertNotNull(lockInfo, "应该成功获取锁");
+            locks.add(lockInfo);
+        }
+
+        try {
+            redissonClient.getScript().scriptFlush();
+            List<Boolean> results = ((RenewableLockExecutor) lockExecutor).renew(locks, 30000);
+            assertNotNull(results, "批量续期应该成功");
+            assertEquals(Collections.nCopies(200, true), results, "所有锁都应该续期成功");
+            assertTrue(redissonClient.getLock("test:renewal:batch:0").remainTimeToLive() > 5000,
+                    "续期后过期时间应该延长");
+        } finally {
+            locks.forEach(lockExecutor::release);
+        }
+    }
+}
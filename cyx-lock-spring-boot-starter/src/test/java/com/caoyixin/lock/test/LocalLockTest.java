@@ -0,0 +1,334 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.local.executor.LocalLockExecutor;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地锁测试类 - 使用LocalLockExecutor实现
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = LocalTestConfiguration.class)
+public class LocalLockTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        // 确保使用的是本地锁执行器
+        assertNotNull(lockExecutor);
+        assertTrue(lockExecutor instanceof LocalLockExecutor, "锁执行器应该是LocalLockExecutor类型");
+
+        // 重置库存服务状态
+        stockService.reset();
+    }
+
+    /**
+     * 测试基本锁获取和释放
+     */
+    @Test
+    public void testBasicLock() {
+        String lockKey = "local:basic:lock";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertEquals(lockKey, lockInfo.getKey(), "锁键应该匹配");
+        assertTrue(lockExecutor.isLocked(lockKey), "锁应该已被获取");
+
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "锁应该已被释放");
+
+        // 重复释放应该失败
+        assertFalse(lockTemplate.releaseLock(lockInfo), "第二次释放同一个锁应该失败");
+    }
+
+    /**
+     * 测试其他线程无法获取和释放已被持有的锁
+     */
+    @Test
+    public void testLockOwnership() throws Exception {
+        String lockKey = "local:owner:lock";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        try {
+            // 其他线程获取锁应该超时
+            LockInfo otherLock = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 30000, 200))
+                    .get(2, TimeUnit.SECONDS);
+            assertNull(otherLock, "其他线程不应该获取到已被持有的锁");
+
+            // 使用错误的锁信息释放应该失败
+            Boolean released = CompletableFuture.supplyAsync(
+                    () -> lockTemplate.releaseLock(new LockInfo().setKey(lockKey))).get(2, TimeUnit.SECONDS);
+            assertFalse(released, "错误的锁信息释放锁应该失败");
+            assertTrue(lockExecutor.isLocked(lockKey), "锁应该仍被持有");
+        } finally {
+            assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        }
+    }
+
+    /**
+     * 测试锁重入
+     */
+    @Test
+    public void testLockReentrant() {
+        String lockKey = "local:reentrant:lock";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        LockInfo reentrantLock = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(reentrantLock, "应该成功获取重入锁");
+
+        assertTrue(lockTemplate.releaseLock(reentrantLock), "应该成功释放重入锁");
+        assertTrue(lockExecutor.isLocked(lockKey), "主锁释放前，锁应该仍然存在");
+
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放初始锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "所有锁释放后，锁应该不再存在");
+    }
+
+    /**
+     * 测试锁过期
+     */
+    @Test
+    public void testLockExpiration() throws InterruptedException {
+        String lockKey = "local:expiration:lock";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 200, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertTrue(lockExecutor.isLocked(lockKey), "锁应该被持有");
+
+        Thread.sleep(300);
+        assertFalse(lockExecutor.isLocked(lockKey), "锁应该已经过期");
+        assertFalse(lockTemplate.releaseLock(lockInfo), "过期的锁释放应该失败");
+
+        // 过期后其他线程应该能获取锁
+        LockInfo newLock = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 5000, 0)).join();
+        assertNotNull(newLock, "锁过期后应该能获取新锁");
+        assertTrue(lockExecutor.release(newLock), "应该成功释放新锁");
+    }
+
+    /**
+     * 测试锁的非法参数
+     */
+    @Test
+    public void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> lockTemplate.lock("local:invalid:1", -100, 1000));
+        assertThrows(IllegalArgumentException.class, () -> lockTemplate.lock("local:invalid:2", 5000, -100));
+        assertThrows(IllegalArgumentException.class, () -> lockTemplate.lock(null, 5000, 1000));
+    }
+
+    /**
+     * 测试执行器不支持异步时异步锁模板方法回退到同步获取
+     */
+    @Test
+    public void testExecuteWithLockAsyncFallback() throws Exception {
+        String lockKey = "local:async:fallback";
+
+        CompletableFuture<String> result = lockTemplate.executeWithLockAsync(lockKey, 5000, 1000, () -> {
+            assertTrue(lockExecutor.isLocked(lockKey), "操作执行期间锁应该被持有");
+            return CompletableFuture.completedFuture("done");
+        });
+
+        assertEquals("done", result.get(3, TimeUnit.SECONDS), "应该返回操作结果");
+        assertFalse(lockExecutor.isLocked(lockKey), "操作完成后锁应该被释放");
+    }
+
+    /**
+     * 测试执行器不支持多key锁时依次获取
+     */
+    @Test
+    public void testLockAllFallback() throws Exception {
+        LockInfo held = lockTemplate.lock("local:multi:b", 30000, 1000);
+        assertNotNull(held, "应该成功获取锁");
+
+        // 部分key被其他线程占用时释放已获取的key
+        LockInfo failed = CompletableFuture.supplyAsync(() -> lockTemplate.lockAll(
+                Arrays.asList("local:multi:a", "local:multi:b"), 30000, 100)).get(3, TimeUnit.SECONDS);
+        assertNull(failed, "部分key被占用时应该获取失败");
+        assertFalse(lockExecutor.isLocked("local:multi:a"), "获取失败时不应该持有任何key");
+        lockTemplate.releaseLock(held);
+
+        LockInfo lockInfo = lockTemplate.lockAll(Arrays.asList("local:multi:b", "local:multi:a"), 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertTrue(lockExecutor.isLocked("local:multi:a") && lockExecutor.isLocked("local:multi:b"), "所有key都应该被锁定");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertFalse(lockExecutor.isLocked("local:multi:a") || lockExecutor.isLocked("local:multi:b"), "所有key都应该被释放");
+    }
+
+    /**
+     * 测试执行器不支持读写锁时以独占锁代替
+     */
+    @Test
+    public void testReadLockFallback() throws Exception {
+        LockInfo lockInfo = lockTemplate.lock("local:rw", LockMode.READ, 30000, 1000, null);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertEquals(LockMode.EXCLUSIVE, lockInfo.getMode(), "不支持读写锁时应该获取独占锁");
+
+        LockInfo otherRead = CompletableFuture.supplyAsync(
+                () -> lockTemplate.lock("local:rw", LockMode.READ, 30000, 100, null)).get(3, TimeUnit.SECONDS);
+        assertNull(otherRead, "独占锁被持有时其他线程不应该获取成功");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+    }
+
+    /**
+     * 测试执行器不支持许可锁时以独占锁代替
+     */
+    @Test
+    public void testPermitFallback() throws Exception {
+        LockInfo lockInfo = lockTemplate.lockPermit("local:permit", 3, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertNull(lockInfo.getPermits(), "不支持许可锁时应该获取独占锁");
+
+        LockInfo other = CompletableFuture.supplyAsync(
+                () -> lockTemplate.lockPermit("local:permit", 3, 30000, 100)).get(3, TimeUnit.SECONDS);
+        assertNull(other, "独占锁被持有时其他线程不应该获取成功");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+    }
+
+    /**
+     * 测试后备线程池中获取的锁不与线程池的线程绑定，同一线程上的两次异步获取互斥
+     */
+    @Test
+    public void testAsyncLockNotBoundToPoolThread() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        LockTemplate template = new LockTemplate();
+        template.setLockExecutor(new LocalLockExecutor());
+        template.setFallbackExecutor(pool);
+        try {
+            LockInfo first = template.lockAsync("local:async:pool", 30000, 0).get(3, TimeUnit.SECONDS);
+            assertNotNull(first, "应该成功异步获取锁");
+            assertNull(template.lockAsync("local:async:pool", 30000, 0).get(3, TimeUnit.SECONDS),
+                    "同一线程池线程上的异步获取不应该重入");
+            assertNull(template.lockPermitAsync("local:async:pool", 3, 30000, 0, null).get(3, TimeUnit.SECONDS),
+                    "以独占锁代替的许可锁也不应该重入");
+            assertNull(template.lockAllAsync(Arrays.asList("local:async:pool", "local:async:other"), 30000, 0, null)
+                    .get(3, TimeUnit.SECONDS), "多key锁也不应该重入");
+            assertTrue(template.releaseLock(first), "应该成功释放锁");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 测试续期后锁不会过期
+     */
+    @Test
+    public void testRenew() throws InterruptedException {
+        LockInfo lockInfo = lockTemplate.lock("local:renew", 200, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        assertEquals(Arrays.asList(true), ((RenewableLockExecutor) lockExecutor).renew(Arrays.asList(lockInfo), 5000),
+                "持有中的锁应该续期成功");
+        Thread.sleep(300);
+        assertTrue(lockExecutor.isLocked("local:renew"), "续期后锁不应该过期");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertEquals(Arrays.asList(false), ((RenewableLockExecutor) lockExecutor).renew(Arrays.asList(lockInfo), 5000),
+                "已释放的锁不应该续期成功");
+    }
+
+    /**
+     * 测试获取锁时生成严格递增的防护令牌
+     */
+    @Test
+    public void testFencingToken() {
+        LockInfo first = lockTemplate.lock("local:fencing", 5000, 1000);
+        assertNotNull(first, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(first), "应该成功释放锁");
+
+        LockInfo second = lockTemplate.lock("local:fencing", 5000, 1000);
+        assertNotNull(second, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(second), "应该成功释放锁");
+
+        assertNotNull(first.getFencingToken(), "应该生成防护令牌");
+        assertTrue(second.getFencingToken() > first.getFencingToken(), "防护令牌应该严格递增");
+    }
+
+    /**
+     * 测试并发减少库存
+     */
+    @Test
+    public void testConcurrentStockReduction() throws Exception {
+        String productId = "local-product";
+        int threads = 10;
+
+        stockService.initStock(productId, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> stockService.decrementStockWithProgrammaticLock(productId, 10)));
+        }
+
+        for (Future<Boolean> future : results) {
+            assertTrue(future.get(10, TimeUnit.SECONDS), "所有线程都应该成功减少库存");
+        }
+        assertEquals(0, stockService.getStock(productId), "最终库存应该为0");
+
+        // 注解方式同样生效
+        stockService.initStock(productId, 10);
+        assertTrue(stockService.decrementStock(productId, 3), "应该成功减少库存");
+        assertEquals(7, stockService.getStock(productId), "库存应该正确减少");
+
+        executor.shutdown();
+    }
+
+    /**
+     * 测试等待锁释放
+     */
+    @Test
+    public void testWaitForLock() throws Exception {
+        String lockKey = "local:wait";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> lockTemplate.waitForLock(lockKey, 5000));
+        Thread.sleep(200);
+        assertFalse(waiter.isDone(), "锁被持有时不应该返回");
+
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertTrue(waiter.get(1, TimeUnit.SECONDS), "锁释放后等待应该成功");
+
+        // 锁过期后等待者返回
+        lockTemplate.lock(lockKey, 300, 1000);
+        assertTrue(lockTemplate.waitForLock(lockKey, 3000), "锁过期后等待应该成功");
+        assertTrue(lockTemplate.waitForLock("local:wait:none", 0), "未被持有的锁应该直接返回");
+    }
+
+    /**
+     * 测试注解未指定过期时间时使用全局配置
+     */
+    @Test
+    public void testAnnotationDefaultsFromProperties() {
+        long ttl = stockService.getLockTtl("local-ttl");
+        assertTrue(ttl >= 29000 && ttl <= 30001, "应该使用全局配置的过期时间: " + ttl);
+    }
+
+}
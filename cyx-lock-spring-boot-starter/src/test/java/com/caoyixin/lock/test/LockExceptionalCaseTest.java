@@ -3,6 +3,7 @@ package com.caoyixin.lock.test;
 import com.caoyixin.lock.core.LockExecutor;
 import com.caoyixin.lock.core.LockInfo;
 import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.ReleaseResult;
 import com.caoyixin.lock.redisson.executor.RedissonLockExecutor;
 import com.caoyixin.lock.test.config.TestConfiguration;
 import org.junit.jupiter.api.BeforeEach;
@@ -132,6 +133,57 @@ public class LockExceptionalCaseTest {
         assertFalse(secondRelease, "第二次释放同一个锁应该失败");
     }
 
+    /**
+     * 测试释放锁的详细结果
+     */
+    @Test
+    public void testReleaseResult() throws InterruptedException {
+        String lockKey = "test:release:result";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 5000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        // 持有者标识不匹配
+        LockInfo wrongLockInfo = new LockInfo().setKey(lockKey).setValue("wrong-owner");
+        assertEquals(ReleaseResult.NOT_OWNER, lockTemplate.releaseLockWithResult(wrongLockInfo), "应该返回非持有者");
+
+        // 正确释放
+        assertEquals(ReleaseResult.RELEASED, lockTemplate.releaseLockWithResult(lockInfo), "应该返回释放成功");
+
+        // 已释放的锁
+        assertEquals(ReleaseResult.EXPIRED, lockTemplate.releaseLockWithResult(lockInfo), "应该返回锁已不存在");
+
+        // 已过期的锁
+        LockInfo shortLock = lockTemplate.lock(lockKey, 300, 1000);
+        assertNotNull(shortLock, "应该成功获取锁");
+        Thread.sleep(500);
+        assertEquals(ReleaseResult.EXPIRED, lockTemplate.releaseLockWithResult(shortLock), "应该返回锁已过期");
+    }
+
+    /**
+     * 测试在其他线程按持有者标识释放锁，并唤醒等待者
+     */
+    @Test
+    public void testReleaseFromOtherThread() throws Exception {
+        String lockKey = "test:release:other-thread";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        // 等待者在锁释放后应该被解锁消息唤醒，而不是等到超时
+        CompletableFuture<LockInfo> waiter = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 5000, 10000));
+        Thread.sleep(200);
+
+        long releaseAt = System.currentTimeMillis();
+        Boolean released = CompletableFuture.supplyAsync(() -> lockTemplate.releaseLock(lockInfo)).get(3, TimeUnit.SECONDS);
+        assertTrue(released, "持有正确锁信息的其他线程应该能释放锁");
+
+        LockInfo waited = waiter.get(5, TimeUnit.SECONDS);
+        assertNotNull(waited, "等待者应该获取到锁");
+        assertTrue(System.currentTimeMillis() - releaseAt < 2000, "等待者应该被及时唤醒");
+        assertTrue(lockExecutor.release(waited), "应该成功释放等待者的锁");
+    }
+
     /**
      * 测试使用空锁信息释放锁
      */
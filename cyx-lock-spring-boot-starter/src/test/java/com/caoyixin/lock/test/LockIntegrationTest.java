@@ -335,4 +335,38 @@ public class LockIntegrationTest {
 
         executor.shutdown();
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试等待锁释放
+     */
+    @Test
+    public void testWaitForLock() throws Exception {
+        String lockKey = "test:wait:lock";
+
+        // 锁被释放后等待者立即返回
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> lockTemplate.waitForLock(lockKey, 5000));
+        Thread.sleep(300);
+        assertFalse(waiter.isDone(), "锁被持有时不应该返回");
+
+        long releaseAt = System.currentTimeMillis();
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertTrue(waiter.get(3, TimeUnit.SECONDS), "锁释放后等待应该成功");
+        assertTrue(System.currentTimeMillis() - releaseAt < 1000, "等待者应该被及时唤醒");
+
+        // 锁被持有超过等待时间
+        lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertFalse(lockTemplate.waitForLock(lockKey, 300), "等待超时应该返回false");
+        lockTemplate.releaseLock(lockInfo);
+
+        // 锁过期不会发出通知，等待者在锁过期后返回
+        lockInfo = lockTemplate.lock(lockKey, 500, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        long start = System.currentTimeMillis();
+        assertTrue(lockTemplate.waitForLock(lockKey, 5000), "锁过期后等待应该成功");
+        assertTrue(System.currentTimeMillis() - start < 2000, "等待者应该在锁过期后返回");
+    }
+
+}
@@ -0,0 +1,248 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.support.GeneratedLockKeys;
+import com.caoyixin.lock.support.LockKeyBuilder;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 锁键生成器测试 - 验证简单表达式、缓存和编译后的表达式与SpEL解释执行的结果一致
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = LocalTestConfiguration.class)
+public class LockKeyBuilderTest {
+
+    private static final String BASE_KEY = "test:lock:KeyTarget:";
+
+    /**
+     * 两个简单表达式的锁键每次构建分配的内存目标(字节)，包括评估上下文、builder和结果字符串
+     */
+    private static final long ALLOCATION_TARGET = 512;
+
+    @Autowired
+    private LockKeyBuilder keyBuilder;
+
+    /**
+     * 测试参数名、#p0和属性表达式在多次调用后结果不变
+     */
+    @Test
+    public void testRepeatedExpressions() throws Exception {
+        ProceedingJoinPoint joinPoint = joinPoint("order", new Object[] { "order-1", new Item("item-1", 3) });
+        String[] keys = { "#orderId", "#p1.id", "#a1.quantity" };
+
+        // 超过编译阈值，后续调用使用编译后的表达式
+        for (int i = 0; i < 300; i++) {
+            assertEquals(BASE_KEY + "order:order-1_item-1_3", keyBuilder.buildKey(joinPoint, keys),
+                    "第" + i + "次生成的锁键应该相同");
+        }
+        assertEquals(Arrays.asList(BASE_KEY + "order:order-1", BASE_KEY + "order:item-1"),
+                keyBuilder.buildKeys(joinPoint, new String[] { "#orderId", "#item.id" }), "每个表达式应该生成一个锁键");
+    }
+
+    /**
+     * 测试表达式编译后参数类型变化时仍能正确求值
+     */
+    @Test
+    public void testArgumentTypeChange() throws Exception {
+        String[] keys = { "#value.toString()" };
+        for (int i = 0; i < 300; i++) {
+            assertEquals(BASE_KEY + "any:text", keyBuilder.buildKey(joinPoint("any", new Object[] { "text" }), keys));
+        }
+        assertEquals(BASE_KEY + "any:42", keyBuilder.buildKey(joinPoint("any", new Object[] { 42 }), keys),
+                "参数类型变化后应该退回解释执行");
+    }
+
+    /**
+     * 测试简单表达式直接读取属性的结果与SpEL一致，无法直接读取时由SpEL处理
+     */
+    @Test
+    public void testSimpleExpressionFallback() throws Exception {
+        ProceedingJoinPoint joinPoint = joinPoint("order", new Object[] { "order-2", new Item("item-2", 1) });
+        assertEquals(BASE_KEY + "order:true", keyBuilder.buildKey(joinPoint, new String[] { "#item.active" }),
+                "应该通过isX()读取布尔属性");
+        assertEquals(BASE_KEY + "order:ITEM-2", keyBuilder.buildKey(joinPoint, new String[] { "#item.id.toUpperCase()" }),
+                "方法调用应该使用SpEL求值");
+
+        // 参数为null时与SpEL一致，求值失败后使用原始表达式
+        ProceedingJoinPoint nullItem = joinPoint("order", new Object[] { "order-3", null });
+        assertEquals(BASE_KEY + "order:#item.id", keyBuilder.buildKey(nullItem, new String[] { "#item.id" }),
+                "属性路径中出现null时应该使用原始表达式");
+        assertEquals(BASE_KEY + "order:null", keyBuilder.buildKey(nullItem, new String[] { "#item" }),
+                "参数为null时锁键应该为null");
+    }
+
+    /**
+     * 测试编译期生成的求值器，测试代码编译时由cyx-lock-processor生成
+     */
+    @Test
+    public void testGeneratedKeys() throws Exception {
+        Method method = StockService.class.getMethod("decrementStockStriped", String.class, int.class);
+        Class<?> generated = Class.forName(GeneratedLockKeys.classNameOf(StockService.class.getName()));
+        GeneratedLockKeys keys = (GeneratedLockKeys) generated.getDeclaredConstructor().newInstance();
+        String signature = GeneratedLockKeys.signatureOf(method);
+
+        assertEquals("product-1", keys.evaluate(signature, "#productId", new Object[] { "product-1", 1 }),
+                "应该直接返回参数");
+        assertSame(GeneratedLockKeys.UNSUPPORTED, keys.evaluate(signature, "#quantity", new Object[] { "product-1", 1 }),
+                "未声明的表达式应该交给SpEL");
+
+        ProceedingJoinPoint joinPoint = joinPoint(StockService.class, method, new Object[] { "product-1", 1 });
+        assertEquals("test:lock:StockService:decrementStockStriped:product-1",
+                keyBuilder.buildKey(joinPoint, new String[] { "#productId" }), "应该使用生成的求值器构建锁键");
+    }
+
+    /**
+     * 测试常见类型的值与String.valueOf的结果一致
+     */
+    @Test
+    public void testValueFormatting() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        Object[] values = { "text", 42L, -7, uuid, null, 3.5 };
+        for (Object value : values) {
+            ProceedingJoinPoint joinPoint = joinPoint("any", new Object[] { value });
+            assertEquals(BASE_KEY + "any:" + value, keyBuilder.buildKey(joinPoint, new String[] { "#value" }),
+                    "锁键应该与String.valueOf一致: " + value);
+            assertEquals(Arrays.asList(BASE_KEY + "any:" + value),
+                    keyBuilder.buildKeys(joinPoint, new String[] { "#value" }), "锁键应该与String.valueOf一致: " + value);
+        }
+    }
+
+    /**
+     * 测试每次构建锁键分配的内存不超过目标值，JVM不支持统计线程分配内存时跳过
+     */
+    @Test
+    public void testAllocationPerCall() throws Exception {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean, "不支持统计线程分配内存");
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled(),
+                "不支持统计线程分配内存");
+
+        // 使用动态代理代替Mockito，避免mock调用本身的分配
+        Method method = KeyTarget.class.getDeclaredMethod("order", String.class, Item.class);
+        ProceedingJoinPoint joinPoint = proxyJoinPoint(method, new Object[] { "order-1", new Item("item-1", 3) });
+        String[] keys = { "#orderId", "#item.id" };
+        int iterations = 20000;
+        for (int i = 0; i < iterations; i++) {
+            keyBuilder.buildKey(joinPoint, keys);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            keyBuilder.buildKey(joinPoint, keys);
+        }
+        long bytesPerCall = (allocationBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+        assertTrue(bytesPerCall <= ALLOCATION_TARGET, "每次构建锁键分配的内存应该不超过"
+                + ALLOCATION_TARGET + "字节: " + bytesPerCall);
+    }
+
+    /**
+     * 测试自定义生成器未实现分片重载时忽略分片表达式，构建不带哈希标签的key而不是抛出异常
+     */
+    @Test
+    public void testCustomBuilderIgnoresShardKey() throws Exception {
+        LockKeyBuilder custom = (joinPoint, keys) -> "custom:" + String.join("_", keys);
+        ProceedingJoinPoint joinPoint = joinPoint("order", new Object[] { "order-1", new Item("item-1", 3) });
+        String[] keys = { "a", "b" };
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("custom:a_b", custom.buildKey(joinPoint, keys, "#orderId"), "应该忽略分片表达式");
+            assertEquals(Arrays.asList("custom:a_b"), custom.buildKeys(joinPoint, keys, "#orderId"),
+                    "应该忽略分片表达式");
+        }
+    }
+
+    private static ProceedingJoinPoint proxyJoinPoint(Method method, Object[] args) {
+        return (ProceedingJoinPoint) Proxy.newProxyInstance(LockKeyBuilderTest.class.getClassLoader(),
+                new Class<?>[] { ProceedingJoinPoint.class, MethodSignature.class }, (proxy, m, methodArgs) -> {
+                    switch (m.getName()) {
+                        case "getSignature":
+                            return proxy;
+                        case "getMethod":
+                            return method;
+                        case "getArgs":
+                            return args;
+                        case "getName":
+                            return method.getName();
+                        case "getDeclaringType":
+                            return method.getDeclaringClass();
+                        default:
+                            throw new UnsupportedOperationException(m.getName());
+                    }
+                });
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Object[] args) throws Exception {
+        Method method = Arrays.stream(KeyTarget.class.getDeclaredMethods())
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(NoSuchMethodException::new);
+        return joinPoint(KeyTarget.class, method, args);
+    }
+
+    private static ProceedingJoinPoint joinPoint(Class<?> type, Method method, Object[] args) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getName()).thenReturn(method.getName());
+        when(signature.getDeclaringType()).thenReturn(type);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        return joinPoint;
+    }
+
+    /**
+     * 生成锁键的目标方法
+     */
+    static class KeyTarget {
+
+        public void order(String orderId, Item item) {
+        }
+
+        public void any(Object value) {
+        }
+    }
+
+    public static class Item {
+
+        private final String id;
+
+        private final int quantity;
+
+        Item(String id, int quantity) {
+            this.id = id;
+            this.quantity = quantity;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public boolean isActive() {
+            return quantity > 0;
+        }
+    }
+}
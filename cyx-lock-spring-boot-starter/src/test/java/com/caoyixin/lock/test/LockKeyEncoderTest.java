@@ -0,0 +1,130 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.exception.LockException;
+import com.caoyixin.lock.support.HashedLockKeyEncoder;
+import com.caoyixin.lock.support.LockKeyEncoder;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 锁键编码测试 - 使用LocalLockExecutor实现
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = LocalTestConfiguration.class, properties = "cyx-lock.key-hashing-enabled=true")
+public class LockKeyEncoderTest {
+
+    private static final String LONG_KEY = "cyx:lock:OrderSettlementService:settleMerchantBatch:20240101_merchant-000123";
+
+    @Autowired
+    private LockKeyEncoder keyEncoder;
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        stockService.reset();
+    }
+
+    /**
+     * 测试编码保留前缀、长度固定且结果稳定
+     */
+    @Test
+    public void testEncode() {
+        HashedLockKeyEncoder encoder = new HashedLockKeyEncoder("cyx:lock", 128, 16);
+        String encoded = encoder.encode(LONG_KEY);
+        assertTrue(encoded.startsWith("cyx:lock:#"), "应该保留可读前缀: " + encoded);
+        assertEquals("cyx:lock:#".length() + 22, encoded.length(), "128位哈希应该编码为22个字符");
+        assertEquals(encoded, new HashedLockKeyEncoder("cyx:lock", 128, 0).encode(LONG_KEY), "编码结果应该稳定");
+        assertEquals(LONG_KEY, encoder.decode(encoded), "应该能还原原始key");
+
+        assertEquals("cyx:lock:#".length() + 11, new HashedLockKeyEncoder("cyx:lock", 64, 0).encode(LONG_KEY).length(),
+                "64位哈希应该编码为11个字符");
+        assertEquals("cyx:lock:a:1", encoder.encode("cyx:lock:a:1"), "编码后不更短的key应该保持不变");
+        assertTrue(encoder.encode("other:" + LONG_KEY).startsWith("#"), "不以前缀开头的key应该整体编码");
+
+        Set<String> encodedKeys = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            encodedKeys.add(encoder.encode(LONG_KEY + i));
+        }
+        assertEquals(10000, encodedKeys.size(), "不同key的编码结果应该不同");
+        assertEquals("#unknown-key-that-was-never-encoded", encoder.decode("#unknown-key-that-was-never-encoded"),
+                "未知的key应该原样返回");
+    }
+
+    /**
+     * 测试反查表有界，不保存原始key时原样返回
+     */
+    @Test
+    public void testReverseMapBounded() {
+        HashedLockKeyEncoder encoder = new HashedLockKeyEncoder("cyx:lock", 128, 4);
+        String first = encoder.encode(LONG_KEY + "first");
+        for (int i = 0; i < 1000; i++) {
+            encoder.encode(LONG_KEY + i);
+        }
+        String last = encoder.encode(LONG_KEY + "last");
+        assertEquals(LONG_KEY + "last", encoder.decode(last), "最近编码的key应该能还原");
+        assertNotEquals(LONG_KEY + "first", encoder.decode(first), "较早的key应该被覆盖");
+
+        HashedLockKeyEncoder noReverseMap = new HashedLockKeyEncoder("cyx:lock", 128, 0);
+        String encoded = noReverseMap.encode(LONG_KEY);
+        assertEquals(encoded, noReverseMap.decode(encoded), "不保存原始key时应该原样返回");
+        assertThrows(IllegalArgumentException.class, () -> new HashedLockKeyEncoder("cyx:lock", 32, 0));
+    }
+
+    /**
+     * 测试注解生成的锁键编码后再加锁
+     */
+    @Test
+    public void testAnnotationUsesEncodedKey() throws Exception {
+        String productId = "encoded-product";
+        stockService.initStock(productId, 10);
+        String lockKey = keyEncoder.encode("test:lock:StockService:decrementStockTryOnce:" + productId);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+            assertNotNull(lockInfo, "持有者应该获取到锁");
+            locked.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lockTemplate.releaseLock(lockInfo);
+            }
+        });
+        assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到锁");
+
+        try {
+            assertThrows(LockException.class, () -> stockService.decrementStockTryOnce(productId, 1),
+                    "编码后的key被占用时应该获取失败");
+        } finally {
+            done.countDown();
+            holder.get(3, TimeUnit.SECONDS);
+        }
+
+        assertTrue(stockService.decrementStockTryOnce(productId, 1), "锁空闲时应该成功");
+        assertEquals(9, stockService.getStock(productId), "库存应该减少");
+    }
+}
@@ -2,7 +2,7 @@ package com.caoyixin.lock.test;
 
 import com.caoyixin.lock.core.LockInfo;
 import com.caoyixin.lock.core.LockTemplate;
-import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,10 +20,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * 分布式锁性能测试类
+ * 分布式锁性能测试类 - 使用本地锁实现，不依赖Redis
  */
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = TestConfiguration.class)
+@SpringBootTest(classes = LocalTestConfiguration.class)
 public class LockPerformanceTest {
 
     private static final Logger logger = LoggerFactory.getLogger(LockPerformanceTest.class);
@@ -0,0 +1,194 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.RenewableLockExecutor;
+import com.caoyixin.lock.redisson.executor.RedissonLuaLockExecutor;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基于Lua脚本的锁执行器测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = { TestConfiguration.class, LuaLockTest.TestConfig.class })
+public class LuaLockTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        assertNotNull(lockExecutor);
+        assertTrue(lockExecutor instanceof RedissonLuaLockExecutor, "锁执行器应该是RedissonLuaLockExecutor类型");
+    }
+
+    /**
+     * 测试基本锁获取和释放
+     */
+    @Test
+    public void testBasicLock() {
+        String lockKey = "test:lua:basic";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertNotNull(lockInfo.getValue(), "锁应该带有持有者标识");
+        assertTrue(lockExecutor.isLocked(lockKey), "锁应该已被获取");
+
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "锁应该已被释放");
+        assertFalse(lockTemplate.releaseLock(lockInfo), "第二次释放同一个锁应该失败");
+    }
+
+    /**
+     * 测试持有者校验
+     */
+    @Test
+    public void testOwnerCheckedRelease() throws Exception {
+        String lockKey = "test:lua:owner";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        try {
+            LockInfo otherLock = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 30000, 200))
+                    .get(2, TimeUnit.SECONDS);
+            assertNull(otherLock, "其他线程不应该获取到已被持有的锁");
+
+            LockInfo wrongLockInfo = new LockInfo().setKey(lockKey).setValue("wrong-owner");
+            assertFalse(lockTemplate.releaseLock(wrongLockInfo), "错误的持有者释放锁应该失败");
+            assertTrue(lockExecutor.isLocked(lockKey), "锁应该仍被持有");
+        } finally {
+            assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        }
+    }
+
+    /**
+     * 测试等待锁释放后获取
+     */
+    @Test
+    public void testWaitForRelease() throws Exception {
+        String lockKey = "test:lua:wait";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        CompletableFuture<LockInfo> waiter = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 5000, 3000));
+        Thread.sleep(200);
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+
+        LockInfo waited = waiter.get(5, TimeUnit.SECONDS);
+        assertNotNull(waited, "等待者应该在锁释放后获取到锁");
+        assertTrue(lockExecutor.release(waited), "应该成功释放等待者的锁");
+    }
+
+    /**
+     * 测试锁过期
+     */
+    @Test
+    public void testLockExpiration() throws InterruptedException {
+        String lockKey = "test:lua:expiration";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 500, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        Thread.sleep(800);
+        assertFalse(lockExecutor.isLocked(lockKey), "锁应该已经过期");
+        assertFalse(lockTemplate.releaseLock(lockInfo), "过期的锁释放应该失败");
+    }
+
+    /**
+     * 测试释放锁时通过通知唤醒等待者
+     */
+    @Test
+    public void testWaitForLock() throws Exception {
+        String lockKey = "test:lua:wait-for-lock";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> lockTemplate.waitForLock(lockKey, 5000));
+        Thread.sleep(300);
+        assertFalse(waiter.isDone(), "锁被持有时不应该返回");
+
+        long releaseAt = System.currentTimeMillis();
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertTrue(waiter.get(3, TimeUnit.SECONDS), "锁释放后等待应该成功");
+        assertTrue(System.currentTimeMillis() - releaseAt < 1000, "等待者应该被及时唤醒");
+    }
+
+    /**
+     * 测试批量续期，只续期仍由该持有者持有的锁
+     */
+    @Test
+    public void testRenew() {
+        LockInfo held = lockTemplate.lock("test:lua:renew:held", 1000, 1000);
+        LockInfo released = lockTemplate.lock("test:lua:renew:released", 1000, 1000);
+        assertNotNull(held, "应该成功获取锁");
+        assertNotNull(released, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(released), "应该成功释放锁");
+
+        try {
+            assertEquals(Arrays.asList(true, false),
+                    ((RenewableLockExecutor) lockExecutor).renew(Arrays.asList(held, released), 30000),
+                    "只有仍持有的锁应该续期成功");
+            assertFalse(lockExecutor.isLocked("test:lua:renew:released"), "不应该续期已释放的锁");
+        } finally {
+            lockTemplate.releaseLock(held);
+        }
+    }
+
+    /**
+     * 测试获取锁时生成严格递增的防护令牌
+     */
+    @Test
+    public void testFencingToken() {
+        LockInfo first = lockTemplate.lock("test:lua:fencing", 5000, 1000);
+        assertNotNull(first, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(first), "应该成功释放锁");
+
+        LockInfo second = lockTemplate.lock("test:lua:fencing", 5000, 1000);
+        assertNotNull(second, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(second), "应该成功释放锁");
+
+        assertNotNull(first.getFencingToken(), "应该生成防护令牌");
+        assertTrue(second.getFencingToken() > first.getFencingToken(), "防护令牌应该严格递增");
+    }
+
+    /**
+     * 测试配置类
+     */
+    @Configuration
+    @Import(TestConfiguration.class)
+    public static class TestConfig {
+
+        @Bean
+        @Primary
+        public LockExecutor luaLockExecutor(RedissonClient redissonClient) {
+            RedissonLuaLockExecutor executor = new RedissonLuaLockExecutor();
+            executor.setRedissonClient(redissonClient);
+            executor.loadScripts();
+            return executor;
+        }
+    }
+}
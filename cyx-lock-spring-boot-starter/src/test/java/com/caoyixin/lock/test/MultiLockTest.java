@@ -0,0 +1,129 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.MultiLockExecutor;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多key锁测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class MultiLockTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        assertTrue(lockExecutor instanceof MultiLockExecutor, "锁执行器应该支持多key锁");
+        stockService.reset();
+    }
+
+    /**
+     * 测试同时获取和释放多个key
+     */
+    @Test
+    public void testLockAll() {
+        LockInfo lockInfo = lockTemplate.lockAll(Arrays.asList("test:multi:b", "test:multi:a", "test:multi:b"),
+                30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertEquals(2, lockInfo.getLocks().size(), "重复的key应该只加锁一次");
+        assertEquals("test:multi:a", lockInfo.getLocks().get(0).getKey(), "key应该按顺序获取");
+        assertTrue(lockTemplate.isLocked("test:multi:a"), "所有key都应该被锁定");
+        assertTrue(lockTemplate.isLocked("test:multi:b"), "所有key都应该被锁定");
+
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertFalse(lockTemplate.isLocked("test:multi:a"), "所有key都应该被释放");
+        assertFalse(lockTemplate.isLocked("test:multi:b"), "所有key都应该被释放");
+        assertFalse(lockTemplate.releaseLock(lockInfo), "第二次释放同一个锁应该失败");
+    }
+
+    /**
+     * 测试部分key被占用时不持有任何key
+     */
+    @Test
+    public void testLockAllIsAtomic() throws Exception {
+        LockInfo held = lockTemplate.lock("test:multi:atomic:b", 30000, 1000);
+        assertNotNull(held, "应该成功获取锁");
+
+        try {
+            LockInfo lockInfo = CompletableFuture.supplyAsync(() -> lockTemplate.lockAll(
+                    Arrays.asList("test:multi:atomic:a", "test:multi:atomic:b", "test:multi:atomic:c"), 30000, 200))
+                    .get(3, TimeUnit.SECONDS);
+            assertNull(lockInfo, "部分key被占用时应该获取失败");
+            assertFalse(lockTemplate.isLocked("test:multi:atomic:a"), "获取失败时不应该持有任何key");
+            assertFalse(lockTemplate.isLocked("test:multi:atomic:c"), "获取失败时不应该持有任何key");
+        } finally {
+            lockTemplate.releaseLock(held);
+        }
+    }
+
+    /**
+     * 测试等待被占用的key释放后获取全部key
+     */
+    @Test
+    public void testLockAllWaitsForRelease() throws Exception {
+        LockInfo held = lockTemplate.lock("test:multi:wait:b", 30000, 1000);
+        assertNotNull(held, "应该成功获取锁");
+
+        CompletableFuture<LockInfo> waiter = CompletableFuture.supplyAsync(() -> lockTemplate.lockAll(
+                Arrays.asList("test:multi:wait:a", "test:multi:wait:b"), 30000, 5000));
+        Thread.sleep(300);
+        assertFalse(waiter.isDone(), "key被占用时应该等待");
+
+        assertTrue(lockTemplate.releaseLock(held), "应该成功释放锁");
+        LockInfo lockInfo = waiter.get(3, TimeUnit.SECONDS);
+        assertNotNull(lockInfo, "key释放后应该获取到全部key");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+    }
+
+    /**
+     * 测试相反顺序的并发转移不会死锁
+     */
+    @Test
+    public void testMultiLockAnnotation() throws Exception {
+        stockService.initStock("multi-a", 100);
+        stockService.initStock("multi-b", 100);
+
+        int threads = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            boolean forward = i % 2 == 0;
+            results.add(executor.submit(() -> forward
+                    ? stockService.transferStockWithMultiLock("multi-a", "multi-b", 10)
+                    : stockService.transferStockWithMultiLock("multi-b", "multi-a", 5)));
+        }
+
+        for (Future<Boolean> future : results) {
+            assertTrue(future.get(10, TimeUnit.SECONDS), "所有转移都应该成功");
+        }
+        assertEquals(75, stockService.getStock("multi-a"), "源产品库存应该正确");
+        assertEquals(125, stockService.getStock("multi-b"), "目标产品库存应该正确");
+
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,120 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.PermitLockExecutor;
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 许可锁测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class PermitLockTest {
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        assertTrue(lockExecutor instanceof PermitLockExecutor, "锁执行器应该支持许可锁");
+        stockService.reset();
+    }
+
+    /**
+     * 测试许可数量限制同时持有者的数量
+     */
+    @Test
+    public void testPermitLimit() {
+        String lockKey = "test:permit:limit";
+
+        List<LockInfo> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                LockInfo lockInfo = lockTemplate.lockPermit(lockKey, 3, 30000, 1000);
+                assertNotNull(lockInfo, "许可未用完时应该获取成功");
+                assertEquals(3, lockInfo.getPermits(), "锁信息应该包含许可总数");
+                held.add(lockInfo);
+            }
+            assertEquals(0, lockTemplate.availablePermits(lockKey), "许可应该已用完");
+            assertNull(lockTemplate.lockPermit(lockKey, 3, 30000, 100), "许可用完时应该获取失败");
+
+            // 释放一个许可后可以再次获取
+            assertTrue(lockTemplate.releaseLock(held.remove(0)), "应该成功释放许可");
+            LockInfo lockInfo = lockTemplate.lockPermit(lockKey, 3, 30000, 1000);
+            assertNotNull(lockInfo, "释放许可后应该获取成功");
+            held.add(lockInfo);
+        } finally {
+            held.forEach(lockTemplate::releaseLock);
+        }
+        assertEquals(3, lockTemplate.availablePermits(lockKey), "所有许可都应该已归还");
+    }
+
+    /**
+     * 测试许可过期后自动归还，过期许可释放失败
+     */
+    @Test
+    public void testPermitExpiration() throws Exception {
+        String lockKey = "test:permit:expire";
+
+        LockInfo expired = lockTemplate.lockPermit(lockKey, 1, 200, 1000);
+        assertNotNull(expired, "应该成功获取许可");
+        Thread.sleep(300);
+
+        LockInfo lockInfo = lockTemplate.lockPermit(lockKey, 1, 30000, 1000);
+        assertNotNull(lockInfo, "许可过期后应该获取成功");
+        assertEquals(ReleaseResult.EXPIRED, lockTemplate.releaseLockWithResult(expired), "过期的许可释放应该失败");
+
+        // 在其他线程按许可标识释放
+        ReleaseResult result = CompletableFuture.supplyAsync(() -> lockTemplate.releaseLockWithResult(lockInfo))
+                .get(3, TimeUnit.SECONDS);
+        assertEquals(ReleaseResult.RELEASED, result, "应该能在其他线程释放许可");
+    }
+
+    /**
+     * 测试注解方法的并发数不超过许可数量
+     */
+    @Test
+    public void testAnnotationWithPermits() throws Exception {
+        String supplierId = "permit-supplier";
+        stockService.initStock(supplierId, 10);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return stockService.querySupplierStock(supplierId, 200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }));
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(10, future.get(5, TimeUnit.SECONDS), "所有调用都应该成功");
+        }
+        assertEquals(2, stockService.getMaxConcurrentQueries(), "并发数应该等于许可数量");
+    }
+}
@@ -0,0 +1,182 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.ReactiveLockTemplate;
+import com.caoyixin.lock.exception.LockException;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应式锁和异步注解方法测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class ReactiveLockTest {
+
+    private static final String REACTIVE_KEY_PREFIX = "test:lock:StockService:decrementStockReactive:";
+
+    private static final String ASYNC_KEY_PREFIX = "test:lock:StockService:decrementStockAsync:";
+
+    @Autowired
+    private ReactiveLockTemplate reactiveLockTemplate;
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        stockService.reset();
+    }
+
+    /**
+     * 测试锁在Mono完成后才释放
+     */
+    @Test
+    public void testExecuteWithLock() {
+        String lockKey = "test:reactive:mono";
+
+        Mono<Boolean> mono = reactiveLockTemplate.executeWithLock(lockKey, 30000, 1000,
+                Mono.delay(Duration.ofMillis(200)).map(tick -> lockTemplate.isLocked(lockKey)));
+
+        assertFalse(lockTemplate.isLocked(lockKey), "订阅前不应该获取锁");
+        assertTrue(mono.block(Duration.ofSeconds(3)), "操作执行期间锁应该被持有");
+        assertFalse(lockTemplate.isLocked(lockKey), "操作完成后锁应该被释放");
+    }
+
+    /**
+     * 测试锁在Flux完成后才释放
+     */
+    @Test
+    public void testExecuteManyWithLock() {
+        String lockKey = "test:reactive:flux";
+
+        List<Boolean> results = reactiveLockTemplate.executeManyWithLock(lockKey, 30000, 1000,
+                Flux.interval(Duration.ofMillis(50)).take(3).map(tick -> lockTemplate.isLocked(lockKey)))
+                .collectList()
+                .block(Duration.ofSeconds(3));
+
+        assertNotNull(results);
+        assertEquals(3, results.size(), "应该收到所有元素");
+        assertTrue(results.stream().allMatch(Boolean::booleanValue), "发布元素期间锁应该被持有");
+        assertFalse(lockTemplate.isLocked(lockKey), "操作完成后锁应该被释放");
+    }
+
+    /**
+     * 测试获取锁失败时以LockException结束
+     */
+    @Test
+    public void testExecuteWithLockFailure() {
+        String lockKey = "test:reactive:failure";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        try {
+            Mono<String> mono = reactiveLockTemplate.executeWithLock(lockKey, 30000, 100, Mono.just("never"));
+            assertThrows(LockException.class, () -> mono.block(Duration.ofSeconds(3)), "获取锁失败应该抛出LockException");
+        } finally {
+            lockTemplate.releaseLock(lockInfo);
+        }
+    }
+
+    /**
+     * 测试取消订阅时释放锁
+     */
+    @Test
+    public void testCancelReleasesLock() throws InterruptedException {
+        String lockKey = "test:reactive:cancel";
+
+        Disposable disposable = reactiveLockTemplate.executeWithLock(lockKey, 30000, 1000, Mono.never()).subscribe();
+        Thread.sleep(300);
+        assertTrue(lockTemplate.isLocked(lockKey), "订阅后锁应该被持有");
+
+        disposable.dispose();
+        Thread.sleep(300);
+        assertFalse(lockTemplate.isLocked(lockKey), "取消订阅后锁应该被释放");
+    }
+
+    /**
+     * 测试注解方法返回Mono时锁在Mono完成后才释放
+     */
+    @Test
+    public void testAnnotationWithMono() {
+        String productId = "reactive-product";
+        stockService.initStock(productId, 10);
+
+        Mono<Boolean> mono = stockService.decrementStockReactive(productId, 3, Duration.ofMillis(300));
+        assertFalse(lockTemplate.isLocked(REACTIVE_KEY_PREFIX + productId), "订阅前不应该获取锁");
+
+        Disposable disposable = mono.subscribe();
+        try {
+            Thread.sleep(150);
+            assertTrue(lockTemplate.isLocked(REACTIVE_KEY_PREFIX + productId), "Mono完成前锁应该被持有");
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            disposable.dispose();
+        }
+
+        assertFalse(lockTemplate.isLocked(REACTIVE_KEY_PREFIX + productId), "Mono完成后锁应该被释放");
+        assertEquals(7, stockService.getStock(productId), "库存应该正确减少");
+    }
+
+    /**
+     * 测试注解方法返回Mono时并发操作互斥
+     */
+    @Test
+    public void testAnnotationWithMonoConcurrent() {
+        String productId = "reactive-concurrent";
+        stockService.initStock(productId, 5);
+
+        List<Boolean> results = Flux.range(0, 5)
+                .flatMap(i -> stockService.decrementStockReactive(productId, 1, Duration.ofMillis(20)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(results);
+        assertEquals(5, results.size(), "所有操作都应该完成");
+        assertTrue(results.stream().allMatch(Boolean::booleanValue), "所有操作都应该成功");
+        assertEquals(0, stockService.getStock(productId), "最终库存应该为0");
+    }
+
+    /**
+     * 测试注解方法返回CompletableFuture时锁在结果完成后才释放
+     */
+    @Test
+    public void testAnnotationWithCompletableFuture() throws Exception {
+        String productId = "async-product";
+        stockService.initStock(productId, 10);
+
+        CompletableFuture<Object> trigger = new CompletableFuture<>();
+        CompletableFuture<Boolean> result = stockService.decrementStockAsync(productId, 4, trigger);
+
+        Thread.sleep(200);
+        assertTrue(lockTemplate.isLocked(ASYNC_KEY_PREFIX + productId), "结果完成前锁应该被持有");
+        assertFalse(result.isDone(), "结果不应该提前完成");
+
+        trigger.complete(null);
+        assertTrue(result.get(3, TimeUnit.SECONDS), "应该成功减少库存");
+        assertFalse(lockTemplate.isLocked(ASYNC_KEY_PREFIX + productId), "结果完成后锁应该被释放");
+        assertEquals(6, stockService.getStock(productId), "库存应该正确减少");
+    }
+}
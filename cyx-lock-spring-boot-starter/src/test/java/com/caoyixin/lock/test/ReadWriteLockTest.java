@@ -0,0 +1,170 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.ReadWriteLockExecutor;
+import com.caoyixin.lock.core.ReleaseResult;
+import com.caoyixin.lock.exception.LockException;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写锁测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class ReadWriteLockTest {
+
+    private static final String READ_KEY_PREFIX = "test:lock:StockService:getStockWithReadLock:";
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        assertTrue(lockExecutor instanceof ReadWriteLockExecutor, "锁执行器应该支持读写锁");
+        stockService.reset();
+    }
+
+    /**
+     * 测试读锁之间不互斥，写锁与读锁互斥
+     */
+    @Test
+    public void testReadWriteExclusion() throws Exception {
+        String lockKey = "test:rw:basic";
+
+        LockInfo read = lockTemplate.lock(lockKey, LockMode.READ, 30000, 1000, null);
+        assertNotNull(read, "应该成功获取读锁");
+        assertEquals(LockMode.READ, read.getMode(), "锁模式应该为READ");
+
+        // 其他线程可以同时获取读锁，但不能获取写锁
+        LockInfo otherRead = CompletableFuture.supplyAsync(
+                () -> lockTemplate.lock(lockKey, LockMode.READ, 30000, 200, null)).get(3, TimeUnit.SECONDS);
+        assertNotNull(otherRead, "读锁之间不应该互斥");
+        assertNull(CompletableFuture.supplyAsync(
+                () -> lockTemplate.lock(lockKey, LockMode.WRITE, 30000, 200, null)).get(3, TimeUnit.SECONDS),
+                "读锁被持有时不应该获取到写锁");
+
+        assertTrue(lockTemplate.releaseLock(read), "应该成功释放读锁");
+        assertTrue(lockTemplate.releaseLock(otherRead), "应该成功释放读锁");
+        assertFalse(lockTemplate.isLocked(lockKey), "所有读锁释放后key应该不存在");
+
+        // 写锁被持有时其他线程不能获取读锁
+        LockInfo write = lockTemplate.lock(lockKey, LockMode.WRITE, 30000, 1000, null);
+        assertNotNull(write, "应该成功获取写锁");
+        assertNull(CompletableFuture.supplyAsync(
+                () -> lockTemplate.lock(lockKey, LockMode.READ, 30000, 200, null)).get(3, TimeUnit.SECONDS),
+                "写锁被持有时不应该获取到读锁");
+        assertTrue(lockTemplate.releaseLock(write), "应该成功释放写锁");
+    }
+
+    /**
+     * 测试在其他线程按持有者标识释放读写锁
+     */
+    @Test
+    public void testReleaseFromOtherThread() throws Exception {
+        String lockKey = "test:rw:cross-thread";
+
+        LockInfo write = lockTemplate.lock(lockKey, LockMode.WRITE, 30000, 1000, null);
+        assertNotNull(write, "应该成功获取写锁");
+
+        ReleaseResult result = CompletableFuture.supplyAsync(() -> lockTemplate.releaseLockWithResult(write))
+                .get(3, TimeUnit.SECONDS);
+        assertEquals(ReleaseResult.RELEASED, result, "应该能在其他线程释放写锁");
+        assertFalse(lockTemplate.isLocked(lockKey), "写锁应该已被释放");
+        assertEquals(ReleaseResult.EXPIRED, lockTemplate.releaseLockWithResult(write), "第二次释放同一个锁应该失败");
+    }
+
+    /**
+     * 测试异步获取的写锁不与线程绑定，两次异步获取之间互斥
+     */
+    @Test
+    public void testAsyncWriteLocksExclusive() throws Exception {
+        String lockKey = "test:rw:async";
+
+        LockInfo first = lockTemplate.lockAsync(lockKey, LockMode.WRITE, 30000, 1000, null)
+                .get(3, TimeUnit.SECONDS);
+        assertNotNull(first, "应该成功异步获取写锁");
+        assertNotNull(first.getFencingToken(), "写锁应该有防护令牌");
+        try {
+            assertNull(lockTemplate.lockAsync(lockKey, LockMode.WRITE, 30000, 200, null).get(3, TimeUnit.SECONDS),
+                    "写锁被异步持有时不应该再次异步获取到写锁");
+            assertNull(lockTemplate.lockAsync(lockKey, LockMode.READ, 30000, 200, null).get(3, TimeUnit.SECONDS),
+                    "写锁被异步持有时不应该异步获取到读锁");
+        } finally {
+            assertEquals(ReleaseResult.RELEASED, lockTemplate.releaseLockAsync(first).get(3, TimeUnit.SECONDS),
+                    "应该成功释放写锁");
+        }
+        assertFalse(lockTemplate.isLocked(lockKey), "写锁应该已被释放");
+    }
+
+    /**
+     * 测试读锁模板方法
+     */
+    @Test
+    public void testExecuteWithReadLock() {
+        String lockKey = "test:rw:execute";
+
+        Boolean locked = lockTemplate.executeWithLock(lockKey, LockMode.READ, 30000, 1000,
+                () -> lockTemplate.isLocked(lockKey));
+        assertTrue(locked, "操作执行期间锁应该被持有");
+        assertFalse(lockTemplate.isLocked(lockKey), "操作完成后锁应该被释放");
+    }
+
+    /**
+     * 测试注解方法使用读锁时并发读取不互斥，写锁被持有时读取失败
+     */
+    @Test
+    public void testAnnotationWithReadLock() throws Exception {
+        String productId = "rw-product";
+        stockService.initStock(productId, 10);
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> readStock(productId, 500));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> readStock(productId, 500));
+        assertEquals(10, first.get(3, TimeUnit.SECONDS), "应该读取到库存");
+        assertEquals(10, second.get(3, TimeUnit.SECONDS), "应该读取到库存");
+        assertTrue(System.currentTimeMillis() - start < 950, "读操作之间不应该互斥");
+
+        LockInfo write = lockTemplate.lock(READ_KEY_PREFIX + productId, LockMode.WRITE, 30000, 1000, null);
+        assertNotNull(write, "应该成功获取写锁");
+        try {
+            // 写锁持有者自身可以获取读锁，在其他线程读取
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> CompletableFuture.supplyAsync(() -> readStock(productId, 0)).get(3, TimeUnit.SECONDS),
+                    "写锁被持有时读取应该失败");
+            assertTrue(e.getCause() instanceof LockException, "写锁被持有时读取应该抛出LockException");
+        } finally {
+            lockTemplate.releaseLock(write);
+        }
+    }
+
+    private int readStock(String productId, long delayMillis) {
+        try {
+            return stockService.getStockWithReadLock(productId, delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 锁模板重入测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class ReentrantLockTest {
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    private final AtomicInteger acquireCount = new AtomicInteger();
+
+    private LockTemplate lockTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        acquireCount.set(0);
+        lockTemplate = new LockTemplate();
+        lockTemplate.setLockExecutor(new LockExecutor() {
+            @Override
+            public LockInfo acquire(String key, long expire, long acquireTimeout) {
+                acquireCount.incrementAndGet();
+                return lockExecutor.acquire(key, expire, acquireTimeout);
+            }
+
+            @Override
+            public boolean release(LockInfo lockInfo) {
+                return lockExecutor.release(lockInfo);
+            }
+
+            @Override
+            public boolean isLocked(String key) {
+                return lockExecutor.isLocked(key);
+            }
+        });
+    }
+
+    /**
+     * 测试同一线程嵌套获取同一把锁时不访问锁服务，最外层释放后锁才被释放
+     */
+    @Test
+    public void testNestedLockWithoutBackend() {
+        String lockKey = "test:reentrant:nested";
+
+        LockInfo outer = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(outer, "应该成功获取锁");
+        for (int i = 1; i <= 3; i++) {
+            assertSame(outer, lockTemplate.lock(lockKey, 30000, 0), "重入应该返回已持有的锁信息");
+        }
+        assertEquals(1, acquireCount.get(), "重入不应该访问锁服务");
+        assertEquals(3, outer.getReentrantCount(), "重入计数应该为3");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(lockTemplate.releaseLock(outer), "应该成功释放重入锁");
+            assertTrue(lockExecutor.isLocked(lockKey), "最外层释放前锁应该仍然存在");
+        }
+        assertTrue(lockTemplate.releaseLock(outer), "应该成功释放锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "最外层释放后锁应该被释放");
+
+        LockInfo again = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(again, "释放后应该能重新获取锁");
+        assertNotSame(outer, again, "释放后应该重新获取锁");
+        assertEquals(2, acquireCount.get(), "释放后重新获取应该访问锁服务");
+        assertTrue(lockTemplate.releaseLock(again), "应该成功释放锁");
+    }
+
+    /**
+     * 测试其他线程不能重入
+     */
+    @Test
+    public void testNoReentryFromOtherThread() throws Exception {
+        String lockKey = "test:reentrant:other-thread";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        try {
+            assertNull(CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 30000, 200))
+                    .get(3, TimeUnit.SECONDS), "其他线程不应该获取到已被持有的锁");
+            assertNull(lockTemplate.lockAsync(lockKey, 30000, 200).get(3, TimeUnit.SECONDS),
+                    "异步获取的锁不与线程绑定，不应该重入");
+        } finally {
+            assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        }
+    }
+
+    /**
+     * 测试在锁保护的操作中异步获取同一把锁时重入，所有持有者释放后锁才被释放
+     */
+    @Test
+    public void testReentryInLockContext() throws Exception {
+        String lockKey = "test:reentrant:context";
+
+        LockInfo inner = lockTemplate.executeWithLock(lockKey, 30000, 1000,
+                () -> lockTemplate.lockAsync(lockKey, 30000, 0).join());
+        assertNotNull(inner, "锁上下文中应该能重入");
+        assertEquals(1, acquireCount.get(), "重入不应该访问锁服务");
+        assertTrue(lockExecutor.isLocked(lockKey), "异步持有者释放前锁应该仍然存在");
+
+        assertTrue(lockTemplate.releaseLockAsync(inner).get(3, TimeUnit.SECONDS).isReleased(), "应该成功释放锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "所有持有者释放后锁应该被释放");
+    }
+}
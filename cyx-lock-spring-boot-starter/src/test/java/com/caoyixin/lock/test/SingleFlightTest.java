@@ -0,0 +1,124 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 合并并发调用测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class SingleFlightTest {
+
+    private static final int THREAD_COUNT = 20;
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        stockService.reset();
+    }
+
+    /**
+     * 测试注解方法的并发调用共享一次执行的结果
+     */
+    @Test
+    public void testSharedResult() throws Exception {
+        String productId = "single-flight-product";
+        stockService.initStock(productId, 42);
+
+        List<Future<Integer>> futures = runConcurrently(() -> stockService.refreshStock(productId, 500));
+        for (Future<Integer> future : futures) {
+            assertEquals(42, future.get(10, TimeUnit.SECONDS), "所有调用者都应该得到库存");
+        }
+        assertTrue(stockService.getRefreshCallCount() < THREAD_COUNT / 2,
+                "并发调用应该合并执行，实际执行次数: " + stockService.getRefreshCallCount());
+    }
+
+    /**
+     * 测试执行者抛出的异常传递给所有等待的调用者
+     */
+    @Test
+    public void testSharedException() throws Exception {
+        String productId = "single-flight-missing";
+
+        List<Future<Integer>> futures = runConcurrently(() -> stockService.refreshStock(productId, 500));
+        for (Future<Integer> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS),
+                    "所有调用者都应该得到异常");
+            assertTrue(e.getCause() instanceof IllegalStateException, "应该得到执行者抛出的异常");
+        }
+        assertTrue(stockService.getRefreshCallCount() < THREAD_COUNT / 2,
+                "并发调用应该合并执行，实际执行次数: " + stockService.getRefreshCallCount());
+
+        // 执行完成后不再共享结果
+        stockService.initStock(productId, 7);
+        assertEquals(7, stockService.refreshStock(productId, 0), "执行完成后的调用应该重新执行");
+    }
+
+    /**
+     * 测试模板方法共享执行
+     */
+    @Test
+    public void testExecuteShared() throws Exception {
+        String lockKey = "test:single-flight:template";
+        AtomicInteger executions = new AtomicInteger();
+
+        List<Future<Integer>> futures = runConcurrently(() -> lockTemplate.executeShared(lockKey, 5000, 3000, () -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return executions.incrementAndGet();
+        }));
+        for (Future<Integer> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS) > 0, "所有调用者都应该得到结果");
+        }
+        assertTrue(executions.get() < THREAD_COUNT / 2, "并发调用应该合并执行，实际执行次数: " + executions.get());
+        assertFalse(lockTemplate.isLocked(lockKey), "执行完成后锁应该被释放");
+    }
+
+    private <T> List<Future<T>> runConcurrently(Callable<T> task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    return task.call();
+                }));
+            }
+            startLatch.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "所有调用应该在超时前完成");
+        return futures;
+    }
+}
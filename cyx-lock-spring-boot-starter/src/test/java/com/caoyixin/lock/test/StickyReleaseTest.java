@@ -0,0 +1,163 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.core.StickyReleaseService;
+import com.caoyixin.lock.test.config.TestConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 延迟释放测试
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfiguration.class)
+public class StickyReleaseTest {
+
+    private static final long WINDOW = 200;
+
+    @Autowired
+    private LockExecutor lockExecutor;
+
+    private final AtomicInteger acquireCount = new AtomicInteger();
+
+    private final AtomicInteger releaseCount = new AtomicInteger();
+
+    private StickyReleaseService stickyReleaseService;
+
+    private LockTemplate lockTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        acquireCount.set(0);
+        releaseCount.set(0);
+        LockExecutor countingExecutor = new LockExecutor() {
+            @Override
+            public LockInfo acquire(String key, long expire, long acquireTimeout) {
+                acquireCount.incrementAndGet();
+                return lockExecutor.acquire(key, expire, acquireTimeout);
+            }
+
+            @Override
+            public boolean release(LockInfo lockInfo) {
+                releaseCount.incrementAndGet();
+                return lockExecutor.release(lockInfo);
+            }
+
+            @Override
+            public boolean isLocked(String key) {
+                return lockExecutor.isLocked(key);
+            }
+        };
+        stickyReleaseService = new StickyReleaseService(countingExecutor, WINDOW);
+        lockTemplate = new LockTemplate();
+        lockTemplate.setLockExecutor(countingExecutor);
+        lockTemplate.setStickyReleaseService(stickyReleaseService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stickyReleaseService.close();
+    }
+
+    /**
+     * 测试保留期内连续获取同一把锁只访问一次锁服务，保留期结束后在后台释放
+     */
+    @Test
+    public void testReacquireWithinWindow() throws Exception {
+        String lockKey = "test:sticky:reacquire";
+
+        for (int i = 0; i < 10; i++) {
+            LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+            assertNotNull(lockInfo, "应该成功获取锁");
+            assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        }
+        assertEquals(1, acquireCount.get(), "保留期内再次获取不应该访问锁服务");
+        assertEquals(0, releaseCount.get(), "保留期内不应该释放锁");
+        assertTrue(lockExecutor.isLocked(lockKey), "保留期内锁应该仍然被持有");
+
+        Thread.sleep(WINDOW * 3);
+        assertEquals(1, releaseCount.get(), "保留期结束后应该释放锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "保留期结束后锁应该被释放");
+        assertEquals(0, stickyReleaseService.size(), "不应该有保留中的锁");
+    }
+
+    /**
+     * 测试同一JVM内其他线程在保留期内获取锁时直接使用保留的锁
+     */
+    @Test
+    public void testReacquireFromOtherThread() throws Exception {
+        String lockKey = "test:sticky:other-thread";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        Long fencingToken = lockInfo.getFencingToken();
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+
+        LockInfo other = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 30000, 1000))
+                .get(3, TimeUnit.SECONDS);
+        assertNotNull(other, "其他线程应该获取到保留的锁");
+        assertEquals(fencingToken, other.getFencingToken(), "保留的锁应该沿用原防护令牌");
+        assertEquals(1, acquireCount.get(), "保留期内再次获取不应该访问锁服务");
+
+        Thread.sleep(WINDOW * 3);
+        assertTrue(lockExecutor.isLocked(lockKey), "未释放的锁不应该被后台释放");
+        assertTrue(CompletableFuture.supplyAsync(() -> lockTemplate.releaseLock(other)).get(3, TimeUnit.SECONDS),
+                "应该成功释放锁");
+    }
+
+    /**
+     * 测试保留的锁被其他线程接手后，原线程不能再重入获取
+     */
+    @Test
+    public void testOriginalThreadBlockedAfterClaim() throws Exception {
+        String lockKey = "test:sticky:claimed";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+
+        LockInfo other = CompletableFuture.supplyAsync(() -> lockTemplate.lock(lockKey, 30000, 1000))
+                .get(3, TimeUnit.SECONDS);
+        assertNotNull(other, "其他线程应该获取到保留的锁");
+        try {
+            assertNull(lockExecutor.acquire(lockKey, 30000, 200), "锁被接手后原线程不应该重入获取");
+            assertNull(lockTemplate.lock(lockKey, 30000, 200), "锁被接手后原线程不应该通过锁模板获取");
+            assertNull(lockTemplate.lockAll(Arrays.asList(lockKey, lockKey + ":other"), 30000, 200),
+                    "锁被接手后原线程不应该通过多key锁获取");
+        } finally {
+            assertTrue(CompletableFuture.supplyAsync(() -> lockTemplate.releaseLock(other)).get(3, TimeUnit.SECONDS),
+                    "应该成功释放锁");
+        }
+    }
+
+    /**
+     * 测试关闭服务时释放所有保留中的锁
+     */
+    @Test
+    public void testCloseReleasesParkedLocks() {
+        String lockKey = "test:sticky:close";
+
+        LockInfo lockInfo = lockTemplate.lock(lockKey, 30000, 1000);
+        assertNotNull(lockInfo, "应该成功获取锁");
+        assertTrue(lockTemplate.releaseLock(lockInfo), "应该成功释放锁");
+        assertEquals(1, stickyReleaseService.size(), "锁应该被保留");
+
+        stickyReleaseService.close();
+        assertEquals(0, stickyReleaseService.size(), "关闭后不应该有保留中的锁");
+        assertFalse(lockExecutor.isLocked(lockKey), "关闭后锁应该被释放");
+    }
+}
@@ -0,0 +1,128 @@
+package com.caoyixin.lock.test;
+
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.exception.LockException;
+import com.caoyixin.lock.support.LockStripes;
+import com.caoyixin.lock.test.config.LocalTestConfiguration;
+import com.caoyixin.lock.test.service.StockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分桶锁测试 - 使用LocalLockExecutor实现
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = LocalTestConfiguration.class)
+public class StripedLockTest {
+
+    private static final String NAMESPACE = "test:lock:StockService:decrementStockStriped";
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        stockService.reset();
+    }
+
+    /**
+     * 测试分桶编号稳定且在分桶数量范围内
+     */
+    @Test
+    public void testStripeIndex() {
+        Set<String> stripeKeys = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "order:" + i;
+            int index = LockStripes.indexOf(key, 16);
+            assertTrue(index >= 0 && index < 16, "分桶编号应该在范围内");
+            assertEquals(index, LockStripes.indexOf(key, 16), "同一个key的分桶编号应该不变");
+            stripeKeys.add(LockStripes.stripeKey(NAMESPACE, key, 16));
+        }
+        assertEquals(16, stripeKeys.size(), "1000个key应该映射到全部16个分桶");
+
+        List<String> keys = LockStripes.stripeKeys(NAMESPACE, Arrays.asList("a", "a", "b"), 1);
+        assertEquals(1, keys.size(), "落在同一个分桶的key应该只保留一个");
+    }
+
+    /**
+     * 测试不同产品落在同一个分桶时相互等待，并记录分桶竞争
+     */
+    @Test
+    public void testSameStripeContends() throws Exception {
+        String productId = "striped-product-0";
+        String sibling = siblingOf(productId);
+        stockService.initStock(productId, 10);
+        stockService.initStock(sibling, 10);
+        String stripeKey = LockStripes.stripeKey(NAMESPACE, productId, 4);
+        double before = contention(stripeKey);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            LockInfo lockInfo = lockTemplate.lock(stripeKey, 30000, 1000);
+            assertNotNull(lockInfo, "持有者应该获取到分桶锁");
+            locked.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lockTemplate.releaseLock(lockInfo);
+            }
+        });
+        assertTrue(locked.await(3, TimeUnit.SECONDS), "持有者应该获取到分桶锁");
+
+        try {
+            assertThrows(LockException.class, () -> stockService.decrementStockStriped(sibling, 1),
+                    "同一个分桶的其他产品应该获取失败");
+        } finally {
+            done.countDown();
+            holder.get(3, TimeUnit.SECONDS);
+        }
+        assertEquals(before + 1, contention(stripeKey), "应该记录一次分桶竞争");
+
+        assertTrue(stockService.decrementStockStriped(sibling, 1), "分桶空闲时应该成功");
+        assertEquals(9, stockService.getStock(sibling), "库存应该减少");
+    }
+
+    /**
+     * 找到与指定产品落在同一个分桶的其他产品
+     */
+    private static String siblingOf(String productId) {
+        int index = LockStripes.indexOf(productId, 4);
+        for (int i = 1; ; i++) {
+            String candidate = "striped-product-" + i;
+            if (LockStripes.indexOf(candidate, 4) == index) {
+                return candidate;
+            }
+        }
+    }
+
+    private double contention(String stripeKey) {
+        Counter counter = meterRegistry.find("cyx_lock_stripe_contention_total").tag("key", stripeKey).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
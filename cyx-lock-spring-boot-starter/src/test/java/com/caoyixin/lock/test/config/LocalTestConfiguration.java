@@ -0,0 +1,39 @@
+package com.caoyixin.lock.test.config;
+
+import com.caoyixin.lock.core.LockExecutor;
+import com.caoyixin.lock.local.executor.LocalLockExecutor;
+import com.caoyixin.lock.starter.autoconfigure.LockAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 本地锁测试配置类，不依赖Redis
+ */
+@Configuration
+@EnableAutoConfiguration
+@ComponentScan("com.caoyixin.lock.test.service")
+@Import(LockAutoConfiguration.class)
+public class LocalTestConfiguration {
+
+    /**
+     * 提供测试使用的度量注册表
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    /**
+     * 提供基于JVM内存的锁执行器
+     */
+    @Bean
+    public LockExecutor lockExecutor() {
+        return new LocalLockExecutor();
+    }
+
+}
@@ -1,13 +1,23 @@
 package com.caoyixin.lock.test.service;
 
 import com.caoyixin.lock.annotation.CyxLock;
+import com.caoyixin.lock.core.LockContext;
+import com.caoyixin.lock.core.LockInfo;
+import com.caoyixin.lock.core.LockMode;
 import com.caoyixin.lock.core.LockTemplate;
+import com.caoyixin.lock.support.AcquireStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -24,6 +34,12 @@ public class StockService {
     // 记录调用情况
     private final AtomicInteger decrementCallCount = new AtomicInteger(0);
     private final AtomicInteger incrementCallCount = new AtomicInteger(0);
+    private final AtomicInteger concurrentQueries = new AtomicInteger(0);
+    private final AtomicInteger maxConcurrentQueries = new AtomicInteger(0);
+    private final AtomicInteger refreshCallCount = new AtomicInteger(0);
+
+    // 模拟存储层记录的最后写入令牌
+    private final Map<String, Long> fencingTokenMap = new ConcurrentHashMap<>();
 
     @Autowired
     private LockTemplate lockTemplate;
@@ -35,6 +51,10 @@ public class StockService {
         stockMap.clear();
         decrementCallCount.set(0);
         incrementCallCount.set(0);
+        concurrentQueries.set(0);
+        maxConcurrentQueries.set(0);
+        refreshCallCount.set(0);
+        fencingTokenMap.clear();
     }
 
     /**
@@ -111,6 +131,160 @@ public class StockService {
      */
     @CyxLock(name = "inventory:transfer:#{#fromId}:#{#toId}", expire = 5000, acquireTimeout = 1000)
     public boolean transferStock(String fromId, String toId, int quantity) {
+        return doTransferStock(fromId, toId, quantity);
+    }
+
+    /**
+     * 分别锁定源产品和目标产品进行库存转移
+     */
+    @CyxLock(keys = {"#fromId", "#toId"}, multi = true, expire = 5000, acquireTimeout = 3000)
+    public boolean transferStockWithMultiLock(String fromId, String toId, int quantity) {
+        return doTransferStock(fromId, toId, quantity);
+    }
+
+    /**
+     * 使用注解方式响应式减少库存，延迟后执行
+     */
+    @CyxLock(keys = {"#productId"}, expire = 5000, acquireTimeout = 3000)
+    public Mono<Boolean> decrementStockReactive(String productId, int quantity, Duration delay) {
+        return Mono.delay(delay).map(tick -> {
+            decrementCallCount.incrementAndGet();
+            return doDecrementStock(productId, quantity);
+        });
+    }
+
+    /**
+     * 使用注解方式异步减少库存，在trigger完成后执行
+     */
+    @CyxLock(keys = {"#productId"}, expire = 5000, acquireTimeout = 1000)
+    public CompletableFuture<Boolean> decrementStockAsync(String productId, int quantity, CompletableFuture<?> trigger) {
+        return trigger.thenApply(ignored -> {
+            decrementCallCount.incrementAndGet();
+            return doDecrementStock(productId, quantity);
+        });
+    }
+
+    /**
+     * 使用读锁查询库存，延迟后返回，读操作之间不互斥
+     */
+    @CyxLock(keys = {"#productId"}, mode = LockMode.READ, expire = 5000, acquireTimeout = 1000)
+    public int getStockWithReadLock(String productId, long delayMillis) throws InterruptedException {
+        Thread.sleep(delayMillis);
+        return getStock(productId);
+    }
+
+    /**
+     * 使用许可锁查询供应商库存，最多2个并发调用
+     */
+    @CyxLock(keys = {"#supplierId"}, permits = 2, expire = 5000, acquireTimeout = 3000)
+    public int querySupplierStock(String supplierId, long delayMillis) throws InterruptedException {
+        int current = concurrentQueries.incrementAndGet();
+        maxConcurrentQueries.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(delayMillis);
+            return getStock(supplierId);
+        } finally {
+            concurrentQueries.decrementAndGet();
+        }
+    }
+
+    /**
+     * 获取查询供应商库存的最大并发数
+     */
+    public int getMaxConcurrentQueries() {
+        return maxConcurrentQueries.get();
+    }
+
+    /**
+     * 使用防护令牌设置库存，模拟存储层拒绝令牌不大于上次写入令牌的写入
+     *
+     * @return 本次写入使用的令牌，写入被拒绝时返回null
+     */
+    @CyxLock(keys = {"#productId"}, expire = 5000, acquireTimeout = 1000)
+    public Long setStockWithFencing(String productId, int stock) {
+        Long token = LockContext.fencingToken();
+        if (token == null) {
+            return null;
+        }
+        Long last = fencingTokenMap.get(productId);
+        if (last != null && token <= last) {
+            logger.warn("Rejected stale write, productId: {}, token: {}, last: {}", productId, token, last);
+            return null;
+        }
+        fencingTokenMap.put(productId, token);
+        initStock(productId, stock);
+        return token;
+    }
+
+    /**
+     * 刷新库存，同一产品的并发调用合并为一次执行，延迟后返回库存
+     *
+     * @throws IllegalStateException 产品不存在
+     */
+    @CyxLock(keys = {"#productId"}, singleFlight = true, expire = 5000, acquireTimeout = 3000)
+    public int refreshStock(String productId, long delayMillis) throws InterruptedException {
+        refreshCallCount.incrementAndGet();
+        Thread.sleep(delayMillis);
+        if (!stockMap.containsKey(productId)) {
+            throw new IllegalStateException("产品不存在: " + productId);
+        }
+        return getStock(productId);
+    }
+
+    /**
+     * 获取刷新库存的实际执行次数
+     */
+    public int getRefreshCallCount() {
+        return refreshCallCount.get();
+    }
+
+    /**
+     * 使用分桶锁减少库存，不同产品可能落在同一个分桶
+     */
+    @CyxLock(keys = {"#productId"}, stripes = 4, expire = 5000, acquireTimeout = 200)
+    public boolean decrementStockStriped(String productId, int quantity) {
+        decrementCallCount.incrementAndGet();
+        return doDecrementStock(productId, quantity);
+    }
+
+    /**
+     * 只尝试一次获取锁后减少库存，锁被占用时立即失败
+     */
+    @CyxLock(keys = {"#productId"}, strategy = AcquireStrategy.Type.TRY_ONCE, expire = 5000, acquireTimeout = 3000)
+    public boolean decrementStockTryOnce(String productId, int quantity) {
+        decrementCallCount.incrementAndGet();
+        return doDecrementStock(productId, quantity);
+    }
+
+    /**
+     * 使用全局配置的过期时间加锁，返回持有锁的有效期
+     */
+    @CyxLock(keys = {"#productId"})
+    public long getLockTtl(String productId) {
+        LockInfo lockInfo = LockContext.current();
+        return lockInfo.getExpireTime() - lockInfo.getLockedAt();
+    }
+
+    /**
+     * 按租户分片对多个商品加锁，返回持有锁的key
+     */
+    @CyxLock(keys = {"#productIds"}, multi = true, shardKey = "#tenantId", expire = 5000, acquireTimeout = 3000)
+    public List<String> getShardedLockKeys(String tenantId, List<String> productIds) {
+        LockInfo lockInfo = LockContext.current();
+        if (lockInfo.getLocks() == null) {
+            return Collections.singletonList(lockInfo.getKey());
+        }
+        List<String> keys = new ArrayList<>(lockInfo.getLocks().size());
+        for (LockInfo lock : lockInfo.getLocks()) {
+            keys.add(lock.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * 实际执行库存转移的方法
+     */
+    private boolean doTransferStock(String fromId, String toId, int quantity) {
         decrementCallCount.incrementAndGet();
         incrementCallCount.incrementAndGet();
 